@@ -0,0 +1,86 @@
+package org.example.elevatorsimulation.benchmark;
+
+import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.service.BuildingService;
+import org.example.elevatorsimulation.service.Elevator;
+import org.example.elevatorsimulation.service.ElevatorExecutionMode;
+import org.example.elevatorsimulation.util.SimulationLimits;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Sets up a building with elevators spread over the floors in a mix of idle & moving states, so that the schedulers are
+ * measured against a realistic building rather than a fleet of idle elevators parked at the ground floor
+ */
+final class BenchmarkBuilding {
+    private static final int REQUEST_COUNT = 1024;
+
+    private BenchmarkBuilding() {
+        // empty private constructor to prevent instantiation
+    }
+
+    /**
+     * Initialize the elevators of the building & set some of them in motion
+     *
+     * @param floors    no. of floors in the building
+     * @param elevators no. of elevators in the building
+     * @param seed      the seed for the elevator positions
+     */
+    static void initialize(int floors, int elevators, long seed) {
+        Random random = new Random(seed);
+        BuildingService buildingService = BuildingService.getInstance();
+        buildingService.setLimits(new SimulationLimits(floors, elevators));
+        buildingService.initializeElevators(elevators, ElevatorExecutionMode.EXTERNAL);
+
+        for (Elevator elevator : buildingService.getElevatorList()) {
+            elevator.setCurrentFloor(random.nextInt(floors));
+            if (random.nextBoolean()) {
+                elevator.assign(randomRequest(random, floors));
+                for (int i = random.nextInt(4); i > 0; i--) {
+                    elevator.step();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return a ring of random call requests to cycle through, its size is a power of 2
+     */
+    static ElevatorCallRequest[] requests(int floors, long seed) {
+        Random random = new Random(seed);
+        ElevatorCallRequest[] requests = new ElevatorCallRequest[REQUEST_COUNT];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = randomRequest(random, floors);
+        }
+        return requests;
+    }
+
+    /**
+     * Take the given call request back from the elevator it was assigned to, keeping the building state stable between
+     * two benchmark invocations
+     *
+     * @param request the call request to take back
+     */
+    static void unassign(ElevatorCallRequest request) {
+        int elevatorId = request.getAssignedElevatorId();
+        List<Elevator> elevators = BuildingService.getInstance().getElevatorList();
+        if (elevatorId >= 0 && elevatorId < elevators.size() && elevators.get(elevatorId).unassign(request)) {
+            return;
+        }
+        // the request was reassigned in the meantime
+        for (Elevator elevator : elevators) {
+            if (elevator.unassign(request)) {
+                return;
+            }
+        }
+    }
+
+    private static ElevatorCallRequest randomRequest(Random random, int floors) {
+        int requestFloor = random.nextInt(floors);
+        int targetFloor = (requestFloor + 1 + random.nextInt(floors - 1)) % floors;
+        return new ElevatorCallRequest(requestFloor, targetFloor);
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.elevatorsimulation.benchmark;
+
+import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.scheduler.EstimatedTimeScheduler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Measures the end to end latency from submitting a call request to the building until the scheduler thread has
+ * assigned it to an elevator, i.e., the wake up of the dispatch signal plus the scheduling itself. The scheduler thread
+ * takes every request back right after counting it, so the building stays stable without a per invocation fixture
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DispatchLatencyBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int elevators;
+
+    private final AtomicLong scheduledCount = new AtomicLong();
+    private EstimatedTimeScheduler scheduler;
+    private ElevatorCallRequest[] requests;
+    private int cursor;
+    private int iteration;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkBuilding.initialize(100, elevators, 42);
+        scheduler = new EstimatedTimeScheduler() {
+            @Override
+            public boolean schedule(ElevatorCallRequest elevatorRequest) {
+                boolean scheduled = super.schedule(elevatorRequest);
+                scheduledCount.incrementAndGet();
+                if (scheduled) {
+                    BenchmarkBuilding.unassign(elevatorRequest);
+                }
+                return scheduled;
+            }
+        };
+        scheduler.start();
+    }
+
+    @Setup(Level.Iteration)
+    public void nextBatch() {
+        requests = BenchmarkBuilding.requests(100, 7 + iteration++);
+        cursor = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scheduler.stop();
+    }
+
+    @Benchmark
+    public long submitToAssignment() {
+        ElevatorCallRequest request = requests[cursor];
+        cursor = (cursor + 1) & (requests.length - 1);
+        long expected = scheduledCount.get() + 1;
+        request.submitRequest();
+        while (scheduledCount.get() < expected) {
+            Thread.onSpinWait();
+        }
+        return expected;
+    }
+}
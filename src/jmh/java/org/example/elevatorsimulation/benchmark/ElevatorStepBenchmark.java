@@ -0,0 +1,48 @@
+package org.example.elevatorsimulation.benchmark;
+
+import org.example.elevatorsimulation.model.ElevatorState;
+import org.example.elevatorsimulation.service.BuildingService;
+import org.example.elevatorsimulation.service.Elevator;
+import org.example.elevatorsimulation.service.ElevatorExecutionMode;
+import org.example.elevatorsimulation.util.SimulationLimits;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Measures a single floor tick of an elevator sweeping the whole building up & down. Run with the gc profiler to
+ * catch allocations creeping into the tick
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ElevatorStepBenchmark {
+
+    @Param({"100", "1000"})
+    private int floors;
+
+    private Elevator elevator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BuildingService buildingService = BuildingService.getInstance();
+        buildingService.setLimits(new SimulationLimits(floors, 1));
+        buildingService.initializeElevators(1, ElevatorExecutionMode.EXTERNAL);
+        elevator = buildingService.getElevator(0);
+    }
+
+    @Benchmark
+    public boolean step() {
+        boolean moved = elevator.step();
+        if (!moved) {
+            elevator.addStop(ElevatorState.UP, floors - 1);
+            elevator.addStop(ElevatorState.DOWN, 0);
+        }
+        return moved;
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.elevatorsimulation.benchmark;
+
+import org.example.elevatorsimulation.model.FloorStopSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Measures the floor stop set operations used on every elevator tick & by the cost function of the schedulers
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FloorStopSetBenchmark {
+
+    @Param({"100", "1000"})
+    private int floors;
+
+    private FloorStopSet stops;
+    private int[] queries;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        stops = new FloorStopSet(floors);
+        for (int i = 0; i < floors / 10; i++) {
+            stops.add(random.nextInt(floors));
+        }
+        queries = new int[1024];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = random.nextInt(floors);
+        }
+    }
+
+    private int nextQuery() {
+        cursor = (cursor + 1) & (queries.length - 1);
+        return queries[cursor];
+    }
+
+    @Benchmark
+    public boolean addAndRemove() {
+        int floor = nextQuery();
+        return stops.add(floor) && stops.remove(floor);
+    }
+
+    @Benchmark
+    public int nextAbove() {
+        return stops.nextAbove(nextQuery());
+    }
+
+    @Benchmark
+    public int nextBelow() {
+        return stops.nextBelow(nextQuery());
+    }
+
+    @Benchmark
+    public int countBetween() {
+        int floor = nextQuery();
+        return stops.count(floor / 2, floor);
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.elevatorsimulation.benchmark;
+
+import org.example.elevatorsimulation.config.SchedulerType;
+import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.scheduler.DispatchWeights;
+import org.example.elevatorsimulation.scheduler.Scheduler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Measures the throughput of {@link Scheduler#schedule(ElevatorCallRequest)} for different schedulers & building sizes.
+ * Every scheduled request is taken back after the invocation, so the building stays in the same state throughout
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SchedulerBenchmark {
+
+    @Param({"NAIVE", "ESTIMATED_TIME", "ENERGY_SAVING", "DESTINATION_DISPATCH"})
+    private SchedulerType schedulerType;
+
+    @Param({"10", "100", "1000"})
+    private int elevators;
+
+    @Param({"20", "100"})
+    private int floors;
+
+    private Scheduler scheduler;
+    private ElevatorCallRequest[] requests;
+    // the request scheduled by the previous invocation, taken back by the next one
+    private ElevatorCallRequest scheduled;
+    private int cursor;
+    private int iteration;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkBuilding.initialize(floors, elevators, 42);
+        scheduler = schedulerType.create(new DispatchWeights());
+    }
+
+    @Setup(Level.Iteration)
+    public void nextBatch() {
+        requests = BenchmarkBuilding.requests(floors, 7 + iteration++);
+        cursor = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void unassign() {
+        if (scheduled != null) {
+            BenchmarkBuilding.unassign(scheduled);
+            scheduled = null;
+        }
+    }
+
+    /**
+     * Schedule the next request of the batch, after taking back the previous one from the elevator it was assigned to.
+     * Taking it back from a known elevator is small against the scan of the fleet by the scheduler
+     */
+    @Benchmark
+    public boolean schedule() {
+        if (scheduled != null) {
+            BenchmarkBuilding.unassign(scheduled);
+        }
+        scheduled = requests[cursor];
+        cursor = (cursor + 1) & (requests.length - 1);
+        return scheduler.schedule(scheduled);
+    }
+}
@@ -1,17 +1,36 @@
 package org.example.elevatorsimulation;
 
-import org.example.elevatorsimulation.scheduler.NaiveScheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.config.BuildingConfig;
 import org.example.elevatorsimulation.simulation.DefaultSimulator;
-import org.example.elevatorsimulation.simulation.Simulator;
+
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import static org.example.elevatorsimulation.util.Constants.SHUTDOWN_TIMEOUT;
 
 /**
  * @author Abhilash Sulibela
  * <p>
  * The main class / starting point for the Elevator Simulation
  */
+@Slf4j
 public class App {
-    public static void main(String[] args) {
-        Simulator simulator = new DefaultSimulator(20, 3, new NaiveScheduler(), 3000, 3);
+    // the properties file describing the building, the default building is simulated without it
+    public static final String BUILDING_PROPERTY = "elevatorsimulation.building";
+
+    public static void main(String[] args) throws InterruptedException {
+        String buildingPath = System.getProperty(BUILDING_PROPERTY);
+        BuildingConfig building = buildingPath != null ? BuildingConfig.load(Paths.get(buildingPath)) : BuildingConfig.defaults();
+        DefaultSimulator simulator = building.createSimulator();
+        // stop the elevators on Ctrl+C instead of leaving the trips under way in an unknown state
+        Runtime.getRuntime().addShutdownHook(new Thread(simulator::stop));
         simulator.start();
+        // the demo traffic, the drain of the trips under way & the shutdown of the threads
+        long runTime = building.getInterval() * building.getCallCount() + simulator.getDrainTimeout() + SHUTDOWN_TIMEOUT;
+        if (!simulator.awaitTermination(runTime, TimeUnit.MILLISECONDS)) {
+            log.warn("The simulation did not finish within {} ms & is stopped", runTime);
+            simulator.stop();
+        }
     }
 }
@@ -0,0 +1,286 @@
+package org.example.elevatorsimulation.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.exception.BadRequestException;
+import org.example.elevatorsimulation.exception.ElevatorSimulationException;
+import org.example.elevatorsimulation.model.ElevatorSpec;
+import org.example.elevatorsimulation.scheduler.DispatchWeights;
+import org.example.elevatorsimulation.scheduler.Scheduler;
+import org.example.elevatorsimulation.service.BuildingService;
+import org.example.elevatorsimulation.service.ElevatorExecutionMode;
+import org.example.elevatorsimulation.simulation.DefaultSimulator;
+import org.example.elevatorsimulation.util.SimulationLimits;
+import org.example.elevatorsimulation.workload.UniformWorkload;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.example.elevatorsimulation.util.Constants.*;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * The description of a building, parsed once at startup from a properties file, i.e., the no. of floors, the capacity,
+ * the floor travel time & the served floors of every elevator, the scheduler & the demo traffic. Every {@code elevator.*}
+ * key applies to all elevators & an {@code elevator.<id>.*} key overrides it for a single one, e.g.,
+ * <pre>
+ * building.floors=40
+ * building.elevators=4
+ * building.scheduler=ESTIMATED_TIME
+ * elevator.capacity=16
+ * elevator.3.floors=0,20-39
+ * elevator.3.travelTime=500
+ * dispatch.weights=weights.properties
+ * </pre>
+ * The dispatch weights are either given inline as {@code dispatch.*} keys or read from the file written by the scheduler
+ * tuner. The limits of the simulation are sized to the building instead of the defaults in
+ * {@link org.example.elevatorsimulation.util.Constants}
+ */
+@Slf4j
+public class BuildingConfig {
+    public static final String FLOORS = "building.floors";
+    public static final String ELEVATORS = "building.elevators";
+    public static final String SCHEDULER = "building.scheduler";
+    public static final String EXECUTION_MODE = "building.executionMode";
+    public static final String INTERVAL = "building.interval";
+    public static final String CALLS = "building.calls";
+    public static final String CAPACITY = "capacity";
+    public static final String TRAVEL_TIME = "travelTime";
+    public static final String SERVED_FLOORS = "floors";
+    public static final String DISPATCH_WEIGHTS = "dispatch.weights";
+
+    private static final String ELEVATOR_PREFIX = "elevator.";
+    private static final Pattern ELEVATOR_KEY = Pattern.compile("elevator\\.(\\d{1,9})\\..+");
+
+    private final int floorCount;
+    private final List<ElevatorSpec> elevatorSpecs;
+    private final SchedulerType schedulerType;
+    private final DispatchWeights dispatchWeights;
+    private final ElevatorExecutionMode executionMode;
+    private final long interval;
+    private final int callCount;
+
+    /**
+     * @param floorCount      no. of floors in the building
+     * @param elevatorSpecs   the capacity, speed & served floors of every elevator
+     * @param schedulerType   the scheduler dispatching the elevators
+     * @param dispatchWeights the weights of the cost based schedulers
+     * @param executionMode   how to run the elevators
+     * @param interval        the time between two call requests of the demo traffic in millis
+     * @param callCount       the no. of call requests of the demo traffic
+     */
+    public BuildingConfig(int floorCount, List<ElevatorSpec> elevatorSpecs, SchedulerType schedulerType,
+                          DispatchWeights dispatchWeights, ElevatorExecutionMode executionMode, long interval, int callCount) {
+        if (floorCount < 2 || elevatorSpecs.isEmpty() || interval < 0 || callCount < 0
+                || executionMode == ElevatorExecutionMode.EXTERNAL) {
+            log.error("Invalid building of {} floors & {} elevators run {} with {} calls every {} ms", floorCount,
+                    elevatorSpecs.size(), executionMode, callCount, interval);
+            throw new BadRequestException("Invalid building of " + floorCount + " floors & " + elevatorSpecs.size()
+                    + " elevators run " + executionMode + " with " + callCount + " calls every " + interval + " ms");
+        }
+        BitSet servedFloors = new BitSet(floorCount);
+        for (ElevatorSpec spec : elevatorSpecs) {
+            spec.validate(floorCount);
+            if (spec.servesEveryFloor()) {
+                servedFloors.set(0, floorCount);
+            } else {
+                servedFloors.or(spec.getServedFloors());
+            }
+        }
+        if (servedFloors.cardinality() < floorCount) {
+            int floor = servedFloors.nextClearBit(0);
+            log.error("No elevator serves floor - {}", floor);
+            throw new BadRequestException("No elevator serves floor - " + floor);
+        }
+        this.floorCount = floorCount;
+        this.elevatorSpecs = Collections.unmodifiableList(new ArrayList<>(elevatorSpecs));
+        this.schedulerType = schedulerType;
+        this.dispatchWeights = dispatchWeights;
+        this.executionMode = executionMode;
+        this.interval = interval;
+        this.callCount = callCount;
+    }
+
+    /**
+     * @return the default building, i.e., {@link org.example.elevatorsimulation.util.Constants#DEFAULT_FLOOR_COUNT}
+     * floors served by {@link org.example.elevatorsimulation.util.Constants#DEFAULT_ELEVATOR_COUNT} elevators
+     */
+    public static BuildingConfig defaults() {
+        return fromProperties(new Properties(), null);
+    }
+
+    /**
+     * @param path the properties file describing the building
+     * @return the building
+     */
+    public static BuildingConfig load(Path path) {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            log.error("There was a problem reading the building from - {}", path);
+            throw new ElevatorSimulationException("There was a problem reading the building from - " + path, e);
+        }
+        log.info("Loaded the building from - {}", path);
+        return fromProperties(properties, path.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Read a building from properties, falling back to the defaults of every key that is missing
+     *
+     * @param properties the properties describing the building
+     * @param baseDir    the directory a relative {@value #DISPATCH_WEIGHTS} path is resolved against, null for the
+     *                   working directory
+     * @return the building
+     */
+    public static BuildingConfig fromProperties(Properties properties, Path baseDir) {
+        int floorCount = intProperty(properties, FLOORS, DEFAULT_FLOOR_COUNT);
+        int elevatorCount = intProperty(properties, ELEVATORS, DEFAULT_ELEVATOR_COUNT);
+        for (String key : properties.stringPropertyNames()) {
+            Matcher matcher = ELEVATOR_KEY.matcher(key);
+            if (matcher.matches() && Integer.parseInt(matcher.group(1)) >= elevatorCount) {
+                log.error("The key - {} refers to an elevator beyond the {} elevators of the building", key, elevatorCount);
+                throw new BadRequestException("The key - " + key + " refers to an elevator beyond the " + elevatorCount
+                        + " elevators of the building");
+            }
+        }
+
+        List<ElevatorSpec> elevatorSpecs = new ArrayList<>(Math.max(elevatorCount, 0));
+        for (int id = 0; id < elevatorCount; id++) {
+            String prefix = ELEVATOR_PREFIX + id + ".";
+            int capacity = intProperty(properties, prefix + CAPACITY,
+                    intProperty(properties, ELEVATOR_PREFIX + CAPACITY, DEFAULT_ELEVATOR_CAPACITY));
+            long travelTime = longProperty(properties, prefix + TRAVEL_TIME,
+                    longProperty(properties, ELEVATOR_PREFIX + TRAVEL_TIME, FLOOR_TRAVEL_TIME));
+            String floors = properties.getProperty(prefix + SERVED_FLOORS, properties.getProperty(ELEVATOR_PREFIX + SERVED_FLOORS));
+            elevatorSpecs.add(new ElevatorSpec(capacity, travelTime, floors == null ? null : ElevatorSpec.parseFloors(floors, floorCount)));
+        }
+
+        String weightsPath = properties.getProperty(DISPATCH_WEIGHTS);
+        DispatchWeights dispatchWeights;
+        if (weightsPath == null) {
+            dispatchWeights = DispatchWeights.fromProperties(properties);
+        } else {
+            dispatchWeights = DispatchWeights.load(baseDir == null ? Paths.get(weightsPath) : baseDir.resolve(weightsPath));
+        }
+
+        return new BuildingConfig(floorCount, elevatorSpecs,
+                enumProperty(properties, SCHEDULER, SchedulerType.class, SchedulerType.NAIVE),
+                dispatchWeights,
+                enumProperty(properties, EXECUTION_MODE, ElevatorExecutionMode.class, ElevatorExecutionMode.THREAD_PER_ELEVATOR),
+                longProperty(properties, INTERVAL, DEFAULT_SIMULATION_TIME_INTERVAL),
+                intProperty(properties, CALLS, DEFAULT_SIMULATION_COUNT));
+    }
+
+    private static int intProperty(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            log.error("Invalid value of the key - {} - {}", key, value);
+            throw new BadRequestException("Invalid value of the key - " + key + " - " + value);
+        }
+    }
+
+    private static long longProperty(Properties properties, String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            log.error("Invalid value of the key - {} - {}", key, value);
+            throw new BadRequestException("Invalid value of the key - " + key + " - " + value);
+        }
+    }
+
+    private static <E extends Enum<E>> E enumProperty(Properties properties, String key, Class<E> type, E defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid value of the key - {} - {}", key, value);
+            throw new BadRequestException("Invalid value of the key - " + key + " - " + value);
+        }
+    }
+
+    public int getFloorCount() {
+        return floorCount;
+    }
+
+    public int getElevatorCount() {
+        return elevatorSpecs.size();
+    }
+
+    public List<ElevatorSpec> getElevatorSpecs() {
+        return elevatorSpecs;
+    }
+
+    public SchedulerType getSchedulerType() {
+        return schedulerType;
+    }
+
+    public DispatchWeights getDispatchWeights() {
+        return dispatchWeights;
+    }
+
+    public ElevatorExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+    public int getCallCount() {
+        return callCount;
+    }
+
+    /**
+     * @return limits that fit exactly this building, the limit of waiting call requests still comes from the system
+     * properties
+     */
+    public SimulationLimits getLimits() {
+        return new SimulationLimits(floorCount, elevatorSpecs.size(), SimulationLimits.fromSystemProperties().getMaxPendingRequests());
+    }
+
+    /**
+     * @return a fresh scheduler of the configured type
+     */
+    public Scheduler createScheduler() {
+        return schedulerType.create(dispatchWeights);
+    }
+
+    /**
+     * @return a real-time simulator of this building in the default building of the JVM, replaying the demo traffic
+     */
+    public DefaultSimulator createSimulator() {
+        return new DefaultSimulator(floorCount, elevatorSpecs, createScheduler(),
+                new UniformWorkload(floorCount, interval, callCount, new Random().nextLong()), executionMode, getLimits(),
+                BuildingService.getInstance());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d floors, %d elevators, %s scheduler", floorCount, elevatorSpecs.size(), schedulerType);
+    }
+}
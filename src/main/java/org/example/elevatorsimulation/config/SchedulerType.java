@@ -0,0 +1,49 @@
+package org.example.elevatorsimulation.config;
+
+import org.example.elevatorsimulation.scheduler.DestinationDispatchScheduler;
+import org.example.elevatorsimulation.scheduler.DispatchCost;
+import org.example.elevatorsimulation.scheduler.DispatchWeights;
+import org.example.elevatorsimulation.scheduler.EstimatedTimeScheduler;
+import org.example.elevatorsimulation.scheduler.NaiveScheduler;
+import org.example.elevatorsimulation.scheduler.Scheduler;
+
+import static org.example.elevatorsimulation.util.Constants.*;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * The schedulers a building can be configured with. The ones scoring elevators with a {@link DispatchCost} take the
+ * dispatch weights of the building, the naive scheduler has no weights to tune
+ */
+public enum SchedulerType {
+    NAIVE {
+        @Override
+        public Scheduler create(DispatchWeights weights) {
+            return new NaiveScheduler();
+        }
+    },
+    ESTIMATED_TIME {
+        @Override
+        public Scheduler create(DispatchWeights weights) {
+            return new EstimatedTimeScheduler(new DispatchCost(weights));
+        }
+    },
+    ENERGY_SAVING {
+        @Override
+        public Scheduler create(DispatchWeights weights) {
+            return new EstimatedTimeScheduler(new DispatchCost(weights), ENERGY_SAVING_WINDOW);
+        }
+    },
+    DESTINATION_DISPATCH {
+        @Override
+        public Scheduler create(DispatchWeights weights) {
+            return new DestinationDispatchScheduler(new DispatchCost(weights), DEFAULT_BATCH_WINDOW, DEFAULT_DESTINATION_ZONE_SIZE);
+        }
+    };
+
+    /**
+     * @param weights the dispatch weights of the building
+     * @return a fresh scheduler, as schedulers hold state
+     */
+    public abstract Scheduler create(DispatchWeights weights);
+}
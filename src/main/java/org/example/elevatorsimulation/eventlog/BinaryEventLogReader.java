@@ -0,0 +1,124 @@
+package org.example.elevatorsimulation.eventlog;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.exception.BadRequestException;
+import org.example.elevatorsimulation.exception.ElevatorSimulationException;
+import org.example.elevatorsimulation.model.ElevatorState;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.example.elevatorsimulation.eventlog.EventLogFormat.*;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Reads a binary event log through memory-mapped segments, so replaying or diffing a log of any size pages it in on
+ * demand rather than reading it into the heap. Records are read by index with the accessors of this class, which do
+ * not allocate, or one at a time as {@link EventRecord}s
+ */
+@Slf4j
+public class BinaryEventLogReader {
+    private static final ElevatorState[] STATES = ElevatorState.values();
+    // a multiple of the record size below 2 GB, the max size of a single mapping
+    private static final long SEGMENT_SIZE = (Integer.MAX_VALUE / RECORD_SIZE) * (long) RECORD_SIZE;
+
+    private final MappedByteBuffer[] segments;
+    private final long recordCount;
+
+    public BinaryEventLogReader(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw invalid(path);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION || header.getInt() != RECORD_SIZE) {
+                throw invalid(path);
+            }
+            // a trailing partial record of a log that was not closed properly is ignored
+            this.recordCount = (size - HEADER_SIZE) / RECORD_SIZE;
+            long dataSize = recordCount * RECORD_SIZE;
+            this.segments = new MappedByteBuffer[(int) ((dataSize + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+            for (int i = 0; i < segments.length; i++) {
+                long offset = i * SEGMENT_SIZE;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + offset, Math.min(SEGMENT_SIZE, dataSize - offset));
+            }
+        } catch (IOException e) {
+            log.error("There was a problem reading the event log - {}", path);
+            throw new ElevatorSimulationException("There was a problem reading the event log - " + path, e);
+        }
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public long getTime(long index) {
+        return segment(index).getLong(position(index) + TIME_OFFSET);
+    }
+
+    /**
+     * @return the id of the call request of a request event, -1 for the events of an elevator
+     */
+    public long getRequestId(long index) {
+        return segment(index).getLong(position(index) + REQUEST_ID_OFFSET);
+    }
+
+    public long getSubmittedAt(long index) {
+        return segment(index).getLong(position(index) + SUBMITTED_AT_OFFSET);
+    }
+
+    public EventType getType(long index) {
+        return EventType.fromCode(segment(index).get(position(index) + TYPE_OFFSET));
+    }
+
+    /**
+     * @return the new state of a state change event, null for every other event
+     */
+    public ElevatorState getState(long index) {
+        byte state = segment(index).get(position(index) + STATE_OFFSET);
+        return state < 0 ? null : STATES[state];
+    }
+
+    public int getElevatorId(long index) {
+        return segment(index).getInt(position(index) + ELEVATOR_ID_OFFSET);
+    }
+
+    public int getFloor(long index) {
+        return segment(index).getInt(position(index) + FLOOR_OFFSET);
+    }
+
+    public int getTargetFloor(long index) {
+        return segment(index).getInt(position(index) + TARGET_FLOOR_OFFSET);
+    }
+
+    /**
+     * @param index the index of the record
+     * @return a copy of the record
+     */
+    public EventRecord read(long index) {
+        return new EventRecord(getTime(index), getRequestId(index), getSubmittedAt(index), getType(index), getState(index),
+                getElevatorId(index), getFloor(index), getTargetFloor(index));
+    }
+
+    private MappedByteBuffer segment(long index) {
+        if (index < 0 || index >= recordCount) {
+            throw new BadRequestException("Event - " + index + " is outside of the range 0-" + (recordCount - 1));
+        }
+        // only absolute gets are used, so concurrent readers never move the position of a shared segment
+        return segments[(int) (index * RECORD_SIZE / SEGMENT_SIZE)];
+    }
+
+    private static int position(long index) {
+        return (int) (index * RECORD_SIZE % SEGMENT_SIZE);
+    }
+
+    private static BadRequestException invalid(Path path) {
+        log.error("The file - {} is not an event log", path);
+        return new BadRequestException("The file - " + path + " is not an event log");
+    }
+}
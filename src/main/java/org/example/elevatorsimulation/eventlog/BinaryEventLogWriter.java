@@ -0,0 +1,195 @@
+package org.example.elevatorsimulation.eventlog;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.exception.ElevatorSimulationException;
+import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.model.ElevatorState;
+import org.example.elevatorsimulation.service.BuildingEventListener;
+import org.example.elevatorsimulation.util.SimulationClock;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.example.elevatorsimulation.eventlog.EventLogFormat.*;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Records the events of a building as fixed-width binary records in a file. Records are appended to a direct buffer &
+ * written to the file channel a batch at a time, so recording an event is a handful of puts & never allocates. Register
+ * it with {@link org.example.elevatorsimulation.service.BuildingService#addListener(BuildingEventListener)} & close it
+ * once the simulation is over to flush the last batch. The callbacks run on the elevator threads, so a failed write is
+ * not thrown at them, the writer stops recording instead & {@link #close()} throws the failure
+ */
+@Slf4j
+public class BinaryEventLogWriter implements BuildingEventListener, AutoCloseable {
+    private static final int DEFAULT_BATCH_SIZE = 2048;
+
+    private final Path path;
+    private final SimulationClock clock;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long recordCount;
+    private boolean closed;
+    // the first write that failed, no more records are written once it is set
+    private IOException failure;
+
+    public BinaryEventLogWriter(Path path, SimulationClock clock) {
+        this(path, clock, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param path      the file to write, replaced if it exists
+     * @param clock     the clock to timestamp the events with
+     * @param batchSize the no. of records buffered before they are written to the file
+     */
+    public BinaryEventLogWriter(Path path, SimulationClock clock, int batchSize) {
+        this.path = path;
+        this.clock = clock;
+        this.buffer = ByteBuffer.allocateDirect(Math.max(batchSize, 1) * RECORD_SIZE);
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).putInt(0).flip();
+            writeFully(header);
+        } catch (IOException e) {
+            log.error("There was a problem creating the event log - {}", path);
+            throw new ElevatorSimulationException("There was a problem creating the event log - " + path, e);
+        }
+    }
+
+    public synchronized long getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void onRequestSubmitted(ElevatorCallRequest request) {
+        append(EventType.REQUEST_SUBMITTED, request, -1, null);
+    }
+
+    @Override
+    public void onRequestRejected(ElevatorCallRequest request) {
+        append(EventType.REQUEST_REJECTED, request, -1, null);
+    }
+
+    @Override
+    public void onRequestAssigned(ElevatorCallRequest request, int elevatorId) {
+        append(EventType.REQUEST_ASSIGNED, request, elevatorId, null);
+    }
+
+    @Override
+    public void onPassengerPickedUp(ElevatorCallRequest request, int elevatorId) {
+        append(EventType.PASSENGER_PICKED_UP, request, elevatorId, null);
+    }
+
+    @Override
+    public void onPassengerDelivered(ElevatorCallRequest request, int elevatorId) {
+        append(EventType.PASSENGER_DELIVERED, request, elevatorId, null);
+    }
+
+    @Override
+    public void onPassengerStranded(ElevatorCallRequest request, int elevatorId) {
+        append(EventType.PASSENGER_STRANDED, request, elevatorId, null);
+    }
+
+    @Override
+    public void onElevatorMoved(int elevatorId, int floor) {
+        append(EventType.ELEVATOR_MOVED, -1, -1, elevatorId, floor, -1, null);
+    }
+
+    @Override
+    public void onElevatorStopped(int elevatorId, int floor) {
+        append(EventType.ELEVATOR_STOPPED, -1, -1, elevatorId, floor, -1, null);
+    }
+
+    @Override
+    public void onElevatorStateChanged(int elevatorId, ElevatorState elevatorState) {
+        append(EventType.ELEVATOR_STATE_CHANGED, -1, -1, elevatorId, -1, -1, elevatorState);
+    }
+
+    private void append(EventType type, ElevatorCallRequest request, int elevatorId, ElevatorState state) {
+        append(type, request.getId(), request.getSubmittedAt(), elevatorId, request.getRequestFloor(),
+                request.getTargetFloor(), state);
+    }
+
+    private synchronized void append(EventType type, long requestId, long submittedAt, int elevatorId, int floor,
+                                     int targetFloor, ElevatorState state) {
+        if (closed || failure != null) {
+            return;
+        }
+        buffer.putLong(clock.currentTimeMillis())
+                .putLong(requestId)
+                .putLong(submittedAt)
+                .put((byte) type.ordinal())
+                .put((byte) (state == null ? -1 : state.ordinal()))
+                .putShort((short) 0)
+                .putInt(elevatorId)
+                .putInt(floor)
+                .putInt(targetFloor);
+        recordCount++;
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+    }
+
+    /**
+     * Write the buffered records to the file. A failed write is logged once & stops the recording, the buffered records
+     * are dropped
+     */
+    public synchronized void flush() {
+        if (failure != null) {
+            buffer.clear();
+            return;
+        }
+        buffer.flip();
+        try {
+            writeFully(buffer);
+        } catch (IOException e) {
+            log.error("There was a problem writing the event log - {}, no more events are recorded", path, e);
+            failure = e;
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * @return True, if a write failed & the writer stopped recording. False, otherwise
+     */
+    public synchronized boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * Flush the last batch & close the file
+     *
+     * @throws ElevatorSimulationException if a write failed while recording or the file cannot be closed
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.error("There was a problem closing the event log - {}", path);
+            throw new ElevatorSimulationException("There was a problem closing the event log - " + path, e);
+        }
+        if (failure != null) {
+            throw new ElevatorSimulationException("There was a problem writing the event log - " + path, failure);
+        }
+        log.debug("Wrote {} events to the event log - {}", recordCount, path);
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.elevatorsimulation.eventlog;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * The layout of a binary event log. The file starts with a 16 byte header followed by fixed-width records of 40 bytes,
+ * all in big endian byte order
+ * <pre>
+ * header: int magic | int version | int record size | int reserved
+ * record: long time | long request id | long submitted at | byte type | byte state | short reserved | int elevator id | int floor | int target floor
+ * </pre>
+ * The request id identifies the call request of a request event & the submitted at field dates it, both are -1 for the
+ * events of an elevator. The floor is the requested floor of a request event & the current floor of an elevator event
+ */
+final class EventLogFormat {
+    static final int MAGIC = 0x454C4F47;
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 40;
+
+    static final int TIME_OFFSET = 0;
+    static final int REQUEST_ID_OFFSET = 8;
+    static final int SUBMITTED_AT_OFFSET = 16;
+    static final int TYPE_OFFSET = 24;
+    static final int STATE_OFFSET = 25;
+    static final int ELEVATOR_ID_OFFSET = 28;
+    static final int FLOOR_OFFSET = 32;
+    static final int TARGET_FLOOR_OFFSET = 36;
+
+    private EventLogFormat() {
+        // empty private constructor to prevent instantiation
+    }
+}
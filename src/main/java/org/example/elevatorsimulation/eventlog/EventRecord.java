@@ -0,0 +1,73 @@
+package org.example.elevatorsimulation.eventlog;
+
+import org.example.elevatorsimulation.model.ElevatorState;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * A single event read back from a binary event log
+ */
+public class EventRecord {
+    private final long time;
+    private final long requestId;
+    private final long submittedAt;
+    private final EventType type;
+    private final ElevatorState state;
+    private final int elevatorId;
+    private final int floor;
+    private final int targetFloor;
+
+    public EventRecord(long time, long requestId, long submittedAt, EventType type, ElevatorState state, int elevatorId,
+                       int floor, int targetFloor) {
+        this.time = time;
+        this.requestId = requestId;
+        this.submittedAt = submittedAt;
+        this.type = type;
+        this.state = state;
+        this.elevatorId = elevatorId;
+        this.floor = floor;
+        this.targetFloor = targetFloor;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * @return the id of the call request of a request event, -1 for the events of an elevator
+     */
+    public long getRequestId() {
+        return requestId;
+    }
+
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public EventType getType() {
+        return type;
+    }
+
+    public ElevatorState getState() {
+        return state;
+    }
+
+    public int getElevatorId() {
+        return elevatorId;
+    }
+
+    public int getFloor() {
+        return floor;
+    }
+
+    public int getTargetFloor() {
+        return targetFloor;
+    }
+
+    @Override
+    public String toString() {
+        return time + " " + type + " elevator=" + elevatorId + " floor=" + floor + " target=" + targetFloor
+                + (state == null ? "" : " state=" + state) + (requestId < 0 ? "" : " request=" + requestId)
+                + (submittedAt < 0 ? "" : " submitted=" + submittedAt);
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.elevatorsimulation.eventlog;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * The kinds of events recorded in a binary event log, stored by their ordinal, so new types may only be appended
+ */
+public enum EventType {
+    REQUEST_SUBMITTED,
+    REQUEST_REJECTED,
+    REQUEST_ASSIGNED,
+    PASSENGER_PICKED_UP,
+    PASSENGER_DELIVERED,
+    ELEVATOR_MOVED,
+    ELEVATOR_STOPPED,
+    ELEVATOR_STATE_CHANGED,
+    PASSENGER_STRANDED;
+
+    private static final EventType[] VALUES = values();
+
+    static EventType fromCode(int code) {
+        return VALUES[code];
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.elevatorsimulation.exception;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Custom exception raised when a call request is turned away because the building is overloaded
+ */
+public class RequestRejectedException extends ElevatorSimulationException {
+    public RequestRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.elevatorsimulation.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Counters collected for a single elevator over the course of a simulation
+ */
+public class ElevatorMetrics {
+    private final int elevatorId;
+    private final AtomicLong floorsTravelled = new AtomicLong();
+    private final AtomicLong stops = new AtomicLong();
+    private final AtomicLong passengersServed = new AtomicLong();
+    private final AtomicLong idleTime = new AtomicLong();
+
+    // the time since when the elevator has been idle, -1 while it is moving
+    private volatile long idleSince;
+
+    public ElevatorMetrics(int elevatorId, long createdAt) {
+        this.elevatorId = elevatorId;
+        this.idleSince = createdAt;
+    }
+
+    public int getElevatorId() {
+        return elevatorId;
+    }
+
+    public long getFloorsTravelled() {
+        return floorsTravelled.get();
+    }
+
+    public long getStops() {
+        return stops.get();
+    }
+
+    public long getPassengersServed() {
+        return passengersServed.get();
+    }
+
+    /**
+     * Return the total time the elevator has spent idle, including the ongoing idle period
+     *
+     * @param now the current time of the simulation
+     * @return the idle time in millis
+     */
+    public long getIdleTime(long now) {
+        long since = idleSince;
+        return idleTime.get() + (since < 0 ? 0 : Math.max(0, now - since));
+    }
+
+    void floorTravelled() {
+        floorsTravelled.incrementAndGet();
+    }
+
+    void stopped() {
+        stops.incrementAndGet();
+    }
+
+    void passengerServed() {
+        passengersServed.incrementAndGet();
+    }
+
+    void idle(long now) {
+        if (idleSince < 0) {
+            idleSince = now;
+        }
+    }
+
+    void busy(long now) {
+        long since = idleSince;
+        if (since >= 0) {
+            idleTime.addAndGet(Math.max(0, now - since));
+            idleSince = -1;
+        }
+    }
+}
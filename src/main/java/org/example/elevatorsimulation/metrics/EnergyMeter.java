@@ -0,0 +1,148 @@
+package org.example.elevatorsimulation.metrics;
+
+import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.model.ElevatorSnapshot;
+import org.example.elevatorsimulation.model.ElevatorState;
+import org.example.elevatorsimulation.model.MotionPhase;
+import org.example.elevatorsimulation.service.BuildingEventListener;
+import org.example.elevatorsimulation.service.BuildingService;
+
+import java.util.Arrays;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Meters the energy every elevator of a building draws & feeds back according to an {@link EnergyModel}, by following
+ * the floors they travel, the phases of their motion profile & their door cycles. Register it as a listener of the
+ * building to report the energy per passenger delivered
+ */
+public class EnergyMeter implements BuildingEventListener {
+    private static final double JOULES_PER_KWH = 3_600_000;
+
+    private final BuildingService buildingService;
+    private final EnergyModel energyModel;
+
+    // indexed by the elevator id & guarded by the meter's monitor
+    private double[] consumed = new double[0];
+    private double[] regenerated = new double[0];
+    private long[] starts = new long[0];
+    private long passengersDelivered;
+
+    public EnergyMeter(BuildingService buildingService) {
+        this(buildingService, new EnergyModel());
+    }
+
+    public EnergyMeter(BuildingService buildingService, EnergyModel energyModel) {
+        this.buildingService = buildingService;
+        this.energyModel = energyModel;
+    }
+
+    @Override
+    public void onElevatorMoved(int elevatorId, int floor) {
+        ElevatorSnapshot snapshot = buildingService.getSnapshot(elevatorId);
+        if (snapshot != null && !snapshot.getElevatorState().equals(ElevatorState.STATIONARY)) {
+            record(elevatorId, energyModel.travelEnergy(snapshot.getElevatorState(), snapshot.getOnboard(), snapshot.getCapacity()), false);
+        }
+    }
+
+    @Override
+    public void onMotionPhaseChanged(int elevatorId, MotionPhase motionPhase) {
+        ElevatorSnapshot snapshot = buildingService.getSnapshot(elevatorId);
+        if (snapshot == null) {
+            return;
+        }
+        // the rated speed of the car, which is lower while it is slow
+        long travelTime = buildingService.getElevator(elevatorId).getTravelTime();
+        switch (motionPhase) {
+            case ACCELERATING:
+                record(elevatorId, energyModel.accelerationEnergy(snapshot.getOnboard(), snapshot.getCapacity(), travelTime), true);
+                break;
+            case DECELERATING:
+                record(elevatorId, energyModel.brakingEnergy(snapshot.getOnboard(), snapshot.getCapacity(), travelTime), false);
+                break;
+            case DOORS_OPEN:
+                record(elevatorId, energyModel.getDoorCycleEnergy(), false);
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public synchronized void onPassengerDelivered(ElevatorCallRequest request, int elevatorId) {
+        passengersDelivered++;
+    }
+
+    private synchronized void record(int elevatorId, double energy, boolean start) {
+        if (elevatorId >= consumed.length) {
+            int size = Math.max(elevatorId + 1, consumed.length * 2);
+            consumed = Arrays.copyOf(consumed, size);
+            regenerated = Arrays.copyOf(regenerated, size);
+            starts = Arrays.copyOf(starts, size);
+        }
+        if (energy >= 0) {
+            consumed[elevatorId] += energy;
+        } else {
+            regenerated[elevatorId] -= energy;
+        }
+        if (start) {
+            starts[elevatorId]++;
+        }
+    }
+
+    /**
+     * @return the energy drawn by all elevators in kWh
+     */
+    public synchronized double getConsumedEnergy() {
+        return Arrays.stream(consumed).sum() / JOULES_PER_KWH;
+    }
+
+    /**
+     * @return the energy fed back by all elevators in kWh
+     */
+    public synchronized double getRegeneratedEnergy() {
+        return Arrays.stream(regenerated).sum() / JOULES_PER_KWH;
+    }
+
+    /**
+     * @return the energy drawn less the energy fed back in kWh
+     */
+    public double getNetEnergy() {
+        return getConsumedEnergy() - getRegeneratedEnergy();
+    }
+
+    /**
+     * @param elevatorId the id of the elevator
+     * @return the energy drawn less the energy fed back by the elevator in kWh
+     */
+    public synchronized double getNetEnergy(int elevatorId) {
+        return elevatorId < consumed.length ? (consumed[elevatorId] - regenerated[elevatorId]) / JOULES_PER_KWH : 0;
+    }
+
+    /**
+     * @return the no. of times the elevators started a run
+     */
+    public synchronized long getStarts() {
+        return Arrays.stream(starts).sum();
+    }
+
+    public synchronized long getPassengersDelivered() {
+        return passengersDelivered;
+    }
+
+    /**
+     * @return the net energy per passenger delivered in kWh, 0 until a passenger is delivered
+     */
+    public double getEnergyPerPassenger() {
+        long delivered = getPassengersDelivered();
+        return delivered == 0 ? 0 : getNetEnergy() / delivered;
+    }
+
+    /**
+     * @return a one line summary of the energy, meant for logging at the end of a simulation
+     */
+    public String summary() {
+        return String.format("consumed=%.3f kWh regenerated=%.3f kWh net=%.3f kWh starts=%d per passenger=%.4f kWh",
+                getConsumedEnergy(), getRegeneratedEnergy(), getNetEnergy(), getStarts(), getEnergyPerPassenger());
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.elevatorsimulation.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.exception.BadRequestException;
+import org.example.elevatorsimulation.model.ElevatorState;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * A model of the energy a traction elevator with a counterweight & a regenerative drive draws from the grid. The car is
+ * balanced against a counterweight of its own mass plus a share of the rated load, so the motor only lifts the
+ * difference. Whenever the heavier side goes down, i.e., a loaded car travelling down or an empty car travelling up,
+ * as well as while braking, the motor runs as a generator & feeds part of the energy back. Energies are in joules,
+ * positive when drawn & negative when fed back
+ */
+@Slf4j
+public class EnergyModel {
+    private static final double GRAVITY = 9.81;
+    private static final double DEFAULT_CAR_MASS = 1000;
+    private static final double DEFAULT_PASSENGER_MASS = 75;
+    private static final double DEFAULT_COUNTERWEIGHT_BALANCE = 0.45;
+    private static final double DEFAULT_FLOOR_HEIGHT = 3.5;
+    private static final double DEFAULT_DRIVE_EFFICIENCY = 0.8;
+    private static final double DEFAULT_REGENERATION_EFFICIENCY = 0.6;
+    private static final double DEFAULT_RUNNING_LOSS = 1500;
+    private static final double DEFAULT_DOOR_CYCLE_ENERGY = 1000;
+
+    private final double carMass;
+    private final double passengerMass;
+    private final double counterweightBalance;
+    private final double floorHeight;
+    private final double driveEfficiency;
+    private final double regenerationEfficiency;
+    private final double runningLoss;
+    private final double doorCycleEnergy;
+
+    public EnergyModel() {
+        this(DEFAULT_CAR_MASS, DEFAULT_PASSENGER_MASS, DEFAULT_COUNTERWEIGHT_BALANCE, DEFAULT_FLOOR_HEIGHT,
+                DEFAULT_DRIVE_EFFICIENCY, DEFAULT_REGENERATION_EFFICIENCY, DEFAULT_RUNNING_LOSS, DEFAULT_DOOR_CYCLE_ENERGY);
+    }
+
+    /**
+     * @param carMass                the mass of the empty car in kg
+     * @param passengerMass          the mass of a passenger in kg
+     * @param counterweightBalance   the share of the rated load the counterweight balances on top of the car, e.g., 0.45
+     * @param floorHeight            the height of a floor in metres, the rated speed of a car covers it in its floor
+     *                               travel time
+     * @param driveEfficiency        the share of the drawn energy that ends up moving the car
+     * @param regenerationEfficiency the share of the energy released by the car that is fed back to the grid
+     * @param runningLoss            the energy lost to friction per floor travelled in joules
+     * @param doorCycleEnergy        the energy to open & close the doors once in joules
+     */
+    public EnergyModel(double carMass, double passengerMass, double counterweightBalance, double floorHeight,
+                       double driveEfficiency, double regenerationEfficiency, double runningLoss, double doorCycleEnergy) {
+        if (carMass <= 0 || passengerMass <= 0 || floorHeight <= 0 || driveEfficiency <= 0 || driveEfficiency > 1
+                || regenerationEfficiency < 0 || regenerationEfficiency > 1) {
+            log.error("An energy model needs positive masses & heights & efficiencies between 0 & 1");
+            throw new BadRequestException("An energy model needs positive masses & heights & efficiencies between 0 & 1");
+        }
+        this.carMass = carMass;
+        this.passengerMass = passengerMass;
+        this.counterweightBalance = counterweightBalance;
+        this.floorHeight = floorHeight;
+        this.driveEfficiency = driveEfficiency;
+        this.regenerationEfficiency = regenerationEfficiency;
+        this.runningLoss = runningLoss;
+        this.doorCycleEnergy = doorCycleEnergy;
+    }
+
+    /**
+     * @param direction  the direction of travel, either UP or DOWN
+     * @param passengers the no. of passengers on board
+     * @param capacity   the capacity of the car, which the counterweight is sized for
+     * @return the energy to travel a single floor at the rated speed
+     */
+    public double travelEnergy(ElevatorState direction, int passengers, int capacity) {
+        double imbalance = carMass + passengers * passengerMass - counterweight(capacity);
+        double work = imbalance * GRAVITY * floorHeight * (direction.equals(ElevatorState.UP) ? 1 : -1);
+        return drive(work) + runningLoss;
+    }
+
+    /**
+     * @param floorTravelTime the time in millis the car takes to travel a single floor at its rated speed
+     * @return the energy to accelerate the car, its passengers & the counterweight to the rated speed
+     */
+    public double accelerationEnergy(int passengers, int capacity, long floorTravelTime) {
+        return drive(kineticEnergy(passengers, capacity, floorTravelTime));
+    }
+
+    /**
+     * @param floorTravelTime the time in millis the car takes to travel a single floor at its rated speed
+     * @return the energy fed back while braking from the rated speed to a halt
+     */
+    public double brakingEnergy(int passengers, int capacity, long floorTravelTime) {
+        return drive(-kineticEnergy(passengers, capacity, floorTravelTime));
+    }
+
+    public double getDoorCycleEnergy() {
+        return doorCycleEnergy;
+    }
+
+    private double counterweight(int capacity) {
+        return carMass + counterweightBalance * capacity * passengerMass;
+    }
+
+    private double kineticEnergy(int passengers, int capacity, long floorTravelTime) {
+        double movingMass = carMass + passengers * passengerMass + counterweight(capacity);
+        double ratedSpeed = floorHeight * 1000 / floorTravelTime;
+        return 0.5 * movingMass * ratedSpeed * ratedSpeed;
+    }
+
+    /**
+     * @param work the mechanical work done by the motor, negative if the motor runs as a generator
+     * @return the energy drawn from the grid, negative if fed back
+     */
+    private double drive(double work) {
+        return work >= 0 ? work / driveEfficiency : work * regenerationEfficiency;
+    }
+}
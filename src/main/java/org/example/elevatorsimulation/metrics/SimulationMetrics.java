@@ -0,0 +1,269 @@
+package org.example.elevatorsimulation.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.exception.ElevatorSimulationException;
+import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.model.ElevatorState;
+import org.example.elevatorsimulation.service.BuildingEventListener;
+import org.example.elevatorsimulation.util.SimulationClock;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Collects the wait, ride & dispatch latency of every call request along with per elevator counters by listening to
+ * the events of a building. All times are measured on the clock of the simulation, so the metrics of real-time &
+ * discrete event simulations are comparable
+ */
+@Slf4j
+public class SimulationMetrics implements BuildingEventListener, SimulationMetricsMXBean {
+    private final SimulationClock clock;
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final LatencyHistogram rideTime = new LatencyHistogram();
+    private final LatencyHistogram dispatchDelay = new LatencyHistogram();
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong strandedCount = new AtomicLong();
+
+    // indexed by the elevator id & grown as new elevators show up
+    private volatile ElevatorMetrics[] elevatorMetrics = new ElevatorMetrics[0];
+
+    public SimulationMetrics(SimulationClock clock) {
+        this.clock = clock;
+    }
+
+    public LatencyHistogram getWaitTimeHistogram() {
+        return waitTime;
+    }
+
+    public LatencyHistogram getRideTimeHistogram() {
+        return rideTime;
+    }
+
+    public LatencyHistogram getDispatchDelayHistogram() {
+        return dispatchDelay;
+    }
+
+    /**
+     * @param elevatorId the id of the elevator
+     * @return the counters of the elevator
+     */
+    public ElevatorMetrics getElevatorMetrics(int elevatorId) {
+        return elevatorMetrics(elevatorId);
+    }
+
+    /**
+     * @return the counters of every elevator seen so far, indexed by the elevator id
+     */
+    public ElevatorMetrics[] getAllElevatorMetrics() {
+        return elevatorMetrics.clone();
+    }
+
+    /**
+     * Register these metrics with the platform MBean server
+     *
+     * @param name the name to distinguish these metrics from those of other simulations
+     */
+    public void registerMBean(String name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+                    new ObjectName("org.example.elevatorsimulation:type=SimulationMetrics,name=" + name));
+        } catch (JMException e) {
+            log.error("There was a problem registering the simulation metrics over JMX");
+            throw new ElevatorSimulationException("There was a problem registering the simulation metrics over JMX", e);
+        }
+    }
+
+    /**
+     * Remove these metrics from the platform MBean server, so that a later simulation can register under the same name
+     *
+     * @param name the name the metrics were registered with
+     */
+    public void unregisterMBean(String name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(
+                    new ObjectName("org.example.elevatorsimulation:type=SimulationMetrics,name=" + name));
+        } catch (JMException e) {
+            log.warn("There was a problem unregistering the simulation metrics from JMX", e);
+        }
+    }
+
+    /**
+     * @return a one line summary of the latency distributions, meant for logging at the end of a simulation
+     */
+    public String summary() {
+        return String.format("submitted=%d rejected=%d delivered=%d stranded=%d | wait [%s] | ride [%s] | dispatch [%s] | floors travelled=%d stops=%d",
+                getSubmittedCount(), getRejectedCount(), getDeliveredCount(), getStrandedCount(), waitTime, rideTime, dispatchDelay, getTotalFloorsTravelled(), getTotalStops());
+    }
+
+    /**
+     * Count the call requests a building restored from a checkpoint already has in flight as submitted, as they were
+     * submitted before the checkpoint & are delivered or stranded after it
+     *
+     * @param count the no. of call requests in flight
+     */
+    public void countRestored(long count) {
+        submittedCount.addAndGet(count);
+    }
+
+    @Override
+    public void onRequestSubmitted(ElevatorCallRequest request) {
+        submittedCount.incrementAndGet();
+    }
+
+    @Override
+    public void onRequestRejected(ElevatorCallRequest request) {
+        rejectedCount.incrementAndGet();
+    }
+
+    @Override
+    public void onPassengerPickedUp(ElevatorCallRequest request, int elevatorId) {
+        waitTime.record(request.getWaitTime());
+        dispatchDelay.record(request.getDispatchDelay());
+    }
+
+    @Override
+    public void onPassengerDelivered(ElevatorCallRequest request, int elevatorId) {
+        rideTime.record(request.getRideTime());
+        elevatorMetrics(elevatorId).passengerServed();
+    }
+
+    @Override
+    public void onPassengerStranded(ElevatorCallRequest request, int elevatorId) {
+        strandedCount.incrementAndGet();
+    }
+
+    @Override
+    public void onElevatorMoved(int elevatorId, int floor) {
+        elevatorMetrics(elevatorId).floorTravelled();
+    }
+
+    @Override
+    public void onElevatorStopped(int elevatorId, int floor) {
+        elevatorMetrics(elevatorId).stopped();
+    }
+
+    @Override
+    public void onElevatorStateChanged(int elevatorId, ElevatorState elevatorState) {
+        if (elevatorState.equals(ElevatorState.STATIONARY)) {
+            elevatorMetrics(elevatorId).idle(clock.currentTimeMillis());
+        } else {
+            elevatorMetrics(elevatorId).busy(clock.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public long getSubmittedCount() {
+        return submittedCount.get();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    @Override
+    public long getDeliveredCount() {
+        return rideTime.getCount();
+    }
+
+    @Override
+    public long getStrandedCount() {
+        return strandedCount.get();
+    }
+
+    @Override
+    public double getMeanWaitTime() {
+        return waitTime.getMean();
+    }
+
+    @Override
+    public long getP95WaitTime() {
+        return waitTime.getPercentile(95);
+    }
+
+    @Override
+    public long getP99WaitTime() {
+        return waitTime.getPercentile(99);
+    }
+
+    @Override
+    public long getMaxWaitTime() {
+        return waitTime.getMax();
+    }
+
+    @Override
+    public double getMeanRideTime() {
+        return rideTime.getMean();
+    }
+
+    @Override
+    public long getP95RideTime() {
+        return rideTime.getPercentile(95);
+    }
+
+    @Override
+    public double getMeanDispatchDelay() {
+        return dispatchDelay.getMean();
+    }
+
+    @Override
+    public long getP99DispatchDelay() {
+        return dispatchDelay.getPercentile(99);
+    }
+
+    @Override
+    public long getTotalFloorsTravelled() {
+        long total = 0;
+        for (ElevatorMetrics metrics : elevatorMetrics) {
+            total += metrics.getFloorsTravelled();
+        }
+        return total;
+    }
+
+    @Override
+    public long getTotalStops() {
+        long total = 0;
+        for (ElevatorMetrics metrics : elevatorMetrics) {
+            total += metrics.getStops();
+        }
+        return total;
+    }
+
+    @Override
+    public synchronized void reset() {
+        waitTime.reset();
+        rideTime.reset();
+        dispatchDelay.reset();
+        submittedCount.set(0);
+        rejectedCount.set(0);
+        strandedCount.set(0);
+        elevatorMetrics = new ElevatorMetrics[0];
+    }
+
+    private ElevatorMetrics elevatorMetrics(int elevatorId) {
+        ElevatorMetrics[] metrics = this.elevatorMetrics;
+        if (elevatorId < metrics.length) {
+            return metrics[elevatorId];
+        }
+        return growElevatorMetrics(elevatorId);
+    }
+
+    private synchronized ElevatorMetrics growElevatorMetrics(int elevatorId) {
+        ElevatorMetrics[] metrics = this.elevatorMetrics;
+        if (elevatorId >= metrics.length) {
+            int previousLength = metrics.length;
+            metrics = Arrays.copyOf(metrics, elevatorId + 1);
+            for (int i = previousLength; i < metrics.length; i++) {
+                metrics[i] = new ElevatorMetrics(i, clock.currentTimeMillis());
+            }
+            this.elevatorMetrics = metrics;
+        }
+        return metrics[elevatorId];
+    }
+}
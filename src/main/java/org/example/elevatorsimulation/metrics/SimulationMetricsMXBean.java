@@ -0,0 +1,39 @@
+package org.example.elevatorsimulation.metrics;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * The simulation metrics exposed over JMX, all times are in millis
+ */
+public interface SimulationMetricsMXBean {
+
+    long getSubmittedCount();
+
+    long getRejectedCount();
+
+    long getDeliveredCount();
+
+    long getStrandedCount();
+
+    double getMeanWaitTime();
+
+    long getP95WaitTime();
+
+    long getP99WaitTime();
+
+    long getMaxWaitTime();
+
+    double getMeanRideTime();
+
+    long getP95RideTime();
+
+    double getMeanDispatchDelay();
+
+    long getP99DispatchDelay();
+
+    long getTotalFloorsTravelled();
+
+    long getTotalStops();
+
+    void reset();
+}
@@ -0,0 +1,70 @@
+package org.example.elevatorsimulation.model;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * A handle to follow a submitted call request through its lifecycle without polling. Every stage completes once, on the
+ * thread that drove the request to it, i.e., the scheduler for the assignment & the elevator for the pickup & arrival.
+ * Dependent actions that block or take long should use the async variants of {@link CompletableFuture}, so that they
+ * never hold up an elevator. If the request is rejected, all stages complete exceptionally
+ */
+public class CallRequestHandle {
+    private final ElevatorCallRequest request;
+    private final CompletableFuture<Integer> assignment = new CompletableFuture<>();
+    private final CompletableFuture<Integer> pickup = new CompletableFuture<>();
+    private final CompletableFuture<ElevatorCallRequest> arrival = new CompletableFuture<>();
+
+    CallRequestHandle(ElevatorCallRequest request) {
+        this.request = request;
+    }
+
+    public ElevatorCallRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * @return completes with the id of the first elevator assigned to the request, a reassignment is visible through
+     * {@link ElevatorCallRequest#getAssignedElevatorId()}
+     */
+    public CompletableFuture<Integer> getAssignment() {
+        return assignment;
+    }
+
+    /**
+     * @return completes with the id of the elevator that picked the passenger up
+     */
+    public CompletableFuture<Integer> getPickup() {
+        return pickup;
+    }
+
+    /**
+     * @return completes with the request once the passenger has arrived at the target floor
+     */
+    public CompletableFuture<ElevatorCallRequest> getArrival() {
+        return arrival;
+    }
+
+    public boolean isRejected() {
+        return arrival.isCompletedExceptionally();
+    }
+
+    void assigned(int elevatorId) {
+        assignment.complete(elevatorId);
+    }
+
+    void pickedUp(int elevatorId) {
+        pickup.complete(elevatorId);
+    }
+
+    void arrived() {
+        arrival.complete(request);
+    }
+
+    void rejected(Throwable cause) {
+        assignment.completeExceptionally(cause);
+        pickup.completeExceptionally(cause);
+        arrival.completeExceptionally(cause);
+    }
+}
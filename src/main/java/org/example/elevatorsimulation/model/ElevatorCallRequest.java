@@ -2,20 +2,57 @@ package org.example.elevatorsimulation.model;
 
 import org.example.elevatorsimulation.service.BuildingService;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * @author Abhilash Sulibela
  * <p>
  * This class encapsulates the information required by a Call Request made a building floor
  */
 public class ElevatorCallRequest {
+    public static final long NOT_YET = -1;
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    // unique within the JVM, so that the events of a call request can be told apart from the ones of a call request
+    // submitted at the same time between the same floors
+    private final long id;
     private int requestFloor;
     private int targetFloor;
 
+    // lifecycle timestamps in millis of the simulation clock, NOT_YET until the request reaches the stage
+    private volatile long submittedAt = NOT_YET;
+    private volatile long assignedAt = NOT_YET;
+    private volatile long pickedUpAt = NOT_YET;
+    private volatile long deliveredAt = NOT_YET;
+    private volatile int assignedElevatorId = -1;
+
+    // created on demand, so that requests nobody follows never allocate futures
+    private volatile CallRequestHandle handle;
+
     public ElevatorCallRequest(int requestFloor, int targetFloor) {
+        this(SEQUENCE.incrementAndGet(), requestFloor, targetFloor);
+    }
+
+    /**
+     * Recreate a call request under the id it was captured with, e.g., from a checkpoint, so that its events can be told
+     * apart & followed across runs. Call requests created later in the JVM get ids above it
+     *
+     * @param id           the id of the call request
+     * @param requestFloor the floor the call was made at
+     * @param targetFloor  the floor the passenger travels to
+     */
+    public ElevatorCallRequest(long id, int requestFloor, int targetFloor) {
+        SEQUENCE.accumulateAndGet(id, Math::max);
+        this.id = id;
         this.requestFloor = requestFloor;
         this.targetFloor = targetFloor;
     }
 
+    public long getId() {
+        return id;
+    }
+
     public int getRequestFloor() {
         return requestFloor;
     }
@@ -24,10 +61,192 @@ public class ElevatorCallRequest {
         return targetFloor;
     }
 
+    /**
+     * @return the direction of travel requested by this call
+     */
+    public ElevatorState getDirection() {
+        return ElevatorState.direction(requestFloor, targetFloor);
+    }
+
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public long getAssignedAt() {
+        return assignedAt;
+    }
+
+    public long getPickedUpAt() {
+        return pickedUpAt;
+    }
+
+    public long getDeliveredAt() {
+        return deliveredAt;
+    }
+
+    /**
+     * @return the id of the elevator currently assigned to this request, -1 if it has not been assigned yet
+     */
+    public int getAssignedElevatorId() {
+        return assignedElevatorId;
+    }
+
+    /**
+     * Return the handle to follow this request through its lifecycle, creating it on first use. The stages this request
+     * has already reached are completed right away
+     *
+     * @return the handle of this request
+     */
+    public CallRequestHandle getHandle() {
+        CallRequestHandle current = this.handle;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (this.handle == null) {
+                this.handle = new CallRequestHandle(this);
+            }
+            current = this.handle;
+        }
+        // a stage reached concurrently is completed either here or by its mark method, completing it twice is harmless
+        completeStages(current);
+        return current;
+    }
+
+    /**
+     * Complete every stage of the handle this request has reached so far, if anyone follows the request. The futures run
+     * their dependent actions inline, so an elevator records the stages under its monitor & completes them after
+     * releasing it
+     */
+    public void completeStages() {
+        CallRequestHandle current = this.handle;
+        if (current != null) {
+            completeStages(current);
+        }
+    }
+
+    private void completeStages(CallRequestHandle current) {
+        if (this.assignedAt != NOT_YET) {
+            current.assigned(this.assignedElevatorId);
+        }
+        if (this.pickedUpAt != NOT_YET) {
+            current.pickedUp(this.assignedElevatorId);
+        }
+        if (this.deliveredAt != NOT_YET) {
+            current.arrived();
+        }
+    }
+
+    public void markSubmitted(long time) {
+        this.submittedAt = time;
+    }
+
+    /**
+     * Record the assignment of this request to an elevator & complete the assignment of its handle. A reassignment
+     * updates the elevator but keeps the time of the first assignment, so that the dispatch delay reflects when the
+     * passenger was first served
+     *
+     * @param elevatorId the id of the assigned elevator
+     * @param time       the time of the assignment
+     */
+    public void markAssigned(int elevatorId, long time) {
+        recordAssigned(elevatorId, time);
+        CallRequestHandle current = this.handle;
+        if (current != null) {
+            current.assigned(elevatorId);
+        }
+    }
+
+    /**
+     * Record the assignment of this request to an elevator without completing its handle, see {@link #completeStages()}
+     *
+     * @param elevatorId the id of the assigned elevator
+     * @param time       the time of the assignment
+     */
+    public void recordAssigned(int elevatorId, long time) {
+        this.assignedElevatorId = elevatorId;
+        if (this.assignedAt == NOT_YET) {
+            this.assignedAt = time;
+        }
+    }
+
+    public void markPickedUp(long time) {
+        recordPickedUp(time);
+        CallRequestHandle current = this.handle;
+        if (current != null) {
+            current.pickedUp(this.assignedElevatorId);
+        }
+    }
+
+    public void recordPickedUp(long time) {
+        this.pickedUpAt = time;
+    }
+
+    public void markDelivered(long time) {
+        recordDelivered(time);
+        CallRequestHandle current = this.handle;
+        if (current != null) {
+            current.arrived();
+        }
+    }
+
+    public void recordDelivered(long time) {
+        this.deliveredAt = time;
+    }
+
+    /**
+     * Record that this request was turned away & fail every stage of its handle
+     *
+     * @param cause the reason of the rejection
+     */
+    public void markRejected(Throwable cause) {
+        getHandle().rejected(cause);
+    }
+
+    /**
+     * @return the time from submission until the first assignment to an elevator
+     */
+    public long getDispatchDelay() {
+        return assignedAt - submittedAt;
+    }
+
+    /**
+     * @return the time from submission until the passenger was picked up
+     */
+    public long getWaitTime() {
+        return pickedUpAt - submittedAt;
+    }
+
+    /**
+     * @return the time from pick up until the passenger was dropped off at the target floor
+     */
+    public long getRideTime() {
+        return deliveredAt - pickedUpAt;
+    }
+
     /**
      * Submit this request to the Building service's processing queue to schedule an elevator
      */
     public void submitRequest() {
-        BuildingService.getInstance().submit(this);
+        submitRequest(BuildingService.getInstance());
+    }
+
+    /**
+     * Submit this request to the processing queue of the given building to schedule an elevator
+     *
+     * @param buildingService the building the request is made in
+     */
+    public void submitRequest(BuildingService buildingService) {
+        buildingService.submit(this);
+    }
+
+    /**
+     * Submit this request to the given building's processing queue without blocking
+     *
+     * @param buildingService the building the request is made in
+     * @return the handle to follow the request, failed if too many requests are in flight
+     */
+    public CallRequestHandle submitRequestAsync(BuildingService buildingService) {
+        return buildingService.submitAsync(this);
     }
 }
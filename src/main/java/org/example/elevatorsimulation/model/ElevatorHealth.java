@@ -0,0 +1,30 @@
+package org.example.elevatorsimulation.model;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Enum to depict the health of an Elevator. A slow elevator keeps serving call requests at a reduced speed. An elevator
+ * under maintenance takes no new call requests & only carries the passengers on board to their target floors, while an
+ * elevator out of service does not move at all until it is back in service
+ */
+public enum ElevatorHealth {
+    IN_SERVICE,
+    SLOW,
+    MAINTENANCE,
+    OUT_OF_SERVICE,
+    ;
+
+    /**
+     * @return True, if the elevator may be assigned new call requests
+     */
+    public boolean isDispatchable() {
+        return this == IN_SERVICE || this == SLOW;
+    }
+
+    /**
+     * @return True, if the elevator moves to serve its stops
+     */
+    public boolean isOperating() {
+        return this != OUT_OF_SERVICE;
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.elevatorsimulation.model;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * An immutable view of an elevator's state at a point in time. Every elevator publishes a new snapshot whenever its
+ * state, load or health changes, so the schedulers can read a consistent picture of the building without locking any
+ * elevator. The floor changes on every tick & is not part of a snapshot, so that a moving elevator never allocates, it
+ * is read from {@link org.example.elevatorsimulation.service.Elevator#getCurrentFloor()} instead
+ */
+public final class ElevatorSnapshot {
+    private final int id;
+    private final ElevatorState elevatorState;
+    private final int load;
+    private final int onboard;
+    private final int capacity;
+    private final ElevatorHealth health;
+
+    public ElevatorSnapshot(int id, ElevatorState elevatorState, int load, int onboard, int capacity) {
+        this(id, elevatorState, load, onboard, capacity, ElevatorHealth.IN_SERVICE);
+    }
+
+    public ElevatorSnapshot(int id, ElevatorState elevatorState, int load, int onboard, int capacity, ElevatorHealth health) {
+        this.id = id;
+        this.elevatorState = elevatorState;
+        this.load = load;
+        this.onboard = onboard;
+        this.capacity = capacity;
+        this.health = health;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public ElevatorState getElevatorState() {
+        return elevatorState;
+    }
+
+    /**
+     * @return the no. of call requests waiting to be picked up or on board
+     */
+    public int getLoad() {
+        return load;
+    }
+
+    /**
+     * @return the no. of passengers on board
+     */
+    public int getOnboard() {
+        return onboard;
+    }
+
+    /**
+     * @return the max no. of passengers the elevator can carry
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return True, if no more passengers can board the elevator. False, otherwise
+     */
+    public boolean isFull() {
+        return onboard >= capacity;
+    }
+
+    public ElevatorHealth getHealth() {
+        return health;
+    }
+
+    /**
+     * @return True, if the elevator can take another call request, i.e., it is dispatchable & not full. False, otherwise
+     */
+    public boolean isAvailable() {
+        return health.isDispatchable() && !isFull();
+    }
+}
@@ -0,0 +1,162 @@
+package org.example.elevatorsimulation.model;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.exception.BadRequestException;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import static org.example.elevatorsimulation.util.Constants.FLOOR_TRAVEL_TIME;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * The fixed characteristics of a single elevator, i.e., how many passengers it carries, how long it takes to travel a
+ * floor & which floors it opens its doors at. A car that skips floors still travels past them, e.g., a shuttle between
+ * the lobby & a sky lobby
+ */
+@Slf4j
+public final class ElevatorSpec {
+    private final int capacity;
+    private final long floorTravelTime;
+    // null if the elevator serves every floor of the building
+    private final BitSet servedFloors;
+
+    /**
+     * @param capacity        the max no. of passengers on board
+     * @param floorTravelTime the time in millis to travel a single floor
+     */
+    public ElevatorSpec(int capacity, long floorTravelTime) {
+        this(capacity, floorTravelTime, null);
+    }
+
+    /**
+     * @param capacity        the max no. of passengers on board
+     * @param floorTravelTime the time in millis to travel a single floor
+     * @param servedFloors    the floors the elevator stops at, null to serve every floor
+     */
+    public ElevatorSpec(int capacity, long floorTravelTime, BitSet servedFloors) {
+        if (capacity <= 0 || floorTravelTime <= 0 || (servedFloors != null && servedFloors.cardinality() < 2)) {
+            log.error("Invalid elevator with a capacity of {}, a floor travel time of {} ms & serving floors {}",
+                    capacity, floorTravelTime, formatFloors(servedFloors));
+            throw new BadRequestException("Invalid elevator with a capacity of " + capacity + ", a floor travel time of "
+                    + floorTravelTime + " ms & serving floors " + formatFloors(servedFloors));
+        }
+        this.capacity = capacity;
+        this.floorTravelTime = floorTravelTime;
+        this.servedFloors = servedFloors == null ? null : (BitSet) servedFloors.clone();
+    }
+
+    /**
+     * @param count    no. of elevators
+     * @param capacity the capacity of every elevator
+     * @return the specs of a fleet of identical elevators serving every floor at the regular speed, empty if the count
+     * is not positive
+     */
+    public static List<ElevatorSpec> uniformFleet(int count, int capacity) {
+        return count <= 0 ? Collections.emptyList() : Collections.nCopies(count, new ElevatorSpec(capacity, FLOOR_TRAVEL_TIME));
+    }
+
+    /**
+     * Parse a set of floors such as {@code 0,20-39}, i.e., single floors & inclusive ranges separated by commas. Every
+     * floor is checked against the building before any is set, so that a bogus range never allocates a huge set
+     *
+     * @param value      the floors to parse
+     * @param floorCount no. of floors in the building
+     * @return the floors
+     * @throws BadRequestException if the value is malformed or names a floor outside of the building
+     */
+    public static BitSet parseFloors(String value, int floorCount) {
+        BitSet floors = new BitSet(Math.max(floorCount, 0));
+        try {
+            // a limit of -1 keeps trailing empty fields, so that e.g. "1-" or "1," is rejected rather than read as "1"
+            for (String field : value.split(",", -1)) {
+                String[] range = field.trim().split("-", -1);
+                int from = Integer.parseInt(range[0].trim());
+                int to = range.length > 1 ? Integer.parseInt(range[1].trim()) : from;
+                if (range.length > 2 || from < 0 || to < from) {
+                    throw new NumberFormatException(field);
+                }
+                if (to >= floorCount) {
+                    log.error("The floors - {} do not fit into a building of {} floors", value, floorCount);
+                    throw new BadRequestException("The floors - " + value + " do not fit into a building of " + floorCount + " floors");
+                }
+                floors.set(from, to + 1);
+            }
+        } catch (NumberFormatException e) {
+            log.error("Invalid set of floors - {}", value);
+            throw new BadRequestException("Invalid set of floors - " + value);
+        }
+        return floors;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getFloorTravelTime() {
+        return floorTravelTime;
+    }
+
+    /**
+     * @return a copy of the floors the elevator stops at, null if it serves every floor
+     */
+    public BitSet getServedFloors() {
+        return servedFloors == null ? null : (BitSet) servedFloors.clone();
+    }
+
+    public boolean servesEveryFloor() {
+        return servedFloors == null;
+    }
+
+    public boolean serves(int floor) {
+        return servedFloors == null || (floor >= 0 && servedFloors.get(floor));
+    }
+
+    /**
+     * @return the lowest floor the elevator stops at, where it starts out
+     */
+    public int getLowestServedFloor() {
+        return servedFloors == null ? 0 : servedFloors.nextSetBit(0);
+    }
+
+    /**
+     * Validate the served floors against the size of the building
+     *
+     * @param floorCount no. of floors in the building
+     * @throws BadRequestException if the elevator stops at a floor outside of the building
+     */
+    public void validate(int floorCount) {
+        if (servedFloors != null && servedFloors.length() > floorCount) {
+            log.error("An elevator serving floors {} does not fit into a building of {} floors", formatFloors(servedFloors), floorCount);
+            throw new BadRequestException("An elevator serving floors " + formatFloors(servedFloors)
+                    + " does not fit into a building of " + floorCount + " floors");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("capacity=%d floorTravelTime=%d floors=%s", capacity, floorTravelTime, formatFloors(servedFloors));
+    }
+
+    /**
+     * @param floors a set of floors, null for every floor
+     * @return the floors in the format read by {@link #parseFloors(String, int)}
+     */
+    public static String formatFloors(BitSet floors) {
+        if (floors == null) {
+            return "all";
+        }
+        StringBuilder builder = new StringBuilder();
+        for (int from = floors.nextSetBit(0); from >= 0; from = floors.nextSetBit(from + 1)) {
+            int to = floors.nextClearBit(from) - 1;
+            builder.append(builder.length() > 0 ? "," : "").append(from);
+            if (to > from) {
+                builder.append('-').append(to);
+            }
+            from = to;
+        }
+        return builder.toString();
+    }
+}
@@ -9,4 +9,20 @@ public enum ElevatorState {
     UP,
     DOWN,
     STATIONARY,
+    ;
+
+    /**
+     * Return the direction an elevator has to travel to get from one floor to another
+     *
+     * @param fromFloor the floor the elevator starts from
+     * @param toFloor   the floor the elevator has to reach
+     * @return UP if the target floor is higher, DOWN otherwise
+     */
+    public static ElevatorState direction(int fromFloor, int toFloor) {
+        if (toFloor - fromFloor > 0) {
+            return UP;
+        } else {
+            return DOWN;
+        }
+    }
 }
@@ -0,0 +1,194 @@
+package org.example.elevatorsimulation.model;
+
+import org.example.elevatorsimulation.exception.BadRequestException;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * A lock-free set of floors an elevator has to stop at, backed by a bitset of one bit per floor. Stops can be set &
+ * cleared concurrently by the scheduler & the elevator, while the next stop above or below a floor is found by
+ * scanning whole words instead of walking boxed floor numbers. None of the operations allocate
+ */
+public class FloorStopSet {
+    private static final int WORD_SHIFT = 6;
+    private static final long WORD_MASK = 0xFFFFFFFFFFFFFFFFL;
+
+    private final AtomicLongArray words;
+    private final int capacity;
+
+    /**
+     * @param capacity the no. of floors this set can hold, i.e., floors 0 to capacity - 1
+     */
+    public FloorStopSet(int capacity) {
+        this.capacity = capacity;
+        this.words = new AtomicLongArray(((capacity - 1) >> WORD_SHIFT) + 1);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Add a stop at the given floor
+     *
+     * @param floor the floor to stop at
+     * @return True, if the stop was not already present. False, otherwise
+     */
+    public boolean add(int floor) {
+        int index = wordIndex(floor);
+        long mask = 1L << floor;
+        long word;
+        do {
+            word = words.get(index);
+            if ((word & mask) != 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(index, word, word | mask));
+        return true;
+    }
+
+    /**
+     * Remove the stop at the given floor
+     *
+     * @param floor the floor to clear
+     * @return True, if the stop was present. False, otherwise
+     */
+    public boolean remove(int floor) {
+        int index = wordIndex(floor);
+        long mask = 1L << floor;
+        long word;
+        do {
+            word = words.get(index);
+            if ((word & mask) == 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(index, word, word & ~mask));
+        return true;
+    }
+
+    public boolean contains(int floor) {
+        return (words.get(wordIndex(floor)) & (1L << floor)) != 0;
+    }
+
+    /**
+     * Return the lowest stop at or above the given floor
+     *
+     * @param floor the floor to start searching from
+     * @return the nearest stop at or above the floor, -1 if there is none
+     */
+    public int nextAbove(int floor) {
+        if (floor >= capacity) {
+            return -1;
+        }
+        int index = Math.max(floor, 0) >> WORD_SHIFT;
+        long word = words.get(index) & (WORD_MASK << Math.max(floor, 0));
+        while (true) {
+            if (word != 0) {
+                return (index << WORD_SHIFT) + Long.numberOfTrailingZeros(word);
+            }
+            if (++index == words.length()) {
+                return -1;
+            }
+            word = words.get(index);
+        }
+    }
+
+    /**
+     * Return the highest stop at or below the given floor
+     *
+     * @param floor the floor to start searching from
+     * @return the nearest stop at or below the floor, -1 if there is none
+     */
+    public int nextBelow(int floor) {
+        if (floor < 0) {
+            return -1;
+        }
+        int from = Math.min(floor, capacity - 1);
+        int index = from >> WORD_SHIFT;
+        long word = words.get(index) & (WORD_MASK >>> (Long.SIZE - 1 - (from & (Long.SIZE - 1))));
+        while (true) {
+            if (word != 0) {
+                return (index << WORD_SHIFT) + Long.SIZE - 1 - Long.numberOfLeadingZeros(word);
+            }
+            if (index-- == 0) {
+                return -1;
+            }
+            word = words.get(index);
+        }
+    }
+
+    /**
+     * @return the lowest stop, -1 if there is none
+     */
+    public int first() {
+        return nextAbove(0);
+    }
+
+    /**
+     * @return the highest stop, -1 if there is none
+     */
+    public int last() {
+        return nextBelow(capacity - 1);
+    }
+
+    public boolean isEmpty() {
+        for (int i = 0; i < words.length(); i++) {
+            if (words.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Count the stops between the two floors, both inclusive
+     *
+     * @param fromFloor the lower floor of the range
+     * @param toFloor   the upper floor of the range
+     * @return the no. of stops within the range
+     */
+    public int count(int fromFloor, int toFloor) {
+        int from = Math.max(fromFloor, 0);
+        int to = Math.min(toFloor, capacity - 1);
+        if (from > to) {
+            return 0;
+        }
+        int fromIndex = from >> WORD_SHIFT;
+        int toIndex = to >> WORD_SHIFT;
+        int count = 0;
+        for (int i = fromIndex; i <= toIndex; i++) {
+            long word = words.get(i);
+            if (i == fromIndex) {
+                word &= WORD_MASK << from;
+            }
+            if (i == toIndex) {
+                word &= WORD_MASK >>> (Long.SIZE - 1 - (to & (Long.SIZE - 1)));
+            }
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < words.length(); i++) {
+            size += Long.bitCount(words.get(i));
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (int i = 0; i < words.length(); i++) {
+            words.set(i, 0);
+        }
+    }
+
+    private int wordIndex(int floor) {
+        if (floor < 0 || floor >= capacity) {
+            throw new BadRequestException("Floor - " + floor + " is outside of the range 0-" + (capacity - 1));
+        }
+        return floor >> WORD_SHIFT;
+    }
+}
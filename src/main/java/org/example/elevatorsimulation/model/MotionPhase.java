@@ -0,0 +1,26 @@
+package org.example.elevatorsimulation.model;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Enum to depict the phase of the motion profile an Elevator is in, alongside its direction of travel. A run from one
+ * stop to the next starts by accelerating & ends by decelerating into the stop, with the floors in between cruised at
+ * the rated speed. A car that halts at a stop opens its doors if anyone boards or alights & stays stopped with its doors
+ * closed otherwise, e.g., a full car at a hall call
+ */
+public enum MotionPhase {
+    IDLE,
+    ACCELERATING,
+    CRUISING,
+    DECELERATING,
+    STOPPED,
+    DOORS_OPEN,
+    ;
+
+    /**
+     * @return True, if the elevator is travelling between two stops
+     */
+    public boolean isRunning() {
+        return this == ACCELERATING || this == CRUISING;
+    }
+}
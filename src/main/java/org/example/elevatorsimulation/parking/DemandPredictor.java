@@ -0,0 +1,141 @@
+package org.example.elevatorsimulation.parking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.exception.BadRequestException;
+import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.service.BuildingEventListener;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+import static org.example.elevatorsimulation.util.Constants.*;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Learns where call requests come from at every time of the day. The day is split into slots & the origin floors of the
+ * submitted call requests are counted per slot over a sliding window of the last few days, so the prediction follows
+ * the building as its traffic shifts, e.g., towards the lobby in the morning. The times of the day are local to a time
+ * zone, the zone of the system by default, so that the slots line up with the working hours of the building. A
+ * building on a virtual clock starting at midnight uses {@link java.time.ZoneOffset#UTC} instead
+ */
+@Slf4j
+public class DemandPredictor implements BuildingEventListener {
+    private final int floorCount;
+    private final long slotLength;
+    private final int slotsPerDay;
+    private final int windowDays;
+    private final ZoneId zone;
+
+    // the call requests per floor, indexed by the slot of the day within the ring of days
+    private final int[][] demand;
+    // the day every entry of the ring of days holds, -1 if it holds no day yet
+    private final long[] days;
+
+    public DemandPredictor(int floorCount) {
+        this(floorCount, DEMAND_SLOT_LENGTH, DEMAND_WINDOW_DAYS);
+    }
+
+    /**
+     * @param floorCount the no. of floors of the building
+     * @param slotLength the length of a slot of the day in millis
+     * @param windowDays the no. of days the demand is remembered for, including the current one
+     */
+    public DemandPredictor(int floorCount, long slotLength, int windowDays) {
+        this(floorCount, slotLength, windowDays, ZoneId.systemDefault());
+    }
+
+    /**
+     * @param floorCount the no. of floors of the building
+     * @param slotLength the length of a slot of the day in millis
+     * @param windowDays the no. of days the demand is remembered for, including the current one
+     * @param zone       the time zone the days of the building start at midnight in
+     */
+    public DemandPredictor(int floorCount, long slotLength, int windowDays, ZoneId zone) {
+        if (floorCount <= 0 || slotLength <= 0 || slotLength > DAY_LENGTH || windowDays <= 0 || zone == null) {
+            log.error("A demand predictor needs floors, a slot of at most a day & a window of at least a day");
+            throw new BadRequestException("A demand predictor needs floors, a slot of at most a day & a window of at least a day");
+        }
+        this.floorCount = floorCount;
+        this.slotLength = slotLength;
+        this.slotsPerDay = (int) ((DAY_LENGTH + slotLength - 1) / slotLength);
+        this.windowDays = windowDays;
+        this.zone = zone;
+        this.demand = new int[windowDays * slotsPerDay][floorCount];
+        this.days = new long[windowDays];
+        Arrays.fill(this.days, -1);
+    }
+
+    @Override
+    public void onRequestSubmitted(ElevatorCallRequest request) {
+        record(request.getSubmittedAt(), request.getRequestFloor());
+    }
+
+    /**
+     * Count a call request from the given floor at the given time
+     *
+     * @param time  the time on the clock of the building in millis
+     * @param floor the floor the call request came from
+     */
+    public synchronized void record(long time, int floor) {
+        if (time < 0 || floor < 0 || floor >= floorCount) {
+            return;
+        }
+        long localTime = localTime(time);
+        long day = localTime / DAY_LENGTH;
+        int ring = (int) (day % windowDays);
+        if (days[ring] != day) {
+            // the oldest day slides out of the window
+            for (int slot = 0; slot < slotsPerDay; slot++) {
+                Arrays.fill(demand[ring * slotsPerDay + slot], 0);
+            }
+            days[ring] = day;
+        }
+        demand[ring * slotsPerDay + slotOf(localTime)][floor]++;
+    }
+
+    /**
+     * Predict the call requests per floor around the given time, i.e., the ones counted in its slot & the following one
+     * on every day of the window
+     *
+     * @param time the time on the clock of the building in millis
+     * @return the predicted no. of call requests, indexed by the floor
+     */
+    public synchronized int[] predict(long time) {
+        int[] prediction = new int[floorCount];
+        long localTime = localTime(Math.max(time, 0));
+        long day = localTime / DAY_LENGTH;
+        int slot = slotOf(localTime);
+        int nextSlot = (slot + 1) % slotsPerDay;
+        for (int ring = 0; ring < windowDays; ring++) {
+            if (days[ring] < 0 || days[ring] <= day - windowDays || days[ring] > day) {
+                continue;
+            }
+            int[] current = demand[ring * slotsPerDay + slot];
+            int[] next = demand[ring * slotsPerDay + nextSlot];
+            for (int floor = 0; floor < floorCount; floor++) {
+                prediction[floor] += current[floor] + next[floor];
+            }
+        }
+        return prediction;
+    }
+
+    /**
+     * @param time the time on the clock of the building in millis
+     * @return the time in millis since midnight of the first day of the epoch in the time zone of the building
+     */
+    private long localTime(long time) {
+        long offset = zone.getRules().getOffset(Instant.ofEpochMilli(time)).getTotalSeconds() * 1000L;
+        // the first hours of a clock starting at 0 fall on the day before the epoch in a zone east of UTC
+        return Math.max(time + offset, 0);
+    }
+
+    /**
+     * @param localTime the time in millis since midnight of the first day of the epoch in the time zone of the building
+     * @return the slot of the day
+     */
+    private int slotOf(long localTime) {
+        return (int) ((localTime % DAY_LENGTH) / slotLength);
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.elevatorsimulation.parking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.model.ElevatorHealth;
+import org.example.elevatorsimulation.model.ElevatorSnapshot;
+import org.example.elevatorsimulation.model.ElevatorState;
+import org.example.elevatorsimulation.service.BuildingEventListener;
+import org.example.elevatorsimulation.service.BuildingService;
+import org.example.elevatorsimulation.service.Elevator;
+
+import java.util.List;
+
+import static org.example.elevatorsimulation.util.Constants.MIN_PARKING_DEMAND;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Parks every elevator that runs out of stops at the floor with the highest predicted demand that no other idle
+ * elevator is waiting at yet, so the next call request is likely answered by an elevator close by. Register both the
+ * policy & its {@link DemandPredictor} as listeners of the building. An elevator stays where it is until enough call
+ * requests have been seen to predict the demand
+ */
+@Slf4j
+public class ParkingPolicy implements BuildingEventListener {
+    private final BuildingService buildingService;
+    private final DemandPredictor predictor;
+    private final int minDemand;
+
+    public ParkingPolicy(BuildingService buildingService, DemandPredictor predictor) {
+        this(buildingService, predictor, MIN_PARKING_DEMAND);
+    }
+
+    /**
+     * @param buildingService the building whose elevators are parked
+     * @param predictor       the demand predictor fed by the same building
+     * @param minDemand       the min no. of predicted call requests to park an elevator at a floor
+     */
+    public ParkingPolicy(BuildingService buildingService, DemandPredictor predictor, int minDemand) {
+        this.buildingService = buildingService;
+        this.predictor = predictor;
+        this.minDemand = minDemand;
+    }
+
+    @Override
+    public void onElevatorStateChanged(int elevatorId, ElevatorState elevatorState) {
+        List<Elevator> elevatorList = buildingService.getElevatorList();
+        // elevators announce their initial state before they are added to the building
+        if (elevatorState.equals(ElevatorState.STATIONARY) && elevatorId < elevatorList.size()) {
+            park(elevatorList.get(elevatorId));
+        }
+    }
+
+    @Override
+    public void onElevatorHealthChanged(int elevatorId, ElevatorHealth health) {
+        // an elevator back in service may be idle without ever changing its state
+        if (health.isDispatchable()) {
+            park(buildingService.getElevator(elevatorId));
+        }
+    }
+
+    /**
+     * Send the given elevator to the floor with the highest predicted demand, if it is idle
+     *
+     * @param elevator the elevator to park
+     * @return the floor the elevator is parking at, -1 if it stays where it is
+     */
+    public int park(Elevator elevator) {
+        if (elevator.hasPath() || !elevator.getHealth().isDispatchable()) {
+            return -1;
+        }
+        int[] demand = predictor.predict(buildingService.getClock().currentTimeMillis());
+        boolean[] covered = coveredFloors(elevator.getId(), demand.length);
+        int currentFloor = elevator.getCurrentFloor();
+
+        int parkingFloor = -1;
+        for (int floor = 0; floor < demand.length; floor++) {
+            if (covered[floor] || demand[floor] < minDemand || !elevator.getSpec().serves(floor)) {
+                continue;
+            }
+            if (parkingFloor < 0 || demand[floor] > demand[parkingFloor] || (demand[floor] == demand[parkingFloor]
+                    && Math.abs(floor - currentFloor) < Math.abs(parkingFloor - currentFloor))) {
+                parkingFloor = floor;
+            }
+        }
+        if (parkingFloor < 0 || !elevator.park(parkingFloor)) {
+            return -1;
+        }
+        log.debug("Elevator ID - {} | parking at floor - {} with a predicted demand of {}", elevator.getId(), parkingFloor, demand[parkingFloor]);
+        return parkingFloor;
+    }
+
+    /**
+     * @return the floors other elevators in service are idling at or parking at
+     */
+    private boolean[] coveredFloors(int elevatorId, int floorCount) {
+        boolean[] covered = new boolean[floorCount];
+        for (Elevator other : buildingService.getElevatorList()) {
+            if (other.getId() == elevatorId || !other.getHealth().isDispatchable()) {
+                continue;
+            }
+            int floor = other.getParkingFloor();
+            if (floor < 0) {
+                ElevatorSnapshot snapshot = other.getSnapshot();
+                if (snapshot == null || !snapshot.getElevatorState().equals(ElevatorState.STATIONARY) || other.hasPath()) {
+                    continue;
+                }
+                floor = other.getCurrentFloor();
+            }
+            if (floor < floorCount) {
+                covered[floor] = true;
+            }
+        }
+        return covered;
+    }
+}
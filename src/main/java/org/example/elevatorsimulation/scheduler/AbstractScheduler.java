@@ -0,0 +1,90 @@
+package org.example.elevatorsimulation.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.service.BuildingService;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Base class for schedulers that dispatch the call requests of a building on their own thread. The thread blocks until
+ * a request is submitted or an elevator changes its state & then hands the waiting requests to
+ * {@link #schedule(org.example.elevatorsimulation.model.ElevatorCallRequest)}
+ */
+@Slf4j
+public abstract class AbstractScheduler implements Scheduler, Runnable {
+    private Thread thread;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile BuildingService buildingService;
+
+    @Override
+    public void setBuildingService(BuildingService buildingService) {
+        this.buildingService = buildingService;
+    }
+
+    /**
+     * @return the building this scheduler dispatches call requests for
+     */
+    protected BuildingService getBuildingService() {
+        BuildingService building = this.buildingService;
+        return building != null ? building : BuildingService.getInstance();
+    }
+
+    @Override
+    public void start() {
+        log.info("Started the scheduler");
+        // set before the thread starts, so that a stop racing with the start is not overwritten
+        this.running.set(true);
+        this.thread = new Thread(this, "scheduler");
+        this.thread.start();
+    }
+
+    @Override
+    public void stop() {
+        log.info("Stopping the scheduler");
+        this.running.set(false);
+        if (this.thread != null) {
+            // wake the scheduler up in case it is waiting for a dispatch signal
+            this.thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        Thread current = this.thread;
+        if (current == null) {
+            return true;
+        }
+        current.join(Math.max(unit.toMillis(timeout), 1));
+        return !current.isAlive();
+    }
+
+    @Override
+    public void run() {
+        BuildingService buildingService = getBuildingService();
+        RequestDispatcher dispatcher = new RequestDispatcher(this);
+        long observedVersion = buildingService.getElevatorStateVersion();
+
+        while (this.running.get()) {
+            try {
+                // block until a call request is submitted or an elevator changes state, rather than polling the queue
+                long version = buildingService.awaitDispatchSignal(observedVersion);
+                if (getBatchWindow() > 0 && buildingService.hasPendingRequests()) {
+                    // collect the call requests arriving within the batch window, so they are scheduled together
+                    Thread.sleep(getBatchWindow());
+                }
+                dispatcher.dispatch(buildingService, version != observedVersion);
+                observedVersion = version;
+            } catch (InterruptedException e) {
+                // the thread belongs to the scheduler, so an interrupt can only mean it is asked to stop
+                if (this.running.getAndSet(false)) {
+                    log.warn("The scheduler was interrupted without being stopped, stopping it");
+                }
+                break;
+            }
+        }
+        log.debug("The scheduler has stopped");
+    }
+}
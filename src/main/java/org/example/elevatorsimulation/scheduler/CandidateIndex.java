@@ -0,0 +1,331 @@
+package org.example.elevatorsimulation.scheduler;
+
+import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.model.ElevatorSnapshot;
+import org.example.elevatorsimulation.model.ElevatorState;
+import org.example.elevatorsimulation.model.FloorStopSet;
+import org.example.elevatorsimulation.service.BuildingEventListener;
+import org.example.elevatorsimulation.service.BuildingService;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Indexes the elevators of a building by their floor, separately for the idle elevators & the ones travelling up or
+ * down. The index listens to the building & moves an elevator between & within the indexes as it changes its state or
+ * floor, so finding the nearest suitable elevator for a call request scans the floors outwards from the requested floor
+ * instead of every elevator. Every elevator owns a slot packing its state & floor, which is updated with a compare &
+ * set, & every floor of every state holds a bitmap of the elevators indexed at it. Every state also keeps the set of
+ * floors it has elevators at, so a lookup jumps from one occupied floor to the next with a scan of a few words rather
+ * than walking every floor of the building. A floor tick flips two bits without taking a lock or allocating. A bit may
+ * briefly outlive the slot it was set for, so every bit found is checked against the slot of its elevator
+ */
+public class CandidateIndex implements BuildingEventListener {
+    // the slot of an elevator that has not announced its state yet
+    private static final long EMPTY = 0;
+    private static final long FLOOR_MASK = 0xFFFFFFFFL;
+    private static final ElevatorState[] STATES = ElevatorState.values();
+
+    private final BuildingService buildingService;
+    // replaced by a larger table once an elevator or a floor does not fit, guarded by the index's monitor for writes
+    private volatile Table table;
+
+    /**
+     * Index the elevators of the given building & follow their movement from now on
+     *
+     * @param buildingService the building to index
+     */
+    public CandidateIndex(BuildingService buildingService) {
+        this.buildingService = buildingService;
+        this.table = new Table(Math.max(buildingService.getElevatorList().size(), Long.SIZE),
+                buildingService.getLimits().getMaxFloors());
+        // listen first, so that no move is missed between indexing an elevator & listening to it
+        buildingService.addListener(this);
+        for (ElevatorSnapshot snapshot : buildingService.getSnapshots()) {
+            if (snapshot != null) {
+                update(snapshot.getId(), snapshot.getElevatorState(), buildingService.getElevator(snapshot.getId()).getCurrentFloor());
+            }
+        }
+    }
+
+    public BuildingService getBuildingService() {
+        return buildingService;
+    }
+
+    /**
+     * Stop following the building
+     */
+    public void close() {
+        buildingService.removeListener(this);
+    }
+
+    @Override
+    public void onElevatorMoved(int elevatorId, int floor) {
+        update(elevatorId, null, floor);
+    }
+
+    @Override
+    public void onElevatorStateChanged(int elevatorId, ElevatorState elevatorState) {
+        update(elevatorId, elevatorState, buildingService.getElevator(elevatorId).getCurrentFloor());
+    }
+
+    /**
+     * Re-index an elevator under its new state or floor. The new bit is set before the old one is cleared, so a lookup
+     * never misses an elevator that is moving between two floors
+     *
+     * @param elevatorId the id of the elevator
+     * @param state      the new state, null if it is unchanged
+     * @param floor      the new floor
+     */
+    private void update(int elevatorId, ElevatorState state, int floor) {
+        Table current = this.table;
+        if (elevatorId >= current.elevators || floor >= current.floors) {
+            current = grow(elevatorId, floor);
+        }
+        while (true) {
+            long previous = current.slots.get(elevatorId);
+            long next = state != null ? slot(state, floor) : previous == EMPTY ? EMPTY : (previous & ~FLOOR_MASK) | floor;
+            if (next == previous) {
+                // a move of an elevator that has not announced its state yet, or no change at all
+                return;
+            }
+            if (current.slots.compareAndSet(elevatorId, previous, next)) {
+                current.set(next, elevatorId);
+                current.clear(previous, elevatorId);
+                if (current == this.table) {
+                    return;
+                }
+            }
+            // the slot changed in the meantime or the table was replaced, which may have copied the previous slot
+            current = this.table;
+        }
+    }
+
+    /**
+     * Replace the table with one that fits the given elevator & floor. A slot updated in the old table after it was
+     * copied is carried over, unless its elevator has already updated the new table, which
+     * {@link #update(int, ElevatorState, int)} retries on once it sees the table replaced
+     */
+    private synchronized Table grow(int elevatorId, int floor) {
+        Table previous = this.table;
+        if (elevatorId < previous.elevators && floor < previous.floors) {
+            return previous;
+        }
+        Table grown = new Table(Math.max(elevatorId + 1, previous.elevators * 2), Math.max(floor + 1, previous.floors));
+        long[] copied = new long[previous.elevators];
+        for (int id = 0; id < copied.length; id++) {
+            copied[id] = previous.slots.get(id);
+            grown.slots.set(id, copied[id]);
+            grown.set(copied[id], id);
+        }
+        this.table = grown;
+        for (int id = 0; id < copied.length; id++) {
+            long slot = previous.slots.get(id);
+            if (slot != copied[id] && grown.slots.compareAndSet(id, copied[id], slot)) {
+                grown.set(slot, id);
+                grown.clear(copied[id], id);
+            }
+        }
+        return grown;
+    }
+
+    /**
+     * Find the idle elevator nearest to the requested floor that takes call requests, has room on board & stops at both
+     * floors of the request
+     *
+     * @param request the call request
+     * @return the snapshot of the elevator, null if no idle elevator is available
+     */
+    public ElevatorSnapshot nearestIdle(ElevatorCallRequest request) {
+        Table current = this.table;
+        FloorStopSet occupied = current.occupied[bitmapOf(ElevatorState.STATIONARY)];
+        int floor = request.getRequestFloor();
+        int below = occupied.nextBelow(floor);
+        int above = occupied.nextAbove(floor + 1);
+        // the occupied floors are visited outwards from the requested floor, the one below first on a tie
+        while (below >= 0 || above >= 0) {
+            ElevatorSnapshot snapshot;
+            if (above < 0 || (below >= 0 && floor - below <= above - floor)) {
+                snapshot = find(current, ElevatorState.STATIONARY, below, request);
+                below = occupied.nextBelow(below - 1);
+            } else {
+                snapshot = find(current, ElevatorState.STATIONARY, above, request);
+                above = occupied.nextAbove(above + 1);
+            }
+            if (snapshot != null) {
+                return snapshot;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find the nearest elevator travelling in the direction of the call request that has yet to pass the requested floor
+     * & can take the request on board, i.e., the nearest one below the floor going up or above the floor going down
+     *
+     * @param request the call request
+     * @return the snapshot of the elevator, null if no approaching elevator is available
+     */
+    public ElevatorSnapshot nearestApproaching(ElevatorCallRequest request) {
+        Table current = this.table;
+        int floor = request.getRequestFloor();
+        ElevatorSnapshot snapshot = null;
+        if (request.getDirection().equals(ElevatorState.UP)) {
+            FloorStopSet occupied = current.occupied[bitmapOf(ElevatorState.UP)];
+            for (int next = occupied.nextBelow(floor); snapshot == null && next >= 0; next = occupied.nextBelow(next - 1)) {
+                snapshot = find(current, ElevatorState.UP, next, request);
+            }
+        } else {
+            FloorStopSet occupied = current.occupied[bitmapOf(ElevatorState.DOWN)];
+            for (int next = occupied.nextAbove(floor); snapshot == null && next >= 0; next = occupied.nextAbove(next + 1)) {
+                snapshot = find(current, ElevatorState.DOWN, next, request);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * @param snapshot the snapshot of an elevator
+     * @return the floor the elevator is at right now
+     */
+    public int floorOf(ElevatorSnapshot snapshot) {
+        return buildingService.getElevator(snapshot.getId()).getCurrentFloor();
+    }
+
+    /**
+     * @return the snapshot of an available elevator indexed under the given state at the given floor, null if there is
+     * none
+     */
+    private ElevatorSnapshot find(Table current, ElevatorState state, int floor, ElevatorCallRequest request) {
+        if (floor < 0 || floor >= current.floors) {
+            return null;
+        }
+        AtomicLongArray bitmap = current.bitmaps[bitmapOf(state)];
+        long slot = slot(state, floor);
+        int offset = floor * current.words;
+        for (int word = 0; word < current.words; word++) {
+            for (long bits = bitmap.get(offset + word); bits != 0; bits &= bits - 1) {
+                int elevatorId = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                if (current.slots.get(elevatorId) != slot) {
+                    continue;
+                }
+                ElevatorSnapshot snapshot = buildingService.getSnapshot(elevatorId);
+                if (snapshot != null && snapshot.isAvailable() && buildingService.getElevator(elevatorId).serves(request)) {
+                    return snapshot;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static long slot(ElevatorState state, int floor) {
+        // the state is stored off by 1, so that a slot is never EMPTY once the elevator has announced its state
+        return ((long) (state.ordinal() + 1) << 32) | (floor & FLOOR_MASK);
+    }
+
+    private static int bitmapOf(ElevatorState state) {
+        switch (state) {
+            case UP:
+                return 0;
+            case DOWN:
+                return 1;
+            default:
+                return 2;
+        }
+    }
+
+    /**
+     * The slots of the elevators, the bitmaps of the floors & the occupied floors of every state, sized for a fixed no.
+     * of elevators & floors
+     */
+    private static final class Table {
+        private final int elevators;
+        private final int floors;
+        // the no. of words of the bitmap of a single floor
+        private final int words;
+        private final AtomicLongArray slots;
+        // the elevators at every floor of the up, down & idle index, the words of a floor are consecutive
+        private final AtomicLongArray[] bitmaps = new AtomicLongArray[3];
+        // the floors of the up, down & idle index that may have elevators at them, a floor is only ever cleared once
+        // its bitmap is empty
+        private final FloorStopSet[] occupied = new FloorStopSet[3];
+
+        private Table(int elevators, int floors) {
+            this.words = (elevators + Long.SIZE - 1) / Long.SIZE;
+            this.elevators = words * Long.SIZE;
+            this.floors = floors;
+            this.slots = new AtomicLongArray(this.elevators);
+            for (int i = 0; i < bitmaps.length; i++) {
+                bitmaps[i] = new AtomicLongArray(floors * words);
+                occupied[i] = new FloorStopSet(floors);
+            }
+        }
+
+        private void set(long slot, int elevatorId) {
+            if (slot != EMPTY) {
+                AtomicLongArray bitmap = bitmap(slot);
+                int index = index(slot, elevatorId);
+                long bits;
+                do {
+                    bits = bitmap.get(index);
+                } while (!bitmap.compareAndSet(index, bits, bits | (1L << elevatorId)));
+                // marked after the bit is set, so that a lookup never skips a floor holding an elevator
+                occupied(slot).add(floor(slot));
+            }
+        }
+
+        /**
+         * Clear the bit of an elevator. A bit cleared while the slot of its elevator returned to it is set again, &
+         * a floor left without elevators is unmarked & marked again if an elevator arrived in the meantime, so that a
+         * concurrent update can neither lose the bit of an elevator nor hide the floor it is at
+         */
+        private void clear(long slot, int elevatorId) {
+            if (slot != EMPTY) {
+                AtomicLongArray bitmap = bitmap(slot);
+                int index = index(slot, elevatorId);
+                long bits;
+                do {
+                    bits = bitmap.get(index);
+                } while (!bitmap.compareAndSet(index, bits, bits & ~(1L << elevatorId)));
+                if (slots.get(elevatorId) == slot) {
+                    set(slot, elevatorId);
+                    return;
+                }
+                int floor = floor(slot);
+                if (isEmpty(bitmap, floor)) {
+                    occupied(slot).remove(floor);
+                    if (!isEmpty(bitmap, floor)) {
+                        occupied(slot).add(floor);
+                    }
+                }
+            }
+        }
+
+        private boolean isEmpty(AtomicLongArray bitmap, int floor) {
+            int offset = floor * words;
+            for (int word = 0; word < words; word++) {
+                if (bitmap.get(offset + word) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private FloorStopSet occupied(long slot) {
+            return occupied[bitmapOf(STATES[(int) (slot >>> 32) - 1])];
+        }
+
+        private static int floor(long slot) {
+            return (int) (slot & FLOOR_MASK);
+        }
+
+        private AtomicLongArray bitmap(long slot) {
+            return bitmaps[bitmapOf(STATES[(int) (slot >>> 32) - 1])];
+        }
+
+        private int index(long slot, int elevatorId) {
+            return floor(slot) * words + elevatorId / Long.SIZE;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.elevatorsimulation.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.model.ElevatorState;
+import org.example.elevatorsimulation.service.Elevator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.example.elevatorsimulation.util.Constants.*;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * A destination dispatch Scheduler implementation. Call requests are collected over a batch window, grouped by their
+ * requested floor & the zone of their target floor & every group is assigned to a single elevator in one go. Grouping
+ * passengers headed to the same zone cuts the no. of stops per trip, which matters most during the morning up-peak.
+ * Groups are never reassigned once scheduled, as passengers are told which elevator to board
+ */
+@Slf4j
+public class DestinationDispatchScheduler extends AbstractScheduler {
+    private final DispatchCost dispatchCost;
+    private final long batchWindow;
+    private final int zoneSize;
+
+    public DestinationDispatchScheduler() {
+        this(DEFAULT_BATCH_WINDOW, DEFAULT_DESTINATION_ZONE_SIZE);
+    }
+
+    public DestinationDispatchScheduler(long batchWindow, int zoneSize) {
+        this(new DispatchCost(), batchWindow, zoneSize);
+    }
+
+    public DestinationDispatchScheduler(DispatchCost dispatchCost, long batchWindow, int zoneSize) {
+        this.dispatchCost = dispatchCost;
+        this.batchWindow = batchWindow;
+        this.zoneSize = zoneSize;
+    }
+
+    @Override
+    public long getBatchWindow() {
+        return batchWindow;
+    }
+
+    @Override
+    public boolean schedule(ElevatorCallRequest elevatorRequest) {
+        return scheduleBatch(Collections.singletonList(elevatorRequest)).isEmpty();
+    }
+
+    /**
+     * Group the given call requests by requested floor & target zone & assign every group to the elevator with the
+     * least estimated time to serve it
+     *
+     * @param elevatorRequests the call requests collected over the batch window
+     * @return the call requests that could not be scheduled
+     */
+    @Override
+    public List<ElevatorCallRequest> scheduleBatch(List<ElevatorCallRequest> elevatorRequests) {
+        Map<Long, List<ElevatorCallRequest>> groups = new LinkedHashMap<>();
+        for (ElevatorCallRequest request : elevatorRequests) {
+            groups.computeIfAbsent(groupKey(request), key -> new ArrayList<>()).add(request);
+        }
+
+        List<ElevatorCallRequest> unscheduled = new ArrayList<>();
+        List<Elevator> elevatorList = getBuildingService().getElevatorList();
+        for (List<ElevatorCallRequest> group : groups.values()) {
+            Elevator elevator = findCheapestElevator(group, elevatorList);
+            if (elevator == null) {
+                unscheduled.addAll(group);
+                continue;
+            }
+            log.debug("Group of {} call requests from - {} scheduled to Elevator - {}", group.size(), group.get(0).getRequestFloor(), elevator.getId());
+            for (ElevatorCallRequest request : group) {
+                // the target zone of the group may span floors the elevator skips, those requests wait for the next batch
+                if (elevator.serves(request)) {
+                    elevator.assign(request);
+                } else {
+                    unscheduled.add(request);
+                }
+            }
+        }
+        return unscheduled;
+    }
+
+    /**
+     * Score an elevator by the estimated time to serve the first request of the group, plus the door dwell for every
+     * target floor of the group the elevator would not stop at anyway
+     *
+     * @param group        the call requests sharing a requested floor & target zone
+     * @param elevatorList the candidate elevators
+     * @return the cheapest elevator, null if there are no elevators
+     */
+    private Elevator findCheapestElevator(List<ElevatorCallRequest> group, List<Elevator> elevatorList) {
+        ElevatorCallRequest representative = group.get(0);
+        Elevator cheapest = null;
+        long cheapestCost = Long.MAX_VALUE;
+
+        for (Elevator elevator : elevatorList) {
+            long cost = dispatchCost.estimate(elevator, representative);
+            if (cost == DispatchCost.UNAVAILABLE) {
+                continue;
+            }
+            for (ElevatorCallRequest request : group) {
+                if (elevator.serves(request) && !elevator.getStops(request.getDirection()).contains(request.getTargetFloor())) {
+                    cost += DOOR_DWELL_TIME;
+                }
+            }
+            if (cost < cheapestCost) {
+                cheapest = elevator;
+                cheapestCost = cost;
+            }
+        }
+        return cheapest;
+    }
+
+    private long groupKey(ElevatorCallRequest request) {
+        int direction = request.getDirection().equals(ElevatorState.UP) ? 1 : 0;
+        return ((long) request.getRequestFloor() << 32) | ((long) (request.getTargetFloor() / zoneSize) << 1) | direction;
+    }
+}
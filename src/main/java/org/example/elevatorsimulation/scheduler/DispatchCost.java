@@ -0,0 +1,125 @@
+package org.example.elevatorsimulation.scheduler;
+
+import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.model.ElevatorSnapshot;
+import org.example.elevatorsimulation.model.ElevatorState;
+import org.example.elevatorsimulation.model.FloorStopSet;
+import org.example.elevatorsimulation.service.Elevator;
+
+import static org.example.elevatorsimulation.util.Constants.*;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Estimates the time in millis an elevator needs to serve a call request, i.e., the time to reach the requested floor
+ * along its remaining stops, the ride to the target floor, the door dwell at every stop on the way & a penalty for
+ * every passenger the elevator is already serving. The ride time & the penalties are weighted by {@link DispatchWeights}
+ */
+public class DispatchCost {
+    // the cost of an elevator that cannot serve a call request at all
+    public static final long UNAVAILABLE = Long.MAX_VALUE;
+
+    private final DispatchWeights weights;
+
+    public DispatchCost() {
+        this(new DispatchWeights());
+    }
+
+    public DispatchCost(DispatchWeights weights) {
+        this.weights = weights;
+    }
+
+    public DispatchWeights getWeights() {
+        return weights;
+    }
+
+    /**
+     * Estimate the time for the given elevator to serve the given call request
+     *
+     * @param elevator the candidate elevator
+     * @param request  the call request to serve
+     * @return the estimated time in millis, {@link #UNAVAILABLE} if the elevator is full, not in service or does not
+     * stop at both floors of the request
+     */
+    public long estimate(Elevator elevator, ElevatorCallRequest request) {
+        ElevatorSnapshot snapshot = elevator.getSnapshot();
+        if (!snapshot.isAvailable() || !elevator.serves(request)) {
+            return UNAVAILABLE;
+        }
+        int currentFloor = elevator.getCurrentFloor();
+        int requestFloor = request.getRequestFloor();
+        int targetFloor = request.getTargetFloor();
+        ElevatorState sweepDirection = snapshot.getElevatorState();
+        FloorStopSet upStops = elevator.getStops(ElevatorState.UP);
+        FloorStopSet downStops = elevator.getStops(ElevatorState.DOWN);
+
+        long waitFloors;
+        int waitStops;
+        // the floor where the elevator turns around after picking up the request, if it has to
+        int turningFloor = requestFloor;
+
+        if (!elevator.hasPath()) {
+            waitFloors = Math.abs(currentFloor - requestFloor);
+            waitStops = 0;
+        } else if (sweepDirection.equals(ElevatorState.UP) && requestFloor >= currentFloor) {
+            waitFloors = requestFloor - currentFloor;
+            waitStops = upStops.count(currentFloor, requestFloor - 1);
+            turningFloor = Math.max(upStops.last(), requestFloor);
+        } else if (sweepDirection.equals(ElevatorState.DOWN) && requestFloor <= currentFloor) {
+            waitFloors = currentFloor - requestFloor;
+            waitStops = downStops.count(requestFloor + 1, currentFloor);
+            int lowestStop = downStops.first();
+            turningFloor = lowestStop < 0 ? requestFloor : Math.min(lowestStop, requestFloor);
+        } else {
+            // the elevator has to finish its current sweep before it can come back for the request
+            int sweepEnd = currentFloor;
+            if (sweepDirection.equals(ElevatorState.UP)) {
+                sweepEnd = Math.max(upStops.last(), currentFloor);
+            } else if (sweepDirection.equals(ElevatorState.DOWN)) {
+                int lowestStop = downStops.first();
+                sweepEnd = lowestStop < 0 ? currentFloor : Math.min(lowestStop, currentFloor);
+            }
+            waitFloors = Math.abs(sweepEnd - currentFloor) + Math.abs(sweepEnd - requestFloor);
+            waitStops = upStops.size() + downStops.size();
+        }
+
+        // a request picked up against its direction rides to the end of the sweep before heading to its target
+        long rideFloors = Math.abs(turningFloor - requestFloor) + Math.abs(turningFloor - targetFloor);
+        FloorStopSet targetStops = elevator.getStops(request.getDirection());
+        int rideStops = targetStops.count(Math.min(requestFloor, targetFloor) + 1, Math.max(requestFloor, targetFloor) - 1);
+
+        int load = snapshot.getLoad() - (elevator.isPendingPickup(request) ? 1 : 0);
+
+        long travelTime = elevator.getTravelTime();
+        long waitTime = waitFloors * travelTime + waitStops * DOOR_DWELL_TIME;
+        long rideTime = rideFloors * travelTime + (rideStops + 1) * DOOR_DWELL_TIME;
+        double cost = waitTime + weights.getRideWeight() * rideTime + load * weights.getPassengerPenalty();
+        if (weights.getStopPenalty() > 0) {
+            cost += addedStops(elevator, request) * weights.getStopPenalty();
+        }
+        return Math.round(cost);
+    }
+
+    /**
+     * Count the runs serving the given call request would add to the elevator, i.e., a stop & the start after it at
+     * every floor of the request the elevator does not stop at yet & a start if the elevator is idle
+     *
+     * @param elevator the candidate elevator
+     * @param request  the call request to serve
+     * @return the no. of added starts & stops
+     */
+    public int addedStops(Elevator elevator, ElevatorCallRequest request) {
+        int stops = elevator.hasPath() ? 0 : 1;
+        if (!isStop(elevator, request.getRequestFloor())) {
+            stops++;
+        }
+        if (!isStop(elevator, request.getTargetFloor())) {
+            stops++;
+        }
+        return stops;
+    }
+
+    private static boolean isStop(Elevator elevator, int floor) {
+        return elevator.getStops(ElevatorState.UP).contains(floor) || elevator.getStops(ElevatorState.DOWN).contains(floor);
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.elevatorsimulation.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.exception.BadRequestException;
+import org.example.elevatorsimulation.exception.ElevatorSimulationException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static org.example.elevatorsimulation.util.Constants.PASSENGER_LOAD_PENALTY;
+import static org.example.elevatorsimulation.util.Constants.REASSIGNMENT_THRESHOLD;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * The weights of the terms of a {@link DispatchCost}, in millis of wait time, so that a scheduler can be tuned per
+ * building without code changes. The defaults score an elevator by the plain estimated time to serve a call request.
+ * Weights are stored as a properties file, e.g., the one written by the scheduler tuner
+ */
+@Slf4j
+public class DispatchWeights {
+    public static final String RIDE_WEIGHT = "dispatch.rideWeight";
+    public static final String PASSENGER_PENALTY = "dispatch.passengerPenalty";
+    public static final String STOP_PENALTY = "dispatch.stopPenalty";
+    public static final String REASSIGNMENT_THRESHOLD_KEY = "dispatch.reassignmentThreshold";
+
+    private final double rideWeight;
+    private final double passengerPenalty;
+    private final double stopPenalty;
+    private final long reassignmentThreshold;
+
+    public DispatchWeights() {
+        this(1, PASSENGER_LOAD_PENALTY, 0, REASSIGNMENT_THRESHOLD);
+    }
+
+    /**
+     * @param rideWeight            the weight of a milli of ride time relative to a milli of wait time
+     * @param passengerPenalty      the cost in millis of every passenger the elevator is already serving
+     * @param stopPenalty           the cost in millis of every start & stop the call request adds to the elevator
+     * @param reassignmentThreshold the min saving in millis to move a call request to another elevator
+     */
+    public DispatchWeights(double rideWeight, double passengerPenalty, double stopPenalty, long reassignmentThreshold) {
+        if (rideWeight < 0 || passengerPenalty < 0 || stopPenalty < 0 || reassignmentThreshold < 0) {
+            log.error("Dispatch weights must not be negative");
+            throw new BadRequestException("Dispatch weights must not be negative");
+        }
+        this.rideWeight = rideWeight;
+        this.passengerPenalty = passengerPenalty;
+        this.stopPenalty = stopPenalty;
+        this.reassignmentThreshold = reassignmentThreshold;
+    }
+
+    public double getRideWeight() {
+        return rideWeight;
+    }
+
+    public double getPassengerPenalty() {
+        return passengerPenalty;
+    }
+
+    public double getStopPenalty() {
+        return stopPenalty;
+    }
+
+    public long getReassignmentThreshold() {
+        return reassignmentThreshold;
+    }
+
+    /**
+     * Read the weights from properties, falling back to the default of every weight that is missing
+     *
+     * @param properties the properties holding the weights
+     * @return the weights
+     */
+    public static DispatchWeights fromProperties(Properties properties) {
+        DispatchWeights defaults = new DispatchWeights();
+        try {
+            return new DispatchWeights(
+                    Double.parseDouble(properties.getProperty(RIDE_WEIGHT, String.valueOf(defaults.rideWeight))),
+                    Double.parseDouble(properties.getProperty(PASSENGER_PENALTY, String.valueOf(defaults.passengerPenalty))),
+                    Double.parseDouble(properties.getProperty(STOP_PENALTY, String.valueOf(defaults.stopPenalty))),
+                    Long.parseLong(properties.getProperty(REASSIGNMENT_THRESHOLD_KEY, String.valueOf(defaults.reassignmentThreshold))));
+        } catch (NumberFormatException e) {
+            log.error("Invalid dispatch weights - {}", properties);
+            throw new BadRequestException("Invalid dispatch weights - " + properties);
+        }
+    }
+
+    public Properties toProperties() {
+        Properties properties = new Properties();
+        properties.setProperty(RIDE_WEIGHT, String.valueOf(rideWeight));
+        properties.setProperty(PASSENGER_PENALTY, String.valueOf(passengerPenalty));
+        properties.setProperty(STOP_PENALTY, String.valueOf(stopPenalty));
+        properties.setProperty(REASSIGNMENT_THRESHOLD_KEY, String.valueOf(reassignmentThreshold));
+        return properties;
+    }
+
+    /**
+     * @param path the properties file to read
+     * @return the weights in the file
+     */
+    public static DispatchWeights load(Path path) {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            log.error("There was a problem reading the dispatch weights from - {}", path);
+            throw new ElevatorSimulationException("There was a problem reading the dispatch weights from - " + path, e);
+        }
+        return fromProperties(properties);
+    }
+
+    /**
+     * @param path    the properties file to write
+     * @param comment the comment at the top of the file, e.g., how the weights were obtained
+     */
+    public void store(Path path, String comment) {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            toProperties().store(writer, comment);
+        } catch (IOException e) {
+            log.error("There was a problem writing the dispatch weights to - {}", path);
+            throw new ElevatorSimulationException("There was a problem writing the dispatch weights to - " + path, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("rideWeight=%.3f passengerPenalty=%.0f stopPenalty=%.0f reassignmentThreshold=%d",
+                rideWeight, passengerPenalty, stopPenalty, reassignmentThreshold);
+    }
+}
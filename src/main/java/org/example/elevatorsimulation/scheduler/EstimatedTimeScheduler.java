@@ -0,0 +1,144 @@
+package org.example.elevatorsimulation.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.service.Elevator;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.example.elevatorsimulation.util.Constants.ENERGY_SAVING_MAX_COST;
+import static org.example.elevatorsimulation.util.Constants.ENERGY_SAVING_WINDOW;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * A Scheduler implementation that scores every elevator by the estimated time to serve a call request & picks the
+ * cheapest one. Requests that have not been picked up yet are re-scored whenever an elevator changes its state &
+ * handed over to another elevator if it is cheaper by more than {@link DispatchWeights#getReassignmentThreshold()}.
+ * In the energy saving mode a request may wait up to a bounded time longer than on the fastest elevator, if another
+ * elevator serves it with fewer additional starts & stops, unless even the fastest elevator takes longer than
+ * {@link org.example.elevatorsimulation.util.Constants#ENERGY_SAVING_MAX_COST}
+ */
+@Slf4j
+public class EstimatedTimeScheduler extends AbstractScheduler {
+    private final DispatchCost dispatchCost;
+    private final long energySavingWindow;
+
+    // call requests waiting to be picked up, only accessed by the dispatching thread
+    private final Map<ElevatorCallRequest, Elevator> assignments = new LinkedHashMap<>();
+
+    public EstimatedTimeScheduler() {
+        this(new DispatchCost());
+    }
+
+    public EstimatedTimeScheduler(DispatchCost dispatchCost) {
+        this(dispatchCost, 0);
+    }
+
+    /**
+     * @param dispatchCost       the estimate of the time to serve a call request
+     * @param energySavingWindow the max time in millis a call request may take longer than on the fastest elevator to
+     *                           save starts & stops, 0 to always pick the fastest elevator
+     */
+    public EstimatedTimeScheduler(DispatchCost dispatchCost, long energySavingWindow) {
+        this.dispatchCost = dispatchCost;
+        this.energySavingWindow = energySavingWindow;
+    }
+
+    /**
+     * @return a scheduler trading up to {@link org.example.elevatorsimulation.util.Constants#ENERGY_SAVING_WINDOW} of
+     * wait time for fewer starts & stops
+     */
+    public static EstimatedTimeScheduler energySaving() {
+        return new EstimatedTimeScheduler(new DispatchCost(), ENERGY_SAVING_WINDOW);
+    }
+
+    /**
+     * Schedule the given call request to the elevator with the least estimated time to serve it
+     *
+     * @param elevatorRequest an instance of ElevatorRequest capturing a call request
+     * @return True, if the request was successfully scheduled. False, otherwise
+     */
+    @Override
+    public boolean schedule(ElevatorCallRequest elevatorRequest) {
+        Elevator elevator = findCheapestElevator(elevatorRequest, getBuildingService().getElevatorList());
+        if (elevator == null) {
+            return false;
+        }
+        log.debug("Call request from - {} to - {} scheduled to Elevator - {}", elevatorRequest.getRequestFloor(), elevatorRequest.getTargetFloor(), elevator.getId());
+        elevator.assign(elevatorRequest);
+        assignments.put(elevatorRequest, elevator);
+        return true;
+    }
+
+    /**
+     * Re-score the call requests that have not been picked up yet & move them to a cheaper elevator
+     */
+    @Override
+    public void rebalance() {
+        List<Elevator> elevatorList = getBuildingService().getElevatorList();
+        Iterator<Map.Entry<ElevatorCallRequest, Elevator>> iter = assignments.entrySet().iterator();
+
+        while (iter.hasNext()) {
+            Map.Entry<ElevatorCallRequest, Elevator> assignment = iter.next();
+            ElevatorCallRequest request = assignment.getKey();
+            Elevator current = assignment.getValue();
+
+            // the request has been picked up, it can no longer be reassigned
+            if (!current.isPendingPickup(request)) {
+                iter.remove();
+                continue;
+            }
+
+            Elevator cheapest = findCheapestElevator(request, elevatorList);
+            if (cheapest == null || cheapest == current) {
+                continue;
+            }
+            long currentCost = dispatchCost.estimate(current, request);
+            long cheapestCost = dispatchCost.estimate(cheapest, request);
+            if (cheapestCost + dispatchCost.getWeights().getReassignmentThreshold() < currentCost && current.unassign(request)) {
+                log.debug("Call request from - {} to - {} reassigned from Elevator - {} to Elevator - {}",
+                        request.getRequestFloor(), request.getTargetFloor(), current.getId(), cheapest.getId());
+                cheapest.assign(request);
+                assignment.setValue(cheapest);
+            }
+        }
+    }
+
+    private Elevator findCheapestElevator(ElevatorCallRequest request, List<Elevator> elevatorList) {
+        Elevator cheapest = null;
+        long cheapestCost = Long.MAX_VALUE;
+        long[] costs = new long[elevatorList.size()];
+        for (int i = 0; i < costs.length; i++) {
+            costs[i] = dispatchCost.estimate(elevatorList.get(i), request);
+            if (costs[i] < cheapestCost) {
+                cheapest = elevatorList.get(i);
+                cheapestCost = costs[i];
+            }
+        }
+        if (cheapest == null || energySavingWindow <= 0 || cheapestCost > ENERGY_SAVING_MAX_COST) {
+            // in a congested building every second of wait counts more than a start
+            return cheapest;
+        }
+
+        // among the elevators close enough to the fastest one, take the one adding the fewest starts & stops
+        Elevator chosen = cheapest;
+        int chosenStops = dispatchCost.addedStops(cheapest, request);
+        long chosenCost = cheapestCost;
+        for (int i = 0; i < costs.length && chosenStops > 0; i++) {
+            if (costs[i] == DispatchCost.UNAVAILABLE || costs[i] > cheapestCost + energySavingWindow) {
+                continue;
+            }
+            int stops = dispatchCost.addedStops(elevatorList.get(i), request);
+            if (stops < chosenStops || (stops == chosenStops && costs[i] < chosenCost)) {
+                chosen = elevatorList.get(i);
+                chosenStops = stops;
+                chosenCost = costs[i];
+            }
+        }
+        return chosen;
+    }
+}
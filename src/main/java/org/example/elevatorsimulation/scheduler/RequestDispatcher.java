@@ -0,0 +1,75 @@
+package org.example.elevatorsimulation.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.service.BuildingService;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Drains the call requests of a building into a scheduler. Requests that cannot be scheduled right away are parked &
+ * retried once an elevator changes its state, instead of blocking every request queued behind them
+ */
+@Slf4j
+public class RequestDispatcher {
+    private final Scheduler scheduler;
+    private final Deque<ElevatorCallRequest> parkedRequests = new ArrayDeque<>();
+
+    public RequestDispatcher(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Schedule the call requests waiting in the building queue & optionally retry the parked ones
+     *
+     * @param buildingService     the building to fetch the call requests from
+     * @param retryParkedRequests True, if an elevator has changed its state since the last dispatch
+     * @return the no. of call requests that were scheduled
+     */
+    public int dispatch(BuildingService buildingService, boolean retryParkedRequests) {
+        List<ElevatorCallRequest> batch = new ArrayList<>();
+
+        // retry the older parked requests first to keep the dispatch order fair
+        if (retryParkedRequests) {
+            scheduler.rebalance();
+            batch.addAll(parkedRequests);
+            parkedRequests.clear();
+        }
+
+        ElevatorCallRequest request;
+        while ((request = buildingService.poll()) != null) {
+            log.debug("scheduling the call request from floor - {} to floor - {}", request.getRequestFloor(), request.getTargetFloor());
+            batch.add(request);
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<ElevatorCallRequest> unscheduled = scheduler.scheduleBatch(batch);
+        for (ElevatorCallRequest parked : unscheduled) {
+            log.debug("parking the call request from floor - {} to floor - {} until an elevator is available", parked.getRequestFloor(), parked.getTargetFloor());
+            parkedRequests.offerLast(parked);
+        }
+        return batch.size() - unscheduled.size();
+    }
+
+    public boolean hasParkedRequests() {
+        return !parkedRequests.isEmpty();
+    }
+
+    /**
+     * @return a copy of the call requests waiting for an elevator to become available, oldest first
+     */
+    public List<ElevatorCallRequest> getParkedRequests() {
+        return new ArrayList<>(parkedRequests);
+    }
+
+    public int getParkedRequestCount() {
+        return parkedRequests.size();
+    }
+}
@@ -1,6 +1,11 @@
 package org.example.elevatorsimulation.scheduler;
 
 import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.service.BuildingService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Interface that captures the core functions of a Scheduler
@@ -9,7 +14,59 @@ public interface Scheduler {
 
     boolean schedule(ElevatorCallRequest elevatorRequest);
 
+    /**
+     * Schedule a batch of call requests collected over the batch window. Schedulers that handle every request on its own
+     * can rely on this default, which schedules them one by one
+     *
+     * @param elevatorRequests the call requests to schedule
+     * @return the call requests that could not be scheduled
+     */
+    default List<ElevatorCallRequest> scheduleBatch(List<ElevatorCallRequest> elevatorRequests) {
+        List<ElevatorCallRequest> unscheduled = new ArrayList<>();
+        for (ElevatorCallRequest elevatorRequest : elevatorRequests) {
+            if (!schedule(elevatorRequest)) {
+                unscheduled.add(elevatorRequest);
+            }
+        }
+        return unscheduled;
+    }
+
+    /**
+     * @return the time in millis to collect call requests for before scheduling them as a batch, 0 to schedule them as
+     * soon as they arrive
+     */
+    default long getBatchWindow() {
+        return 0;
+    }
+
+    /**
+     * Revisit the earlier assignments after an elevator has changed its state. Schedulers that never reassign a call
+     * request can rely on this no-op
+     */
+    default void rebalance() {
+    }
+
+    /**
+     * Bind this scheduler to the building whose elevators it dispatches, the default building unless set
+     *
+     * @param buildingService the building to schedule call requests for
+     */
+    void setBuildingService(BuildingService buildingService);
+
     void start();
 
     void stop();
+
+    /**
+     * Block until the thread of a stopped scheduler has finished. Schedulers without a thread of their own can rely on
+     * this default, which returns right away
+     *
+     * @param timeout the max time to wait
+     * @param unit    the unit of the timeout
+     * @return True, if the scheduler has terminated. False, if the timeout elapsed first
+     * @throws InterruptedException if the waiting thread was interrupted
+     */
+    default boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return true;
+    }
 }
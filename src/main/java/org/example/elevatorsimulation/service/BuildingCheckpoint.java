@@ -0,0 +1,336 @@
+package org.example.elevatorsimulation.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.exception.BadRequestException;
+import org.example.elevatorsimulation.exception.ElevatorSimulationException;
+import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.model.ElevatorHealth;
+import org.example.elevatorsimulation.model.ElevatorSpec;
+import org.example.elevatorsimulation.model.ElevatorState;
+import org.example.elevatorsimulation.model.FloorStopSet;
+import org.example.elevatorsimulation.util.SimulationLimits;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * The complete state of a building at a point in time, i.e., the spec, position, direction, health, stops & passengers
+ * of every elevator, the call requests waiting to be scheduled, the time on the clock & the seed for the random numbers of
+ * what comes next. The state is kept as a compact binary image, so a single checkpoint can be restored into any no. of
+ * independent buildings to fork what-if runs off a warmed up building. A building driven by a discrete event
+ * simulation is captured exactly, the elevators of a real-time building are captured one at a time while they run.
+ * The state held by a scheduler itself, e.g., the pending reassignments of the estimated time scheduler, is not part of
+ * a checkpoint
+ */
+@Slf4j
+public final class BuildingCheckpoint {
+    private static final int MAGIC = 0x45434B50;
+    private static final int VERSION = 4;
+
+    private final byte[] image;
+    private final long time;
+    private final long seed;
+    private final int floorCount;
+    private final int elevatorCount;
+
+    private BuildingCheckpoint(byte[] image) {
+        this.image = image;
+        try {
+            Header header = Header.read(new DataInputStream(new ByteArrayInputStream(image)));
+            if (header.magic != MAGIC || header.version != VERSION) {
+                log.error("The data is not a building checkpoint");
+                throw new BadRequestException("The data is not a building checkpoint");
+            }
+            this.time = header.time;
+            this.seed = header.seed;
+            this.floorCount = header.floorCount;
+            this.elevatorCount = header.elevatorCount;
+        } catch (IOException e) {
+            log.error("The building checkpoint is truncated");
+            throw new BadRequestException("The building checkpoint is truncated");
+        }
+    }
+
+    /**
+     * Capture the state of the given building at the current time of its clock
+     *
+     * @param buildingService the building to capture
+     * @param floorCount      the no. of floors of the simulated building
+     * @param seed            the seed to derive the random numbers of the forked runs from
+     * @return the checkpoint
+     */
+    public static BuildingCheckpoint capture(BuildingService buildingService, int floorCount, long seed) {
+        return capture(buildingService, floorCount, Collections.emptyList(), seed);
+    }
+
+    /**
+     * Capture the state of the given building at the current time of its clock
+     *
+     * @param buildingService the building to capture
+     * @param floorCount      the no. of floors of the simulated building
+     * @param unscheduled     call requests taken off the queue by a scheduler that could not place them yet, they are
+     *                        restored to the front of the queue
+     * @param seed            the seed to derive the random numbers of the forked runs from
+     * @return the checkpoint
+     */
+    public static BuildingCheckpoint capture(BuildingService buildingService, int floorCount,
+                                             Collection<ElevatorCallRequest> unscheduled, long seed) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            List<Elevator> elevatorList = buildingService.getElevatorList();
+            SimulationLimits limits = buildingService.getLimits();
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(buildingService.getClock().currentTimeMillis());
+            out.writeLong(seed);
+            out.writeInt(floorCount);
+            out.writeInt(elevatorList.size());
+            out.writeInt(limits.getMaxFloors());
+            out.writeInt(limits.getMaxElevators());
+            out.writeInt(limits.getMaxPendingRequests());
+
+            List<ElevatorCallRequest> queue = new ArrayList<>(unscheduled);
+            queue.addAll(buildingService.getPendingRequests());
+            writeRequests(out, queue);
+
+            for (Elevator elevator : elevatorList) {
+                // the monitor keeps the passengers & the stops of the elevator consistent with each other
+                synchronized (elevator) {
+                    writeSpec(out, elevator.getSpec());
+                    out.writeInt(elevator.getCurrentFloor());
+                    out.writeByte(elevator.getElevatorState().ordinal());
+                    out.writeByte(elevator.getHealth().ordinal());
+                    out.writeInt(elevator.getParkingFloor());
+                    out.writeLong(elevator.getResumeAt());
+                    writeStops(out, elevator.getStops(ElevatorState.UP));
+                    writeStops(out, elevator.getStops(ElevatorState.DOWN));
+                    writeRequests(out, elevator.getPendingPickups());
+                    writeRequests(out, elevator.getOnboardRequests());
+                }
+            }
+        } catch (IOException e) {
+            log.error("There was a problem capturing the state of the building");
+            throw new ElevatorSimulationException("There was a problem capturing the state of the building", e);
+        }
+        return new BuildingCheckpoint(bytes.toByteArray());
+    }
+
+    /**
+     * Create a new building in the state of this checkpoint. Its elevators are driven externally, e.g., by a discrete
+     * event simulation, & the clock is left to the driver
+     *
+     * @return the restored building
+     */
+    public BuildingService restore() {
+        BuildingService buildingService = new BuildingService();
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(image));
+            // the header has already been validated & read into the fields of this checkpoint
+            Header.read(in);
+            buildingService.setLimits(new SimulationLimits(in.readInt(), in.readInt(), in.readInt()));
+            List<ElevatorCallRequest> queue = readRequests(in);
+            for (ElevatorCallRequest request : queue) {
+                buildingService.handBack(request);
+            }
+            int inFlight = queue.size();
+
+            ElevatorState[] states = ElevatorState.values();
+            ElevatorHealth[] healths = ElevatorHealth.values();
+            for (int i = 0; i < elevatorCount; i++) {
+                buildingService.initializeElevators(Collections.singletonList(readSpec(in, floorCount)), floorCount,
+                        ElevatorExecutionMode.EXTERNAL);
+                Elevator elevator = buildingService.getElevator(i);
+                int floor = in.readInt();
+                ElevatorState state = states[in.readByte()];
+                ElevatorHealth health = healths[in.readByte()];
+                int parkingFloor = in.readInt();
+                long resumeAt = in.readLong();
+                readStops(in, elevator, ElevatorState.UP);
+                readStops(in, elevator, ElevatorState.DOWN);
+                List<ElevatorCallRequest> pending = readRequests(in);
+                List<ElevatorCallRequest> onboard = readRequests(in);
+                elevator.restore(floor, state, health, parkingFloor, resumeAt, pending, onboard);
+                inFlight += pending.size() + onboard.size();
+            }
+            buildingService.restoreInFlight(inFlight);
+        } catch (IOException | RuntimeException e) {
+            log.error("There was a problem restoring the state of the building");
+            throw new ElevatorSimulationException("There was a problem restoring the state of the building", e);
+        }
+        return buildingService;
+    }
+
+    /**
+     * @return the time on the clock of the building when it was captured
+     */
+    public long getTime() {
+        return time;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Derive the seed of a forked run, so that every fork sees a different but reproducible future
+     *
+     * @param fork the no. of the fork
+     * @return the seed of the fork
+     */
+    public long forkSeed(int fork) {
+        // the finalizer of SplitMix64 spreads consecutive forks over the whole range of seeds
+        long z = seed + (fork + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public int getFloorCount() {
+        return floorCount;
+    }
+
+    public int getElevatorCount() {
+        return elevatorCount;
+    }
+
+    /**
+     * @return the size of the binary image in bytes
+     */
+    public int size() {
+        return image.length;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(image);
+        out.flush();
+    }
+
+    public static BuildingCheckpoint readFrom(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        in.transferTo(bytes);
+        return new BuildingCheckpoint(bytes.toByteArray());
+    }
+
+    private static void writeSpec(DataOutput out, ElevatorSpec spec) throws IOException {
+        out.writeInt(spec.getCapacity());
+        out.writeLong(spec.getFloorTravelTime());
+        // -1 for an elevator serving every floor
+        long[] servedFloors = spec.servesEveryFloor() ? null : spec.getServedFloors().toLongArray();
+        out.writeInt(servedFloors == null ? -1 : servedFloors.length);
+        for (int i = 0; servedFloors != null && i < servedFloors.length; i++) {
+            out.writeLong(servedFloors[i]);
+        }
+    }
+
+    private static ElevatorSpec readSpec(DataInput in, int floorCount) throws IOException {
+        int capacity = in.readInt();
+        long floorTravelTime = in.readLong();
+        int words = in.readInt();
+        if (words < 0) {
+            return new ElevatorSpec(capacity, floorTravelTime);
+        }
+        // checked before allocating, a corrupt count would otherwise ask for gigabytes
+        if (words > floorCount / Long.SIZE + 1) {
+            log.error("The served floors of an elevator span {} words, more than a building of {} floors needs", words, floorCount);
+            throw new BadRequestException("The served floors of an elevator span " + words
+                    + " words, more than a building of " + floorCount + " floors needs");
+        }
+        long[] servedFloors = new long[words];
+        for (int i = 0; i < words; i++) {
+            servedFloors[i] = in.readLong();
+        }
+        return new ElevatorSpec(capacity, floorTravelTime, BitSet.valueOf(servedFloors));
+    }
+
+    private static void writeStops(DataOutput out, FloorStopSet stops) throws IOException {
+        // the stops are collected first, as the elevator of a real-time building may clear one in the meantime
+        List<Integer> floors = new ArrayList<>();
+        for (int floor = stops.nextAbove(0); floor >= 0; floor = stops.nextAbove(floor + 1)) {
+            floors.add(floor);
+        }
+        out.writeInt(floors.size());
+        for (int floor : floors) {
+            out.writeInt(floor);
+        }
+    }
+
+    private static void readStops(DataInput in, Elevator elevator, ElevatorState direction) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            elevator.addStop(direction, in.readInt());
+        }
+    }
+
+    private static void writeRequests(DataOutput out, List<ElevatorCallRequest> requests) throws IOException {
+        out.writeInt(requests.size());
+        for (ElevatorCallRequest request : requests) {
+            out.writeLong(request.getId());
+            out.writeInt(request.getRequestFloor());
+            out.writeInt(request.getTargetFloor());
+            out.writeLong(request.getSubmittedAt());
+            out.writeLong(request.getAssignedAt());
+            out.writeInt(request.getAssignedElevatorId());
+            out.writeLong(request.getPickedUpAt());
+        }
+    }
+
+    private static List<ElevatorCallRequest> readRequests(DataInput in) throws IOException {
+        int count = in.readInt();
+        // grown as the requests are read, so that a corrupt count fails on the end of the data instead of allocating
+        List<ElevatorCallRequest> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // restored under its id, so that the events of every fork can be correlated with the run it was forked off
+            ElevatorCallRequest request = new ElevatorCallRequest(in.readLong(), in.readInt(), in.readInt());
+            request.markSubmitted(in.readLong());
+            long assignedAt = in.readLong();
+            int elevatorId = in.readInt();
+            if (assignedAt != ElevatorCallRequest.NOT_YET) {
+                request.markAssigned(elevatorId, assignedAt);
+            }
+            long pickedUpAt = in.readLong();
+            if (pickedUpAt != ElevatorCallRequest.NOT_YET) {
+                request.markPickedUp(pickedUpAt);
+            }
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    /**
+     * The fixed fields at the start of the image, written by {@link #capture(BuildingService, int, Collection, long)} in
+     * this order
+     */
+    private static final class Header {
+        private int magic;
+        private int version;
+        private long time;
+        private long seed;
+        private int floorCount;
+        private int elevatorCount;
+
+        private static Header read(DataInput in) throws IOException {
+            Header header = new Header();
+            header.magic = in.readInt();
+            header.version = in.readInt();
+            header.time = in.readLong();
+            header.seed = in.readLong();
+            header.floorCount = in.readInt();
+            header.elevatorCount = in.readInt();
+            return header;
+        }
+    }
+}
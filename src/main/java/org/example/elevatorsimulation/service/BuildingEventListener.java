@@ -0,0 +1,86 @@
+package org.example.elevatorsimulation.service;
+
+import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.model.ElevatorHealth;
+import org.example.elevatorsimulation.model.ElevatorState;
+import org.example.elevatorsimulation.model.MotionPhase;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Interface to observe the lifecycle of call requests & the movement of elevators in a building. Callbacks run on the
+ * thread that caused the event, e.g., an elevator thread for every floor tick, so implementations have to be fast &
+ * must not block. Every callback defaults to a no-op
+ */
+public interface BuildingEventListener {
+
+    default void onRequestSubmitted(ElevatorCallRequest request) {
+    }
+
+    /**
+     * Invoked when a call request is turned away because too many call requests are waiting
+     *
+     * @param request the rejected call request
+     */
+    default void onRequestRejected(ElevatorCallRequest request) {
+    }
+
+    default void onRequestAssigned(ElevatorCallRequest request, int elevatorId) {
+    }
+
+    default void onPassengerPickedUp(ElevatorCallRequest request, int elevatorId) {
+    }
+
+    default void onPassengerDelivered(ElevatorCallRequest request, int elevatorId) {
+    }
+
+    /**
+     * Invoked when a passenger is evacuated from an elevator taken out of service, the call request is never delivered
+     *
+     * @param request    the call request of the passenger
+     * @param elevatorId the id of the elevator
+     */
+    default void onPassengerStranded(ElevatorCallRequest request, int elevatorId) {
+    }
+
+    /**
+     * Invoked whenever an elevator has travelled to a new floor
+     *
+     * @param elevatorId the id of the elevator
+     * @param floor      the floor the elevator has reached
+     */
+    default void onElevatorMoved(int elevatorId, int floor) {
+    }
+
+    /**
+     * Invoked whenever an elevator has stopped at a floor to serve it
+     *
+     * @param elevatorId the id of the elevator
+     * @param floor      the floor the elevator has stopped at
+     */
+    default void onElevatorStopped(int elevatorId, int floor) {
+    }
+
+    default void onElevatorStateChanged(int elevatorId, ElevatorState elevatorState) {
+    }
+
+    /**
+     * Invoked whenever an elevator enters another phase of its motion profile, e.g., starts to accelerate away from a
+     * stop or decelerates into the next one
+     *
+     * @param elevatorId  the id of the elevator
+     * @param motionPhase the new phase
+     */
+    default void onMotionPhaseChanged(int elevatorId, MotionPhase motionPhase) {
+    }
+
+    /**
+     * Invoked whenever an elevator changes its health, e.g., breaks down or is back in service. The call requests it
+     * has not picked up yet are handed back to the building right after, if it no longer takes call requests
+     *
+     * @param elevatorId the id of the elevator
+     * @param health     the new health
+     */
+    default void onElevatorHealthChanged(int elevatorId, ElevatorHealth health) {
+    }
+}
@@ -1,32 +1,73 @@
 package org.example.elevatorsimulation.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.exception.BadRequestException;
+import org.example.elevatorsimulation.exception.RequestRejectedException;
+import org.example.elevatorsimulation.model.CallRequestHandle;
 import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.model.ElevatorHealth;
+import org.example.elevatorsimulation.model.ElevatorSnapshot;
+import org.example.elevatorsimulation.model.ElevatorSpec;
+import org.example.elevatorsimulation.model.ElevatorState;
+import org.example.elevatorsimulation.model.MotionPhase;
+import org.example.elevatorsimulation.util.SimulationClock;
+import org.example.elevatorsimulation.util.SimulationLimits;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.example.elevatorsimulation.util.Constants.DEFAULT_ELEVATOR_CAPACITY;
 
 /**
  * @author Abhilash Sulibela
- * Class that represents the building which coordinates & maintains the state of all the elevators at any given time
+ * Class that represents the building which coordinates & maintains the state of all the elevators at any given time.
+ * Every instance is an independent building, so that many simulations can run side by side in a single JVM, while
+ * {@link #getInstance()} gives access to the default building used by the real-time simulator
  */
 @Slf4j
 public final class BuildingService {
 
-    private ConcurrentLinkedDeque<ElevatorCallRequest> requestQueue;
+    private BlockingQueue<ElevatorCallRequest> requestQueue;
     private List<Elevator> elevatorList;
+    private volatile SimulationLimits limits = SimulationLimits.fromSystemProperties();
+    private ElevatorExecutor elevatorExecutor;
+    private volatile SimulationClock clock = SimulationClock.SYSTEM;
+    private volatile int elevatorCapacity = DEFAULT_ELEVATOR_CAPACITY;
+
+    // an array rather than a list, so that notifying the listeners on every floor tick does not allocate an iterator
+    private volatile BuildingEventListener[] listeners = new BuildingEventListener[0];
+
+    // the latest snapshot published by every elevator, indexed by the elevator id
+    private volatile AtomicReferenceArray<ElevatorSnapshot> elevatorSnapshots = new AtomicReferenceArray<>(0);
+
+    // signalled whenever a call request is submitted or an elevator changes its state
+    private final Lock dispatchLock = new ReentrantLock();
+    private final Condition dispatchCondition = dispatchLock.newCondition();
+    private long elevatorStateVersion;
+
+    // the call requests submitted but not delivered yet, wherever they are, signalled on the monitor once it drops to 0
+    private final AtomicInteger inFlightRequests = new AtomicInteger();
+    private final Object deliveryMonitor = new Object();
     private static volatile BuildingService instance = null;
 
-    private BuildingService() {
-        if (instance != null) {
-            throw new IllegalStateException("Already instantiated, Please use getInstance()");
-        }
-        this.requestQueue = new ConcurrentLinkedDeque<>();
+    public BuildingService() {
+        this.requestQueue = new LinkedBlockingQueue<>();
         this.elevatorList = new CopyOnWriteArrayList<>();
     }
 
+    /**
+     * @return the default building of this JVM
+     */
     public static BuildingService getInstance() {
         if (instance == null) {
             synchronized (BuildingService.class) {
@@ -38,14 +79,106 @@ public final class BuildingService {
         return instance;
     }
 
+    public SimulationLimits getLimits() {
+        return limits;
+    }
+
+    public void setLimits(SimulationLimits limits) {
+        this.limits = limits;
+    }
+
+    public int getElevatorCapacity() {
+        return elevatorCapacity;
+    }
+
+    /**
+     * Set the max no. of passengers of the elevators initialized from now on
+     *
+     * @param elevatorCapacity the capacity of every elevator
+     */
+    public void setElevatorCapacity(int elevatorCapacity) {
+        if (elevatorCapacity <= 0) {
+            log.error("The capacity of an elevator must be positive");
+            throw new BadRequestException("The capacity of an elevator must be positive");
+        }
+        this.elevatorCapacity = elevatorCapacity;
+    }
+
+    public SimulationClock getClock() {
+        return clock;
+    }
+
+    public void setClock(SimulationClock clock) {
+        this.clock = clock;
+    }
+
+    public synchronized void addListener(BuildingEventListener listener) {
+        BuildingEventListener[] updated = Arrays.copyOf(this.listeners, this.listeners.length + 1);
+        updated[updated.length - 1] = listener;
+        this.listeners = updated;
+    }
+
+    public synchronized void removeListener(BuildingEventListener listener) {
+        this.listeners = Arrays.stream(this.listeners)
+                .filter(l -> l != listener)
+                .toArray(BuildingEventListener[]::new);
+    }
+
     public void initializeElevators(int noOfElevators) {
-        log.debug("Initializing {} elevators", noOfElevators);
-        for (int i = 0; i < noOfElevators; i++) {
-            Elevator elevator = new Elevator(i, this);
-            Thread t = new Thread(elevator);
-            t.start();
+        initializeElevators(noOfElevators, ElevatorExecutionMode.THREAD_PER_ELEVATOR);
+    }
+
+    /**
+     * Create the given number of elevators serving every floor up to the max no. of floors & start running them
+     *
+     * @param noOfElevators no. of elevators to create
+     * @param executionMode how to run the elevators, EXTERNAL when a driver such as a discrete event simulation
+     *                      advances them
+     */
+    public void initializeElevators(int noOfElevators, ElevatorExecutionMode executionMode) {
+        initializeElevators(ElevatorSpec.uniformFleet(noOfElevators, this.elevatorCapacity), this.limits.getMaxFloors(),
+                executionMode);
+    }
+
+    /**
+     * Create an elevator per spec & start running them
+     *
+     * @param specs         the capacity, speed & served floors of every elevator to create
+     * @param floorCount    no. of floors in the building, the per elevator structures are sized to it
+     * @param executionMode how to run the elevators, EXTERNAL when a driver such as a discrete event simulation
+     *                      advances them
+     */
+    public synchronized void initializeElevators(List<ElevatorSpec> specs, int floorCount, ElevatorExecutionMode executionMode) {
+        log.debug("Initializing {} elevators", specs.size());
+        int firstId = this.elevatorList.size();
+        growSnapshots(firstId + specs.size());
+
+        List<Elevator> elevators = new ArrayList<>(specs.size());
+        for (int i = 0; i < specs.size(); i++) {
+            elevators.add(new Elevator(firstId + i, this, specs.get(i), floorCount));
+        }
+        this.elevatorList.addAll(elevators);
+        for (Elevator elevator : elevators) {
+            elevator.announce();
+        }
+
+        if (!executionMode.equals(ElevatorExecutionMode.EXTERNAL)) {
+            if (this.elevatorExecutor == null) {
+                this.elevatorExecutor = new ElevatorExecutor(executionMode);
+            } else if (!this.elevatorExecutor.getExecutionMode().equals(executionMode)) {
+                throw new IllegalStateException("Elevators are already running in the " + this.elevatorExecutor.getExecutionMode() + " mode");
+            }
+            this.elevatorExecutor.start(elevators);
+        }
+    }
 
-            this.elevatorList.add(elevator);
+    /**
+     * Stop running all the elevators of the building
+     */
+    public synchronized void shutdownElevators() {
+        if (this.elevatorExecutor != null) {
+            this.elevatorExecutor.stop();
+            this.elevatorExecutor = null;
         }
     }
 
@@ -53,17 +186,386 @@ public final class BuildingService {
         return elevatorList;
     }
 
-    public Optional<ElevatorCallRequest> fetch() {
-        return Optional.ofNullable(this.requestQueue.peekFirst());
+    public Elevator getElevator(int id) {
+        return elevatorList.get(id);
     }
 
-    public void removeRequest() {
-        if (!this.requestQueue.isEmpty()) {
-            this.requestQueue.pollFirst();
+    /**
+     * Publish the latest state of an elevator, replacing its previous snapshot
+     *
+     * @param elevatorSnapshot the snapshot to publish
+     */
+    public void publish(ElevatorSnapshot elevatorSnapshot) {
+        AtomicReferenceArray<ElevatorSnapshot> snapshots = this.elevatorSnapshots;
+        snapshots.set(elevatorSnapshot.getId(), elevatorSnapshot);
+        // the array was replaced while publishing, so the snapshot may have missed the copy to the new one
+        while (snapshots != this.elevatorSnapshots) {
+            snapshots = this.elevatorSnapshots;
+            snapshots.set(elevatorSnapshot.getId(), elevatorSnapshot);
         }
     }
 
+    public ElevatorSnapshot getSnapshot(int id) {
+        return this.elevatorSnapshots.get(id);
+    }
+
+    /**
+     * Read the latest snapshot of every elevator without taking any lock
+     *
+     * @return the snapshots indexed by the elevator id
+     */
+    public ElevatorSnapshot[] getSnapshots() {
+        AtomicReferenceArray<ElevatorSnapshot> snapshots = this.elevatorSnapshots;
+        ElevatorSnapshot[] result = new ElevatorSnapshot[snapshots.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = snapshots.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Replace the snapshots with a larger array without locking out the elevators publishing in the meantime. A snapshot
+     * published to the old array after it was copied is carried over, unless its elevator has already published a newer
+     * one to the new array, which {@link #publish(ElevatorSnapshot)} retries on once it sees the array replaced
+     */
+    private void growSnapshots(int size) {
+        AtomicReferenceArray<ElevatorSnapshot> previous = this.elevatorSnapshots;
+        AtomicReferenceArray<ElevatorSnapshot> snapshots = new AtomicReferenceArray<>(size);
+        ElevatorSnapshot[] copied = new ElevatorSnapshot[previous.length()];
+        for (int i = 0; i < copied.length; i++) {
+            copied[i] = previous.get(i);
+            snapshots.set(i, copied[i]);
+        }
+        this.elevatorSnapshots = snapshots;
+        for (int i = 0; i < copied.length; i++) {
+            snapshots.compareAndSet(i, copied[i], previous.get(i));
+        }
+    }
+
+    /**
+     * Remove & return the call request at the head of the queue, if it exists
+     *
+     * @return the oldest pending call request, null if the queue is empty
+     */
+    public ElevatorCallRequest poll() {
+        return this.requestQueue.poll();
+    }
+
+    /**
+     * @return a copy of the call requests waiting in the queue, oldest first
+     */
+    List<ElevatorCallRequest> getPendingRequests() {
+        return new ArrayList<>(this.requestQueue);
+    }
+
+    public boolean hasPendingRequests() {
+        return !this.requestQueue.isEmpty();
+    }
+
+    /**
+     * @return the no. of call requests waiting in the queue to be scheduled
+     */
+    public int getPendingRequestCount() {
+        return this.requestQueue.size();
+    }
+
+    /**
+     * Submit a call request to be scheduled. A call request no elevator of the building stops at both floors of is
+     * rejected, as it could never be delivered
+     *
+     * @param elevatorCallRequest the call request to submit
+     */
     public void submit(ElevatorCallRequest elevatorCallRequest) {
-        this.requestQueue.offerLast(elevatorCallRequest);
+        if (!isServed(elevatorCallRequest)) {
+            log.debug("Rejecting the call request from floor - {} to floor - {} as no elevator serves both floors",
+                    elevatorCallRequest.getRequestFloor(), elevatorCallRequest.getTargetFloor());
+            reject(elevatorCallRequest, "No elevator serves both floor - " + elevatorCallRequest.getRequestFloor()
+                    + " & floor - " + elevatorCallRequest.getTargetFloor());
+            return;
+        }
+        elevatorCallRequest.markSubmitted(this.clock.currentTimeMillis());
+        this.inFlightRequests.incrementAndGet();
+        this.requestQueue.offer(elevatorCallRequest);
+        for (BuildingEventListener listener : this.listeners) {
+            try {
+                listener.onRequestSubmitted(elevatorCallRequest);
+            } catch (RuntimeException e) {
+                listenerFailed(listener, e);
+            }
+        }
+        signalDispatch(false);
+    }
+
+    /**
+     * Submit a call request without blocking & return a handle that reports its assignment, pickup & arrival. Once
+     * {@link SimulationLimits#getMaxPendingRequests()} call requests are in flight, new ones are rejected right away, so
+     * that an overloaded building pushes back on its callers instead of buffering without bound. The bound counts every
+     * call request that has not been delivered yet, as the dispatcher drains the queue right away & parks the requests
+     * it cannot place or hands them to the elevators, where they would escape a bound on the queue alone
+     *
+     * @param elevatorCallRequest the call request to submit
+     * @return the handle of the call request, failed with a {@link RequestRejectedException} if too many are in flight
+     */
+    public CallRequestHandle submitAsync(ElevatorCallRequest elevatorCallRequest) {
+        CallRequestHandle handle = elevatorCallRequest.getHandle();
+        // the count is read without locking, so concurrent submitters may overshoot the bound by a few
+        int inFlight = this.inFlightRequests.get();
+        if (inFlight >= this.limits.getMaxPendingRequests()) {
+            log.debug("Rejecting the call request from floor - {} as {} call requests are already in flight",
+                    elevatorCallRequest.getRequestFloor(), inFlight);
+            reject(elevatorCallRequest, "Too many call requests are in flight");
+            return handle;
+        }
+        submit(elevatorCallRequest);
+        return handle;
+    }
+
+    private void reject(ElevatorCallRequest elevatorCallRequest, String reason) {
+        elevatorCallRequest.markRejected(new RequestRejectedException(reason));
+        for (BuildingEventListener listener : this.listeners) {
+            try {
+                listener.onRequestRejected(elevatorCallRequest);
+            } catch (RuntimeException e) {
+                listenerFailed(listener, e);
+            }
+        }
+    }
+
+    /**
+     * @param elevatorCallRequest a call request
+     * @return True, if an elevator of the building stops at both floors of the call request or the building has no
+     * elevators yet. False, otherwise
+     */
+    public boolean isServed(ElevatorCallRequest elevatorCallRequest) {
+        List<Elevator> elevators = this.elevatorList;
+        // indexed rather than iterated, so that submitting a call request does not allocate
+        for (int i = 0; i < elevators.size(); i++) {
+            if (elevators.get(i).serves(elevatorCallRequest)) {
+                return true;
+            }
+        }
+        return elevators.isEmpty();
+    }
+
+    /**
+     * Put a call request an elevator could not serve back in the queue, so that it is scheduled again. Unlike
+     * {@link #submit(ElevatorCallRequest)} the request keeps its original submission time
+     *
+     * @param elevatorCallRequest the call request to schedule again
+     */
+    void handBack(ElevatorCallRequest elevatorCallRequest) {
+        this.requestQueue.offer(elevatorCallRequest);
+        signalDispatch(false);
+    }
+
+    /**
+     * @return the no. of call requests submitted but not delivered yet
+     */
+    public int getInFlightRequestCount() {
+        return this.inFlightRequests.get();
+    }
+
+    /**
+     * Block until every call request submitted so far has been delivered, e.g., to drain the building before its
+     * elevators are shut down
+     *
+     * @param timeout the max time to wait
+     * @param unit    the unit of the timeout
+     * @return True, if no call request is in flight. False, if the timeout elapsed first
+     * @throws InterruptedException if the waiting thread was interrupted
+     */
+    public boolean awaitAllDelivered(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (this.deliveryMonitor) {
+            while (this.inFlightRequests.get() > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this.deliveryMonitor, remaining);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Count the call requests of a restored checkpoint as in flight
+     *
+     * @param count the no. of restored call requests that are not delivered yet
+     */
+    void restoreInFlight(int count) {
+        this.inFlightRequests.addAndGet(count);
+    }
+
+    /**
+     * Notify the schedulers that an elevator has changed its state, so that call requests which could not be
+     * scheduled earlier are retried
+     */
+    public void elevatorStateChanged() {
+        signalDispatch(true);
+    }
+
+    public long getElevatorStateVersion() {
+        dispatchLock.lock();
+        try {
+            return elevatorStateVersion;
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    /**
+     * Block until a call request is waiting in the queue or an elevator has changed its state since the given version
+     *
+     * @param observedVersion the elevator state version the caller has last acted upon
+     * @return the current elevator state version
+     * @throws InterruptedException if the waiting thread was interrupted
+     */
+    public long awaitDispatchSignal(long observedVersion) throws InterruptedException {
+        dispatchLock.lock();
+        try {
+            while (this.requestQueue.isEmpty() && this.elevatorStateVersion == observedVersion) {
+                dispatchCondition.await();
+            }
+            return this.elevatorStateVersion;
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    private void signalDispatch(boolean elevatorStateChanged) {
+        dispatchLock.lock();
+        try {
+            if (elevatorStateChanged) {
+                this.elevatorStateVersion++;
+            }
+            dispatchCondition.signalAll();
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    void fireRequestAssigned(ElevatorCallRequest request, int elevatorId) {
+        for (BuildingEventListener listener : this.listeners) {
+            try {
+                listener.onRequestAssigned(request, elevatorId);
+            } catch (RuntimeException e) {
+                listenerFailed(listener, e);
+            }
+        }
+    }
+
+    void firePassengerPickedUp(ElevatorCallRequest request, int elevatorId) {
+        for (BuildingEventListener listener : this.listeners) {
+            try {
+                listener.onPassengerPickedUp(request, elevatorId);
+            } catch (RuntimeException e) {
+                listenerFailed(listener, e);
+            }
+        }
+    }
+
+    void firePassengerDelivered(ElevatorCallRequest request, int elevatorId) {
+        try {
+            for (BuildingEventListener listener : this.listeners) {
+                try {
+                    listener.onPassengerDelivered(request, elevatorId);
+                } catch (RuntimeException e) {
+                    listenerFailed(listener, e);
+                }
+            }
+        } finally {
+            // counted down only after the listeners, so that the next leg of a transfer is in flight before this one is not
+            countOutOfFlight();
+        }
+    }
+
+    /**
+     * Give up on a passenger evacuated from an elevator taken out of service, so that draining the building does not
+     * wait for a delivery that never comes
+     *
+     * @param request    the call request of the passenger
+     * @param elevatorId the id of the elevator
+     */
+    void firePassengerStranded(ElevatorCallRequest request, int elevatorId) {
+        try {
+            request.markRejected(new RequestRejectedException("Elevator ID - " + elevatorId
+                    + " went out of service with the passenger on board"));
+            for (BuildingEventListener listener : this.listeners) {
+                try {
+                    listener.onPassengerStranded(request, elevatorId);
+                } catch (RuntimeException e) {
+                    listenerFailed(listener, e);
+                }
+            }
+        } finally {
+            countOutOfFlight();
+        }
+    }
+
+    /**
+     * A listener that throws is logged & skipped, so that it can neither keep the other listeners from the event nor
+     * take down the elevator or scheduler thread that fired it
+     */
+    private static void listenerFailed(BuildingEventListener listener, RuntimeException e) {
+        log.error("The listener - {} failed to handle an event of the building", listener.getClass().getSimpleName(), e);
+    }
+
+    private void countOutOfFlight() {
+        if (this.inFlightRequests.decrementAndGet() == 0) {
+            synchronized (this.deliveryMonitor) {
+                this.deliveryMonitor.notifyAll();
+            }
+        }
+    }
+
+    void fireElevatorMoved(int elevatorId, int floor) {
+        for (BuildingEventListener listener : this.listeners) {
+            try {
+                listener.onElevatorMoved(elevatorId, floor);
+            } catch (RuntimeException e) {
+                listenerFailed(listener, e);
+            }
+        }
+    }
+
+    void fireElevatorStopped(int elevatorId, int floor) {
+        for (BuildingEventListener listener : this.listeners) {
+            try {
+                listener.onElevatorStopped(elevatorId, floor);
+            } catch (RuntimeException e) {
+                listenerFailed(listener, e);
+            }
+        }
+    }
+
+    void fireElevatorStateChanged(int elevatorId, ElevatorState elevatorState) {
+        for (BuildingEventListener listener : this.listeners) {
+            try {
+                listener.onElevatorStateChanged(elevatorId, elevatorState);
+            } catch (RuntimeException e) {
+                listenerFailed(listener, e);
+            }
+        }
+    }
+
+    void fireMotionPhaseChanged(int elevatorId, MotionPhase motionPhase) {
+        for (BuildingEventListener listener : this.listeners) {
+            try {
+                listener.onMotionPhaseChanged(elevatorId, motionPhase);
+            } catch (RuntimeException e) {
+                listenerFailed(listener, e);
+            }
+        }
+    }
+
+    void fireElevatorHealthChanged(int elevatorId, ElevatorHealth health) {
+        for (BuildingEventListener listener : this.listeners) {
+            try {
+                listener.onElevatorHealthChanged(elevatorId, health);
+            } catch (RuntimeException e) {
+                listenerFailed(listener, e);
+            }
+        }
     }
 }
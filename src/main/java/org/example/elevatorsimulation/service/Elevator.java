@@ -1,44 +1,163 @@
 package org.example.elevatorsimulation.service;
 
 import lombok.extern.slf4j.Slf4j;
-import org.example.elevatorsimulation.exception.ElevatorSimulationException;
+import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.model.ElevatorHealth;
+import org.example.elevatorsimulation.model.ElevatorSnapshot;
+import org.example.elevatorsimulation.model.ElevatorSpec;
 import org.example.elevatorsimulation.model.ElevatorState;
+import org.example.elevatorsimulation.model.FloorStopSet;
+import org.example.elevatorsimulation.model.MotionPhase;
 
-import java.util.Iterator;
-import java.util.NavigableSet;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.example.elevatorsimulation.util.Constants.*;
 
 /**
  * @author Abhilash Sulibela
  * <p>
- * Class that encapsulates an Elevator within a building
+ * Class that encapsulates an Elevator within a building. Every call request is a passenger, at most capacity of them
+ * can be on board at a time & the doors stay open longer the more passengers board or alight at a stop. Its capacity,
+ * speed & the floors it serves come from its {@link ElevatorSpec}
  */
 @Slf4j
 public class Elevator implements Runnable {
-    private ConcurrentMap<ElevatorState, NavigableSet<Integer>> pathMap;
+    private final FloorStopSet upStops;
+    private final FloorStopSet downStops;
     private int id;
 
 
-    private ElevatorState elevatorState;
+    private volatile ElevatorState elevatorState;
+    private volatile MotionPhase motionPhase = MotionPhase.IDLE;
+    private volatile ElevatorHealth health = ElevatorHealth.IN_SERVICE;
     private BuildingService buildingService;
-    private Integer currentFloor;
-    private NavigableSet<Integer> pathCheckpoints;
+    private volatile int currentFloor;
+    private volatile int load;
+    private final int capacity;
+    private final ElevatorSpec spec;
+    private int publishedOnboard;
+    // the floor the elevator is sent to while idle, -1 if it is not parking, guarded by the elevator's monitor
+    private int parkingFloor = -1;
+
+    // the door dwell of the last step, only accessed by the thread stepping the elevator
+    private long dwellTime;
+    // the time on the clock of the building the elevator leaves its last stop
+    private volatile long resumeAt;
+
+    // call requests waiting to be picked up & call requests on board, both guarded by the elevator's monitor
+    private final List<ElevatorCallRequest> pendingPickups = new ArrayList<>();
+    private final List<ElevatorCallRequest> onboardRequests = new ArrayList<>();
+    // the call requests served at the last stop, told to the listeners after releasing the monitor, only accessed by the
+    // thread stepping the elevator & reused, so that a stop does not allocate
+    private final List<ElevatorCallRequest> deliveredAtStop = new ArrayList<>();
+    private final List<ElevatorCallRequest> pickedUpAtStop = new ArrayList<>();
+    private final List<ElevatorCallRequest> handedBackAtStop = new ArrayList<>();
+    // whether the last stop made room on board of a full elevator, only accessed by the thread stepping the elevator
+    private boolean capacityFreed;
 
     public Elevator(int id, BuildingService buildingService) {
+        this(id, buildingService, buildingService.getElevatorCapacity());
+    }
+
+    /**
+     * @param id              the id of the elevator
+     * @param buildingService the building the elevator serves
+     * @param capacity        the max no. of passengers on board
+     */
+    public Elevator(int id, BuildingService buildingService, int capacity) {
+        this(id, buildingService, new ElevatorSpec(capacity, FLOOR_TRAVEL_TIME), buildingService.getLimits().getMaxFloors());
+    }
+
+    /**
+     * @param id              the id of the elevator
+     * @param buildingService the building the elevator serves
+     * @param spec            the capacity, speed & served floors of the elevator
+     * @param floorCount      no. of floors in the building, the stop sets hold exactly as many floors
+     */
+    public Elevator(int id, BuildingService buildingService, ElevatorSpec spec, int floorCount) {
+        spec.validate(floorCount);
         this.id = id;
         this.buildingService = buildingService;
-        this.pathMap = new ConcurrentHashMap<>();
-        this.setCurrentFloor(0);
-        this.setElevatorState(ElevatorState.STATIONARY);
+        this.spec = spec;
+        this.capacity = spec.getCapacity();
+        this.upStops = new FloorStopSet(floorCount);
+        this.downStops = new FloorStopSet(floorCount);
+        this.setCurrentFloor(spec.getLowestServedFloor());
+        // announced by the building once it lists the elevator, as listeners look the elevator up by its id
+        this.elevatorState = ElevatorState.STATIONARY;
+    }
+
+    /**
+     * Publish the first snapshot of the elevator & announce its state to the listeners of the building
+     */
+    void announce() {
+        publishSnapshot();
+        this.buildingService.fireElevatorStateChanged(this.id, this.elevatorState);
+        this.buildingService.elevatorStateChanged();
     }
 
     public int getId() {
         return id;
     }
 
-    public ConcurrentMap<ElevatorState, NavigableSet<Integer>> getPathMap() {
-        return pathMap;
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public ElevatorSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * @param request a call request
+     * @return True, if the elevator stops at both the requested & the target floor. False, otherwise
+     */
+    public boolean serves(ElevatorCallRequest request) {
+        return spec.serves(request.getRequestFloor()) && spec.serves(request.getTargetFloor());
+    }
+
+    /**
+     * @return the time in millis the doors stayed open at the stop made by the last step, 0 if the last step did not
+     * stop at a floor
+     */
+    public long getDwellTime() {
+        return dwellTime;
+    }
+
+    /**
+     * @return the time on the clock of the building the elevator is due to move on from its last stop, i.e., once
+     * its doors have closed & it has travelled on for a floor
+     */
+    public long getResumeAt() {
+        return resumeAt;
+    }
+
+    /**
+     * @return True, if the time on the clock of the building has reached {@link #getResumeAt()}. False, otherwise
+     */
+    boolean isDue() {
+        return this.buildingService.getClock().currentTimeMillis() >= this.resumeAt;
+    }
+
+    /**
+     * Return the stops to be served while travelling in the given direction
+     *
+     * @param direction either UP or DOWN
+     * @return the stop set for the direction
+     */
+    public FloorStopSet getStops(ElevatorState direction) {
+        return direction.equals(ElevatorState.UP) ? upStops : downStops;
+    }
+
+    /**
+     * Add a stop to be served while travelling in the given direction
+     *
+     * @param direction either UP or DOWN
+     * @param floor     the floor to stop at
+     */
+    public void addStop(ElevatorState direction, int floor) {
+        getStops(direction).add(floor);
     }
 
     public ElevatorState getElevatorState() {
@@ -46,100 +165,562 @@ public class Elevator implements Runnable {
     }
 
     public void setElevatorState(ElevatorState elevatorState) {
+        ElevatorState previousState = this.elevatorState;
         this.elevatorState = elevatorState;
+        if (previousState != elevatorState) {
+            publishSnapshot();
+            this.buildingService.fireElevatorStateChanged(this.id, elevatorState);
+            this.buildingService.elevatorStateChanged();
+        }
     }
 
     public int getCurrentFloor() {
         return currentFloor;
     }
 
+    public ElevatorHealth getHealth() {
+        return health;
+    }
+
+    /**
+     * Change the health of the elevator. An elevator that no longer takes call requests hands the ones it has not
+     * picked up yet back to the building, so that the scheduler reassigns them to the rest of the fleet. Its passengers
+     * ride on to their target floors during maintenance, but are evacuated once the elevator is out of service & their
+     * call requests count as stranded. The elevator is changed under its monitor, but the listeners are told & the
+     * call requests handed back after releasing it, as a listener may lock other elevators
+     *
+     * @param health the new health
+     */
+    public void setHealth(ElevatorHealth health) {
+        List<ElevatorCallRequest> handedBack = new ArrayList<>();
+        List<ElevatorCallRequest> stranded = new ArrayList<>();
+        synchronized (this) {
+            if (this.health == health) {
+                return;
+            }
+            log.info("Elevator ID - {} | health changed from {} to {}", this.id, this.health, health);
+            this.health = health;
+            if (!health.isDispatchable()) {
+                cancelParking();
+                handedBack.addAll(this.pendingPickups);
+                this.pendingPickups.clear();
+                if (health == ElevatorHealth.OUT_OF_SERVICE) {
+                    stranded.addAll(this.onboardRequests);
+                    this.onboardRequests.clear();
+                }
+                for (ElevatorCallRequest request : handedBack) {
+                    removeStopIfUnused(request.getRequestFloor());
+                }
+                for (ElevatorCallRequest request : stranded) {
+                    removeStopIfUnused(request.getTargetFloor());
+                }
+                updateLoad();
+            }
+            publishSnapshot();
+        }
+        this.buildingService.fireElevatorHealthChanged(this.id, health);
+        for (ElevatorCallRequest request : handedBack) {
+            this.buildingService.handBack(request);
+        }
+        for (ElevatorCallRequest request : stranded) {
+            log.warn("Elevator ID - {} | is out of service & stranded the call request from floor - {} to floor - {}",
+                    this.id, request.getRequestFloor(), request.getTargetFloor());
+            this.buildingService.firePassengerStranded(request, this.id);
+        }
+        this.buildingService.elevatorStateChanged();
+    }
+
+    private void removeStopIfUnused(int floor) {
+        if (!isFloorRequired(floor)) {
+            this.upStops.remove(floor);
+            this.downStops.remove(floor);
+        }
+    }
+
+    /**
+     * Take the elevator out of service after a step failed, rather than losing its stops along with the thread running it
+     *
+     * @param cause the failure of the step
+     */
+    public void fail(RuntimeException cause) {
+        log.error("Elevator ID - {} | failed & is taken out of service", this.id, cause);
+        setHealth(ElevatorHealth.OUT_OF_SERVICE);
+    }
+
+    /**
+     * @return the time in millis to travel a single floor, longer for a slow elevator
+     */
+    public long getTravelTime() {
+        long travelTime = spec.getFloorTravelTime();
+        return this.health == ElevatorHealth.SLOW ? travelTime * SLOW_TRAVEL_FACTOR : travelTime;
+    }
+
+    /**
+     * @return the phase of the motion profile of the last step
+     */
+    public MotionPhase getMotionPhase() {
+        return motionPhase;
+    }
+
+    private void setMotionPhase(MotionPhase motionPhase) {
+        if (this.motionPhase != motionPhase) {
+            this.motionPhase = motionPhase;
+            this.buildingService.fireMotionPhaseChanged(this.id, motionPhase);
+        }
+    }
+
     public void setCurrentFloor(int currentFloor) {
         this.currentFloor = currentFloor;
     }
 
     /**
-     * move the elevators at a regular pace of 1 floor/sec
+     * @return the latest snapshot published by this elevator
+     */
+    public ElevatorSnapshot getSnapshot() {
+        return this.buildingService.getSnapshot(this.id);
+    }
+
+    /**
+     * Publish the current state, load & health of the elevator as a new immutable snapshot. Publishing happens under the
+     * elevator's monitor, so that a stale snapshot can never overwrite a newer one. A floor tick publishes nothing, the
+     * floor is read from {@link #getCurrentFloor()}
+     */
+    private synchronized void publishSnapshot() {
+        if (this.elevatorState != null) {
+            this.buildingService.publish(new ElevatorSnapshot(this.id, this.elevatorState, this.load,
+                    this.onboardRequests.size(), this.capacity, this.health));
+        }
+    }
+
+    /**
+     * Assign a call request to this elevator. A stop is added at the requested floor in the direction the passenger
+     * travels in & the target floor is added as a stop once the request is picked up. A request assigned to an elevator
+     * that has stopped taking call requests in the meantime is handed back to the building right away. The request is
+     * assigned under the elevator's monitor, but the listeners are told & its handle completed after releasing it
+     *
+     * @param request the call request to serve
+     */
+    public void assign(ElevatorCallRequest request) {
+        boolean accepted;
+        synchronized (this) {
+            accepted = this.health.isDispatchable();
+            if (accepted) {
+                cancelParking();
+                this.pendingPickups.add(request);
+                request.recordAssigned(this.id, this.buildingService.getClock().currentTimeMillis());
+                updateLoad();
+                addStop(request.getDirection(), request.getRequestFloor());
+            }
+        }
+        if (!accepted) {
+            log.debug("Elevator ID - {} | is {} & handed back the call request from floor - {}", this.id, this.health, request.getRequestFloor());
+            this.buildingService.handBack(request);
+            return;
+        }
+        request.completeStages();
+        this.buildingService.fireRequestAssigned(request, this.id);
+    }
+
+    /**
+     * Take back a call request that has not been picked up yet, so that it can be assigned to another elevator
+     *
+     * @param request the call request to take back
+     * @return True, if the request was still waiting to be picked up. False, otherwise
+     */
+    public synchronized boolean unassign(ElevatorCallRequest request) {
+        if (!this.pendingPickups.remove(request)) {
+            return false;
+        }
+        updateLoad();
+        int floor = request.getRequestFloor();
+        if (!isFloorRequired(floor)) {
+            this.upStops.remove(floor);
+            this.downStops.remove(floor);
+        }
+        return true;
+    }
+
+    /**
+     * Send an idle elevator to the given floor to wait for call requests there. The trip is cancelled as soon as a call
+     * request is assigned to the elevator
+     *
+     * @param floor the floor to park at
+     * @return True, if the elevator is on its way. False, if it is busy or already at the floor
+     */
+    public synchronized boolean park(int floor) {
+        if (!this.health.isDispatchable() || hasPath() || floor == this.currentFloor || !spec.serves(floor)) {
+            return false;
+        }
+        this.parkingFloor = floor;
+        addStop(floor > this.currentFloor ? ElevatorState.UP : ElevatorState.DOWN, floor);
+        return true;
+    }
+
+    /**
+     * @return the floor the elevator is parking at, -1 if it is not parking
+     */
+    public synchronized int getParkingFloor() {
+        return this.parkingFloor;
+    }
+
+    private void cancelParking() {
+        if (this.parkingFloor >= 0 && !isFloorRequired(this.parkingFloor)) {
+            this.upStops.remove(this.parkingFloor);
+            this.downStops.remove(this.parkingFloor);
+        }
+        this.parkingFloor = -1;
+    }
+
+    /**
+     * @return a copy of the call requests waiting to be picked up
+     */
+    synchronized List<ElevatorCallRequest> getPendingPickups() {
+        return new ArrayList<>(this.pendingPickups);
+    }
+
+    /**
+     * @return a copy of the call requests on board
+     */
+    synchronized List<ElevatorCallRequest> getOnboardRequests() {
+        return new ArrayList<>(this.onboardRequests);
+    }
+
+    /**
+     * Put a freshly created elevator back into a state captured by a {@link BuildingCheckpoint}, without notifying the
+     * listeners of the building. The stops are restored separately through {@link #addStop(ElevatorState, int)}
+     */
+    synchronized void restore(int floor, ElevatorState state, ElevatorHealth health, int parkingFloor, long resumeAt,
+                              List<ElevatorCallRequest> pending, List<ElevatorCallRequest> onboard) {
+        this.currentFloor = floor;
+        this.elevatorState = state;
+        this.health = health;
+        this.parkingFloor = parkingFloor;
+        this.resumeAt = resumeAt;
+        this.pendingPickups.addAll(pending);
+        this.onboardRequests.addAll(onboard);
+        updateLoad();
+        publishSnapshot();
+    }
+
+    public synchronized boolean isPendingPickup(ElevatorCallRequest request) {
+        return this.pendingPickups.contains(request);
+    }
+
+    public synchronized int getPendingPickupCount() {
+        return this.pendingPickups.size();
+    }
+
+    public synchronized int getOnboardCount() {
+        return this.onboardRequests.size();
+    }
+
+    /**
+     * Return true if the elevator still has stops left to serve
+     *
+     * @return True, if any stop is pending. False, otherwise
+     */
+    public boolean hasPath() {
+        return !this.upStops.isEmpty() || !this.downStops.isEmpty();
+    }
+
+    /**
+     * move the elevators at a regular pace of 1 floor/sec, or slower if the elevator is slow, holding the doors open at
+     * every stop
      */
     public void move() {
         log.trace("invoking move()");
-        this.buildingService.getElevatorList().set(this.getId(), this);
-        Iterator<ElevatorState> iter = this.pathMap.keySet().iterator();
+        while (step()) {
+            try {
+                Thread.sleep(getTravelTime() + this.dwellTime);
+            } catch (InterruptedException e) {
+                log.debug("Elevator - {} was interrupted while on move", this.getId());
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
 
-        while (iter.hasNext()) {
-            this.elevatorState = iter.next();
+    /**
+     * Advance the elevator by a single floor towards its next stop. The intermediate floors are not stored anywhere,
+     * the elevator simply moves one floor closer to the next stop on every step, so a step does not allocate. The
+     * caller is responsible for pacing the calls, i.e., a real-time thread sleeps {@link #getTravelTime()} between two
+     * steps while a discrete event simulation schedules the next step on its virtual clock. A step that stops at a floor
+     * records the door dwell in {@link #getDwellTime()}, which the caller adds to the pause before the next step. The
+     * travel time depends on the spec & the health of the elevator & an elevator out of service does not move at all
+     *
+     * @return True, if the elevator travelled to a floor. False, if there are no stops left or it is out of service
+     */
+    public boolean step() {
+        this.dwellTime = 0;
+        if (!this.health.isOperating()) {
+            setMotionPhase(MotionPhase.IDLE);
+            return false;
+        }
+        ElevatorState direction = sweepDirection();
+        if (direction == null) {
+            setElevatorState(ElevatorState.STATIONARY);
+            setMotionPhase(MotionPhase.IDLE);
+            // a listener may have sent the elevator off to park as it became idle
+            return hasPath();
+        }
+        setElevatorState(direction);
 
-            this.pathCheckpoints = this.pathMap.get(elevatorState);
+        int nextStop = sweep(direction, this.currentFloor);
+        if (nextStop < 0) {
+            // the remaining stops were taken back by the scheduler in the meantime
+            setElevatorState(ElevatorState.STATIONARY);
+            return hasPath();
+        }
 
-            Integer currFlr = null;
-            Integer nextFlr = null;
+        if (this.currentFloor != nextStop) {
+            boolean departing = !this.motionPhase.isRunning();
+            setCurrentFloor(this.currentFloor < nextStop ? this.currentFloor + 1 : this.currentFloor - 1);
+            this.buildingService.fireElevatorMoved(this.id, this.currentFloor);
+            // a run of a single floor accelerates & decelerates within the same step
+            if (departing) {
+                setMotionPhase(MotionPhase.ACCELERATING);
+            }
+            if (this.currentFloor == nextStop) {
+                setMotionPhase(MotionPhase.DECELERATING);
+            } else if (!departing) {
+                setMotionPhase(MotionPhase.CRUISING);
+            }
+            if (this.health == ElevatorHealth.SLOW) {
+                // holds back the shared tick, which steps every elevator at the regular pace
+                this.resumeAt = this.buildingService.getClock().currentTimeMillis() + getTravelTime();
+            }
+        }
+        if (this.currentFloor == nextStop) {
+            // everyone waiting at or headed to the floor is served, whichever direction they travel in
+            this.upStops.remove(nextStop);
+            this.downStops.remove(nextStop);
+            int transfers = serveFloor(nextStop);
+            if (transfers > 0) {
+                // the doors only open if someone boards or alights, a full elevator passes its hall calls by
+                this.dwellTime = DOOR_DWELL_TIME + transfers * PASSENGER_TRANSFER_TIME;
+                this.resumeAt = this.buildingService.getClock().currentTimeMillis() + this.dwellTime + getTravelTime();
+                this.buildingService.fireElevatorStopped(this.id, nextStop);
+                setMotionPhase(MotionPhase.DOORS_OPEN);
+            } else {
+                setMotionPhase(MotionPhase.STOPPED);
+            }
+        }
 
-            while (!this.pathCheckpoints.isEmpty()) {
+        if (!hasPath()) {
+            setElevatorState(ElevatorState.STATIONARY);
+            setMotionPhase(MotionPhase.IDLE);
+        }
 
-                if (this.elevatorState.equals(ElevatorState.UP)) {
-                    currFlr = this.pathCheckpoints.pollFirst();
-                    nextFlr = this.pathCheckpoints.higher(currFlr);
+        // logged on every floor tick, long runs should be recorded with a BinaryEventLogWriter instead
+        if (log.isTraceEnabled()) {
+            log.trace("Elevator ID - {} | Current floor - {} | next - {}", this.getId(), this.getCurrentFloor(), getElevatorState());
+        }
+        return true;
+    }
 
-                } else if (elevatorState.equals(ElevatorState.DOWN)) {
-                    currFlr = this.pathCheckpoints.pollLast();
-                    nextFlr = this.pathCheckpoints.lower(currFlr);
-                } else {
-                    return;
-                }
+    /**
+     * Drop off the call requests targeting the given floor & pick up the ones waiting at it as long as there is room on
+     * board. The call requests left waiting are handed back to the building, so that another elevator is scheduled. The
+     * passengers board & alight under the elevator's monitor, but the listeners are told, the handles completed & the
+     * call requests handed back after releasing it, as a listener may lock other elevators
+     *
+     * @param floor the floor the elevator has stopped at
+     * @return the no. of passengers who boarded or alighted
+     */
+    private int serveFloor(int floor) {
+        int transfers = transferPassengers(floor);
+        try {
+            for (ElevatorCallRequest request : this.deliveredAtStop) {
+                request.completeStages();
+                this.buildingService.firePassengerDelivered(request, this.id);
+            }
+            for (ElevatorCallRequest request : this.pickedUpAtStop) {
+                request.completeStages();
+                this.buildingService.firePassengerPickedUp(request, this.id);
+            }
+            for (ElevatorCallRequest request : this.handedBackAtStop) {
+                this.buildingService.handBack(request);
+            }
+            if (this.capacityFreed) {
+                // a full elevator is left out of the dispatch, so the parked call requests are retried once it has room
+                this.buildingService.elevatorStateChanged();
+            }
+        } finally {
+            this.deliveredAtStop.clear();
+            this.pickedUpAtStop.clear();
+            this.handedBackAtStop.clear();
+        }
+        return transfers;
+    }
 
-                setCurrentFloor(currFlr);
+    private synchronized int transferPassengers(int floor) {
+        long now = this.buildingService.getClock().currentTimeMillis();
+        boolean wasFull = this.onboardRequests.size() >= this.capacity;
+        int transfers = 0;
+        if (floor == this.parkingFloor) {
+            this.parkingFloor = -1;
+        }
+        for (int i = this.onboardRequests.size() - 1; i >= 0; i--) {
+            ElevatorCallRequest request = this.onboardRequests.get(i);
+            if (request.getTargetFloor() == floor) {
+                this.onboardRequests.remove(i);
+                request.recordDelivered(now);
+                this.deliveredAtStop.add(request);
+                transfers++;
+                log.debug("Elevator ID - {} | dropped off the call request from floor - {} at floor - {}", this.id, request.getRequestFloor(), floor);
+            }
+        }
+        for (int i = 0; i < this.pendingPickups.size(); ) {
+            ElevatorCallRequest request = this.pendingPickups.get(i);
+            if (request.getRequestFloor() != floor) {
+                i++;
+            } else if (this.onboardRequests.size() >= this.capacity) {
+                this.pendingPickups.remove(i);
+                this.handedBackAtStop.add(request);
+                log.debug("Elevator ID - {} | is full & handed back the call request from floor - {}", this.id, floor);
+            } else {
+                this.pendingPickups.remove(i);
+                this.onboardRequests.add(request);
+                transfers++;
+                request.recordPickedUp(now);
+                this.pickedUpAtStop.add(request);
+                addStop(request.getDirection(), request.getTargetFloor());
+                log.debug("Elevator ID - {} | picked up the call request to floor - {} at floor - {}", this.id, request.getTargetFloor(), floor);
+            }
+        }
+        updateLoad();
+        this.capacityFreed = wasFull && this.onboardRequests.size() < this.capacity;
+        return transfers;
+    }
 
-                if (nextFlr != null) {
-                    generateIntermediateFloorCheckpoints(currFlr, nextFlr);
-                } else {
-                    setElevatorState(ElevatorState.STATIONARY);
-                    this.buildingService.getElevatorList().set(this.getId(), this);
-                }
+    private void updateLoad() {
+        int updatedLoad = this.pendingPickups.size() + this.onboardRequests.size();
+        if (updatedLoad != this.load || this.onboardRequests.size() != this.publishedOnboard) {
+            this.load = updatedLoad;
+            this.publishedOnboard = this.onboardRequests.size();
+            publishSnapshot();
+        }
+    }
 
-                log.info("Elevator ID - {} | Current floor - {} | next - {}", this.getId(), this.getCurrentFloor(), getElevatorState());
-                try {
-                    Thread.sleep(1000);
-                } catch (InterruptedException e) {
-                    log.error("There was a problem while on move with elevator - {}", this.getId());
-                    throw new ElevatorSimulationException("There was a problem while on move with elevator - " + this.getId(), e);
-                }
+    /**
+     * Return true if a call request still needs the elevator to stop at the given floor
+     *
+     * @param floor the floor to check
+     * @return True, if a pending pickup or an on board request needs the floor. False, otherwise
+     */
+    private boolean isFloorRequired(int floor) {
+        for (ElevatorCallRequest request : this.pendingPickups) {
+            if (request.getRequestFloor() == floor) {
+                return true;
             }
         }
+        for (ElevatorCallRequest request : this.onboardRequests) {
+            if (request.getTargetFloor() == floor) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
-     * generate all the checkpoints / floors in between the given start & end floors
+     * Return the next floor the elevator is going to stop at, without moving it
      *
-     * @param initial the starting floor
-     * @param target  the ending floor
+     * @return the next stop, -1 if there are no stops left
      */
-    private void generateIntermediateFloorCheckpoints(int initial, int target) {
+    public int getNextStop() {
+        ElevatorState direction = sweepDirection();
+        return direction == null ? -1 : sweep(direction, this.currentFloor);
+    }
 
-        if (Math.abs(initial - target) <= 1) {
-            return;
+    /**
+     * Pick the direction of the LOOK sweep, i.e., keep going in the current direction as long as there are stops ahead
+     * & reverse otherwise. An idle elevator heads towards its nearest stop
+     *
+     * @return the direction to travel in, null if there are no stops left
+     */
+    private ElevatorState sweepDirection() {
+        int floor = this.currentFloor;
+        ElevatorState direction = this.elevatorState;
+        if (direction.equals(ElevatorState.STATIONARY)) {
+            direction = nearestDirection(floor);
+            if (direction == null) {
+                return null;
+            }
+        }
+        if (sweep(direction, floor) >= 0) {
+            return direction;
         }
+        ElevatorState reverse = direction.equals(ElevatorState.UP) ? ElevatorState.DOWN : ElevatorState.UP;
+        return sweep(reverse, floor) >= 0 ? reverse : null;
+    }
 
-        // identify the direction to travel i.e., UP or DOWN for intermediate floors
-        int n = 1;
-        if (target - initial < 0) {
-            // DOWN
-            n = -1;
+    /**
+     * Find the next stop ahead of the given floor in the given direction. Travelling up, the elevator serves the up stops
+     * from the lowest to the highest & then carries on to the highest down stop if it is further up, where it turns
+     * around. Travelling down mirrors this. Stops added behind the elevator wait for the reverse sweep, so a stream of
+     * new calls can never extend the current sweep indefinitely. Every lookup is a scan of a few bitset words
+     *
+     * @param direction the direction of the sweep, either UP or DOWN
+     * @param floor     the floor to look ahead from, inclusive
+     * @return the next stop, -1 if there is no stop ahead
+     */
+    private int sweep(ElevatorState direction, int floor) {
+        if (direction.equals(ElevatorState.UP)) {
+            int stop = this.upStops.nextAbove(floor);
+            if (stop >= 0) {
+                return stop;
+            }
+            int turningFloor = this.downStops.last();
+            return turningFloor >= floor ? turningFloor : -1;
+        }
+        int stop = this.downStops.nextBelow(floor);
+        if (stop >= 0) {
+            return stop;
+        }
+        int turningFloor = this.upStops.first();
+        return turningFloor >= 0 && turningFloor <= floor ? turningFloor : -1;
+    }
+
+    /**
+     * @param floor the floor of the idle elevator
+     * @return the direction of the nearest stop, UP on a tie & null if there are no stops
+     */
+    private ElevatorState nearestDirection(int floor) {
+        int above = nearest(this.upStops.nextAbove(floor), this.downStops.nextAbove(floor), floor);
+        int below = nearest(this.upStops.nextBelow(floor), this.downStops.nextBelow(floor), floor);
+        if (above < 0 && below < 0) {
+            return null;
+        }
+        if (below < 0 || (above >= 0 && above - floor <= floor - below)) {
+            return ElevatorState.UP;
         }
+        return ElevatorState.DOWN;
+    }
 
-        while (initial != target) {
-            initial += n;
-            this.pathCheckpoints.add(initial);
+    private static int nearest(int a, int b, int floor) {
+        if (a < 0) {
+            return b;
         }
+        if (b < 0) {
+            return a;
+        }
+        return Math.abs(a - floor) <= Math.abs(b - floor) ? a : b;
     }
 
     @Override
     public void run() {
-        while (true) {
-            move();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                move();
+            } catch (RuntimeException e) {
+                fail(e);
+            }
             try {
-                Thread.sleep(1000);
+                Thread.sleep(ELEVATOR_IDLE_POLL_INTERVAL);
             } catch (InterruptedException e) {
-                e.printStackTrace();
+                Thread.currentThread().interrupt();
             }
         }
+        log.debug("Elevator - {} stopped", this.getId());
     }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package org.example.elevatorsimulation.service;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Enum to depict how the elevators of a building are advanced
+ */
+public enum ElevatorExecutionMode {
+    // every elevator runs on its own platform thread
+    THREAD_PER_ELEVATOR,
+    // all elevators are ticked by a small shared pool of scheduler threads
+    SHARED_TICK,
+    // no thread is started, an external driver such as a discrete event simulation steps the elevators
+    EXTERNAL,
+}
@@ -0,0 +1,125 @@
+package org.example.elevatorsimulation.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.example.elevatorsimulation.util.Constants.SHUTDOWN_TIMEOUT;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Runs the elevators of a building either on a platform thread each or as periodic tasks on a small shared scheduled
+ * executor. The shared mode steps every elevator once per floor travel time of its
+ * {@link org.example.elevatorsimulation.model.ElevatorSpec}, which paces it exactly like a dedicated thread, so
+ * thousands of elevators can run without thousands of threads
+ */
+@Slf4j
+public class ElevatorExecutor {
+    private final ElevatorExecutionMode executionMode;
+    private final int tickThreads;
+    private final List<Thread> elevatorThreads = new ArrayList<>();
+    private ScheduledExecutorService tickExecutor;
+
+    public ElevatorExecutor(ElevatorExecutionMode executionMode) {
+        this(executionMode, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param executionMode the way to run the elevators, either THREAD_PER_ELEVATOR or SHARED_TICK
+     * @param tickThreads   the no. of threads shared by all elevators in the SHARED_TICK mode
+     */
+    public ElevatorExecutor(ElevatorExecutionMode executionMode, int tickThreads) {
+        if (executionMode.equals(ElevatorExecutionMode.EXTERNAL)) {
+            throw new IllegalArgumentException("Elevators driven externally do not need an executor");
+        }
+        this.executionMode = executionMode;
+        this.tickThreads = tickThreads;
+    }
+
+    public ElevatorExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Start running the given elevators
+     *
+     * @param elevators the elevators to run
+     */
+    public synchronized void start(List<Elevator> elevators) {
+        if (executionMode.equals(ElevatorExecutionMode.THREAD_PER_ELEVATOR)) {
+            for (Elevator elevator : elevators) {
+                Thread thread = new Thread(elevator, "elevator-" + elevator.getId());
+                thread.start();
+                elevatorThreads.add(thread);
+            }
+            return;
+        }
+
+        if (tickExecutor == null) {
+            tickExecutor = Executors.newScheduledThreadPool(tickThreads, new TickThreadFactory());
+        }
+        for (Elevator elevator : elevators) {
+            // a fixed delay never runs two steps of the same elevator concurrently
+            tickExecutor.scheduleWithFixedDelay(() -> tick(elevator), 0, elevator.getSpec().getFloorTravelTime(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stop all the elevators & wait for their threads to finish
+     */
+    public synchronized void stop() {
+        log.debug("Stopping {} elevators", executionMode);
+        for (Thread thread : elevatorThreads) {
+            thread.interrupt();
+        }
+        try {
+            for (Thread thread : elevatorThreads) {
+                thread.join(SHUTDOWN_TIMEOUT);
+            }
+            if (tickExecutor != null) {
+                tickExecutor.shutdownNow();
+                tickExecutor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            log.warn("Interrupted while waiting for the elevators to stop");
+            Thread.currentThread().interrupt();
+        }
+        elevatorThreads.clear();
+        tickExecutor = null;
+    }
+
+    private void tick(Elevator elevator) {
+        try {
+            // the doors of an elevator that stopped in the last tick may still be open
+            if (!elevator.isDue()) {
+                return;
+            }
+            elevator.step();
+        } catch (RuntimeException e) {
+            // an exception would silently cancel the periodic task, keep the elevator ticking out of service instead
+            elevator.fail(e);
+        }
+    }
+
+    /**
+     * Names the shared tick threads & marks them as daemons, so they never keep the JVM alive on their own
+     */
+    private static class TickThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "elevator-tick-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
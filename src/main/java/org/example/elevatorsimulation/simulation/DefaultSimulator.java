@@ -1,13 +1,26 @@
 package org.example.elevatorsimulation.simulation;
 
 import lombok.extern.slf4j.Slf4j;
-import org.example.elevatorsimulation.exception.BadRequestException;
-import org.example.elevatorsimulation.exception.ElevatorSimulationException;
-import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.metrics.SimulationMetrics;
+import org.example.elevatorsimulation.model.ElevatorHealth;
+import org.example.elevatorsimulation.model.ElevatorSpec;
 import org.example.elevatorsimulation.scheduler.Scheduler;
 import org.example.elevatorsimulation.service.BuildingService;
+import org.example.elevatorsimulation.service.Elevator;
+import org.example.elevatorsimulation.service.ElevatorExecutionMode;
+import org.example.elevatorsimulation.telemetry.TelemetryServer;
+import org.example.elevatorsimulation.util.SimulationClock;
+import org.example.elevatorsimulation.util.SimulationLimits;
+import org.example.elevatorsimulation.workload.CallArrival;
+import org.example.elevatorsimulation.workload.UniformWorkload;
+import org.example.elevatorsimulation.workload.WorkloadSource;
 
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.example.elevatorsimulation.util.Constants.*;
@@ -15,92 +28,245 @@ import static org.example.elevatorsimulation.util.Constants.*;
 /**
  * @author Abhilash Sulibela
  * <p>
- * A default implementation for a simulator that generates random simulated elevator call requests at a regular interval
+ * A default implementation for a simulator that submits the call requests of a {@link WorkloadSource} in real time,
+ * random call requests at a regular interval unless another workload is given. Once the workload runs out or the
+ * simulator is drained, it waits for the trips under way to finish & then shuts the scheduler & the elevators down
  */
 @Slf4j
 public class DefaultSimulator implements Simulator, Runnable {
     private Thread thread;
     private final AtomicBoolean running = new AtomicBoolean(false);
-    private long interval;
+    private final AtomicBoolean terminated = new AtomicBoolean(false);
+    // counted down by drain & stop, so that the thread waiting for the next arrival wakes up right away
+    private final CountDownLatch stopSubmitting = new CountDownLatch(1);
+    private final CountDownLatch termination = new CountDownLatch(1);
+    private boolean jmxRegistered;
+    private TelemetryServer telemetryServer;
+    private FaultSchedule faultSchedule = FaultSchedule.parse(System.getProperty("elevatorsimulation.faults"));
+    private ScheduledExecutorService faultInjector;
+    private long drainTimeout = Long.getLong("elevatorsimulation.drainTimeout", DRAIN_TIMEOUT);
     private int floorCount;
-    private int elevatorCount;
+    private List<ElevatorSpec> elevatorSpecs;
     private Scheduler scheduler;
-    private int simulationCount;
+    private WorkloadSource workload;
+    private ElevatorExecutionMode executionMode;
+    private SimulationLimits limits;
+    private BuildingService buildingService;
+    private final SimulationMetrics metrics = new SimulationMetrics(SimulationClock.SYSTEM);
 
     public DefaultSimulator(int floorCount, int elevatorCount, Scheduler scheduler) {
         this(floorCount, elevatorCount, scheduler, DEFAULT_SIMULATION_TIME_INTERVAL, DEFAULT_SIMULATION_COUNT);
     }
 
     public DefaultSimulator(int floorCount, int elevatorCount, Scheduler scheduler, long interval, int simulationCount) {
-        if (!isValid(floorCount, elevatorCount)) {
-            log.error("Bad Request to Elevator Simulation. Please enter a value between 1-10 for elevator count & 1-1000 " +
-                    "for no. of floors in the building");
-            throw new BadRequestException("Bad Request to Elevator Simulation. Please enter a value between 1-10 for elevator " +
-                    "count & 1-1000 for no. of floors in the building");
-        }
+        this(floorCount, elevatorCount, scheduler, interval, simulationCount, ElevatorExecutionMode.THREAD_PER_ELEVATOR,
+                SimulationLimits.fromSystemProperties());
+    }
+
+    public DefaultSimulator(int floorCount, int elevatorCount, Scheduler scheduler, long interval, int simulationCount,
+                            ElevatorExecutionMode executionMode, SimulationLimits limits) {
+        this(floorCount, elevatorCount, scheduler, new UniformWorkload(floorCount, interval, simulationCount, new Random().nextLong()),
+                executionMode, limits);
+    }
+
+    public DefaultSimulator(int floorCount, int elevatorCount, Scheduler scheduler, WorkloadSource workload,
+                            ElevatorExecutionMode executionMode, SimulationLimits limits) {
+        this(floorCount, elevatorCount, scheduler, workload, executionMode, limits, BuildingService.getInstance());
+    }
+
+    public DefaultSimulator(int floorCount, int elevatorCount, Scheduler scheduler, WorkloadSource workload,
+                            ElevatorExecutionMode executionMode, SimulationLimits limits, BuildingService buildingService) {
+        this(floorCount, ElevatorSpec.uniformFleet(elevatorCount, buildingService.getElevatorCapacity()), scheduler,
+                workload, executionMode, limits, buildingService);
+    }
+
+    /**
+     * @param elevatorSpecs the capacity, speed & served floors of every elevator of the building
+     */
+    public DefaultSimulator(int floorCount, List<ElevatorSpec> elevatorSpecs, Scheduler scheduler, WorkloadSource workload,
+                            ElevatorExecutionMode executionMode, SimulationLimits limits, BuildingService buildingService) {
+        limits.validate(floorCount, elevatorSpecs.size());
+        elevatorSpecs.forEach(spec -> spec.validate(floorCount));
+        this.buildingService = buildingService;
         this.floorCount = floorCount;
-        this.elevatorCount = elevatorCount;
+        this.elevatorSpecs = elevatorSpecs;
         this.scheduler = scheduler;
-        this.interval = interval;
-        this.simulationCount = simulationCount;
+        this.workload = workload;
+        this.executionMode = executionMode;
+        this.limits = limits;
     }
 
-    private boolean isValid(int floorCount, int elevatorCount) {
-        return floorCount > MIN_FLOORS && floorCount <= MAX_FLOORS && elevatorCount > MIN_ELEVATORS && elevatorCount <= MAX_ELEVATORS;
+    /**
+     * @return the latency & per elevator metrics collected since the simulator was started
+     */
+    public SimulationMetrics getMetrics() {
+        return metrics;
     }
 
-    @Override
-    public void run() {
-        running.set(true);
-        log.debug("Generating {} call request simulations", simulationCount);
-        for (int i = 0; i < simulationCount; i++) {
-            int[] vals = generateRandom();
-            int requestFloor = vals[0];
-            int targetFloor = vals[1];
-            log.debug("Randomly generated a call request from floor - {} to floor - {}", requestFloor, targetFloor);
-            ElevatorCallRequest elevatorCallRequest = new ElevatorCallRequest(requestFloor, targetFloor);
-            elevatorCallRequest.submitRequest();
-            try {
-                Thread.sleep(this.interval);
-            } catch (InterruptedException ie) {
-                log.error("There was a problem during generation of elevator call requests");
-                throw new ElevatorSimulationException("There was a problem during generation of elevator call requests", ie);
-            }
-        }
+    /**
+     * @return the max time in millis to wait for the call requests in flight to be delivered once the workload has run
+     * out, before they are abandoned
+     */
+    public long getDrainTimeout() {
+        return drainTimeout;
     }
 
-    private int[] generateRandom() {
-        int a = 0;
-        int b = 0;
-
-        // as long as both the requestFloor & targetFloor are not same
-        while (a == b) {
-            a = getRandomNumberUsingInts(0, floorCount);
-            b = getRandomNumberUsingInts(0, floorCount);
-        }
+    /**
+     * Set the max time to wait for the call requests in flight to be delivered once the workload has run out. By
+     * default it is read from the elevatorsimulation.drainTimeout system property
+     *
+     * @param drainTimeout the max time in millis
+     */
+    public void setDrainTimeout(long drainTimeout) {
+        this.drainTimeout = drainTimeout;
+    }
 
-        return new int[]{a, b};
+    /**
+     * Inject the given faults into the elevators, with their times counted from the start of the simulation. By default
+     * the faults are parsed from the elevatorsimulation.faults system property
+     *
+     * @param faultSchedule the faults to inject
+     */
+    public void setFaultSchedule(FaultSchedule faultSchedule) {
+        this.faultSchedule = faultSchedule;
     }
 
-    public int getRandomNumberUsingInts(int min, int max) {
-        Random random = new Random();
-        return random.ints(min, max)
-                .findFirst()
-                .getAsInt();
+    /**
+     * Submit the call requests of the workload on the wall clock, i.e., every call is submitted once its arrival time
+     * has elapsed since the simulation started
+     */
+    @Override
+    public void run() {
+        log.debug("Replaying the call requests of the workload");
+        long startedAt = System.currentTimeMillis();
+        try (WorkloadSource source = this.workload) {
+            CallArrival arrival;
+            while (running.get() && stopSubmitting.getCount() > 0 && (arrival = source.next()) != null) {
+                arrival.validate(floorCount);
+                long delay = startedAt + arrival.getTime() - System.currentTimeMillis();
+                if (delay > 0 && stopSubmitting.await(delay, TimeUnit.MILLISECONDS)) {
+                    break;
+                }
+                log.debug("Submitting a call request from floor - {} to floor - {}", arrival.getRequestFloor(), arrival.getTargetFloor());
+                // submitted like a kiosk would, i.e., turned away rather than queued once the building is overloaded
+                this.buildingService.submitAsync(arrival.toRequest());
+            }
+            if (running.get()) {
+                log.debug("Waiting for {} call requests in flight to be delivered", buildingService.getInFlightRequestCount());
+                if (!buildingService.awaitAllDelivered(drainTimeout, TimeUnit.MILLISECONDS)) {
+                    log.warn("Abandoning {} call requests still in flight after waiting {} ms for them to be delivered",
+                            buildingService.getInFlightRequestCount(), drainTimeout);
+                }
+            }
+        } catch (InterruptedException ie) {
+            // the thread belongs to the simulator, so an interrupt can only mean it is asked to stop
+            log.debug("The simulator was interrupted, abandoning {} call requests in flight", buildingService.getInFlightRequestCount());
+        } finally {
+            shutdown();
+        }
     }
 
     @Override
     public void start() {
+        if (terminated.get() || !running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A simulator can only be started once");
+        }
         log.debug("Starting simulator...");
-        thread = new Thread(this);
-        thread.start();
+        this.buildingService.setLimits(this.limits);
+        this.buildingService.setClock(SimulationClock.SYSTEM);
+        this.buildingService.addListener(this.metrics);
+        if (Boolean.getBoolean("elevatorsimulation.jmx")) {
+            this.metrics.registerMBean("default");
+            this.jmxRegistered = true;
+        }
+        Integer telemetryPort = Integer.getInteger("elevatorsimulation.telemetry.port");
+        if (telemetryPort != null) {
+            this.telemetryServer = new TelemetryServer(this.buildingService, this.metrics, this.floorCount,
+                    Long.getLong("elevatorsimulation.telemetry.interval", DEFAULT_TELEMETRY_INTERVAL));
+            this.telemetryServer.start(telemetryPort);
+        }
+        this.buildingService.initializeElevators(this.elevatorSpecs, this.floorCount, this.executionMode);
+        this.scheduler.setBuildingService(this.buildingService);
         this.scheduler.start();
-        BuildingService.getInstance().initializeElevators(this.elevatorCount);
+        injectFaults();
+        thread = new Thread(this, "simulator");
+        thread.start();
+    }
+
+    @Override
+    public void drain() {
+        log.debug("Draining simulator...");
+        stopSubmitting.countDown();
     }
 
     @Override
     public void stop() {
         log.debug("Stopping simulator...");
         running.set(false);
+        stopSubmitting.countDown();
+        if (thread != null) {
+            thread.interrupt();
+        }
+        shutdown();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return termination.await(timeout, unit);
+    }
+
+    /**
+     * Change the health of the elevators on the wall clock as the fault schedule says
+     */
+    private void injectFaults() {
+        if (this.faultSchedule.getFaults().isEmpty()) {
+            return;
+        }
+        this.faultSchedule.validate(this.elevatorSpecs.size());
+        this.faultInjector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fault-injector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (ElevatorFault fault : this.faultSchedule.getFaults()) {
+            Elevator elevator = this.buildingService.getElevator(fault.getElevatorId());
+            this.faultInjector.schedule(() -> elevator.setHealth(fault.getHealth()), fault.getTime(), TimeUnit.MILLISECONDS);
+            if (fault.getDuration() > 0) {
+                this.faultInjector.schedule(() -> elevator.setHealth(ElevatorHealth.IN_SERVICE),
+                        fault.getTime() + fault.getDuration(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Stop the scheduler & the elevators once, whether the simulator finished on its own or was stopped
+     */
+    private void shutdown() {
+        if (!terminated.compareAndSet(false, true)) {
+            return;
+        }
+        running.set(false);
+        try {
+            this.scheduler.stop();
+            if (!this.scheduler.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                log.warn("The scheduler did not stop within {} ms", SHUTDOWN_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            log.warn("Interrupted while waiting for the scheduler to stop");
+            Thread.currentThread().interrupt();
+        }
+        if (this.faultInjector != null) {
+            this.faultInjector.shutdownNow();
+        }
+        this.buildingService.shutdownElevators();
+        this.buildingService.removeListener(this.metrics);
+        if (this.jmxRegistered) {
+            this.metrics.unregisterMBean("default");
+        }
+        if (this.telemetryServer != null) {
+            this.telemetryServer.stop();
+        }
+        log.info("Simulation metrics - {}", metrics.summary());
+        termination.countDown();
     }
 }
\ No newline at end of file
@@ -0,0 +1,406 @@
+package org.example.elevatorsimulation.simulation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.metrics.SimulationMetrics;
+import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.model.ElevatorHealth;
+import org.example.elevatorsimulation.model.ElevatorSpec;
+import org.example.elevatorsimulation.model.ElevatorState;
+import org.example.elevatorsimulation.scheduler.RequestDispatcher;
+import org.example.elevatorsimulation.scheduler.Scheduler;
+import org.example.elevatorsimulation.service.BuildingCheckpoint;
+import org.example.elevatorsimulation.service.BuildingService;
+import org.example.elevatorsimulation.service.Elevator;
+import org.example.elevatorsimulation.service.ElevatorExecutionMode;
+import org.example.elevatorsimulation.util.SimulationClock;
+import org.example.elevatorsimulation.util.SimulationLimits;
+import org.example.elevatorsimulation.workload.CallArrival;
+import org.example.elevatorsimulation.workload.UniformWorkload;
+import org.example.elevatorsimulation.workload.WorkloadSource;
+
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.example.elevatorsimulation.util.Constants.*;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * A simulator that advances the elevators, the scheduler & the request generator on a virtual clock driven by a
+ * priority queue of events instead of sleeping on the wall clock. It reuses the same {@link Elevator#step()} &
+ * {@link Scheduler#schedule(ElevatorCallRequest)} logic as the real-time {@link DefaultSimulator} & paces them with
+ * the same constants, so a simulated day of traffic completes in seconds & a run is repeated exactly from its seed.
+ * Its latencies come close to the real-time mode, where an idle elevator only notices a call request on its next poll
+ * & the wait is longer by up to {@code ELEVATOR_IDLE_POLL_INTERVAL}
+ */
+@Slf4j
+public class DiscreteEventSimulator implements Simulator, Runnable {
+    private Thread thread;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile boolean draining;
+    private final CountDownLatch termination = new CountDownLatch(1);
+    private final PriorityQueue<SimulationEvent> eventQueue = new PriorityQueue<>();
+    private final VirtualClock clock = new VirtualClock();
+    private final int floorCount;
+    private final int elevatorCount;
+    // null for a simulation resuming from a checkpoint, whose elevators are restored along with the building
+    private final List<ElevatorSpec> elevatorSpecs;
+    private final Scheduler scheduler;
+    private final WorkloadSource workload;
+    private final RequestDispatcher dispatcher;
+    private final SimulationLimits limits;
+    private final BuildingService buildingService;
+    private final SimulationMetrics metrics = new SimulationMetrics(clock);
+    // the time of the checkpoint a restored simulation resumes from, 0 for a simulation starting with an empty building
+    private final long startTime;
+    private final boolean restored;
+    private long stopAt = Long.MAX_VALUE;
+    private FaultSchedule faultSchedule = new FaultSchedule();
+
+    // whether an elevator already has its next step scheduled, idle elevators are woken up on a successful dispatch
+    private final boolean[] elevatorActive;
+    private boolean dispatchPending;
+    private long observedVersion;
+    private CallArrival nextArrival;
+    private long sequence;
+    private long processedEvents;
+
+    public DiscreteEventSimulator(int floorCount, int elevatorCount, Scheduler scheduler) {
+        this(floorCount, elevatorCount, scheduler, DEFAULT_SIMULATION_TIME_INTERVAL, DEFAULT_SIMULATION_COUNT, DEFAULT_SIMULATION_SEED);
+    }
+
+    public DiscreteEventSimulator(int floorCount, int elevatorCount, Scheduler scheduler, long interval, int simulationCount, long seed) {
+        this(floorCount, elevatorCount, scheduler, interval, simulationCount, seed, SimulationLimits.fromSystemProperties());
+    }
+
+    public DiscreteEventSimulator(int floorCount, int elevatorCount, Scheduler scheduler, long interval, int simulationCount,
+                                  long seed, SimulationLimits limits) {
+        this(floorCount, elevatorCount, scheduler, new UniformWorkload(floorCount, interval, simulationCount, seed), limits);
+    }
+
+    public DiscreteEventSimulator(int floorCount, int elevatorCount, Scheduler scheduler, WorkloadSource workload,
+                                  SimulationLimits limits) {
+        this(floorCount, elevatorCount, scheduler, workload, limits, BuildingService.getInstance());
+    }
+
+    /**
+     * @param buildingService the building to simulate, a fresh instance per simulator lets simulations run in parallel
+     */
+    public DiscreteEventSimulator(int floorCount, int elevatorCount, Scheduler scheduler, WorkloadSource workload,
+                                  SimulationLimits limits, BuildingService buildingService) {
+        this(floorCount, ElevatorSpec.uniformFleet(elevatorCount, buildingService.getElevatorCapacity()), scheduler,
+                workload, limits, buildingService);
+    }
+
+    /**
+     * @param elevatorSpecs   the capacity, speed & served floors of every elevator of the building
+     * @param buildingService the building to simulate, a fresh instance per simulator lets simulations run in parallel
+     */
+    public DiscreteEventSimulator(int floorCount, List<ElevatorSpec> elevatorSpecs, Scheduler scheduler,
+                                  WorkloadSource workload, SimulationLimits limits, BuildingService buildingService) {
+        this(floorCount, elevatorSpecs.size(), elevatorSpecs, scheduler, workload, limits, buildingService, 0, false);
+        elevatorSpecs.forEach(spec -> spec.validate(floorCount));
+    }
+
+    /**
+     * Resume a simulation from a checkpoint in a building of its own, so that many what-if runs can be forked off the
+     * same warmed up building. The arrival times of the workload count from the time of the checkpoint, e.g., a
+     * workload seeded with {@link BuildingCheckpoint#forkSeed(int)} continues the traffic of the checkpoint. Elevators
+     * that were travelling resume with their next floor right away
+     *
+     * @param checkpoint the state to resume from
+     * @param scheduler  the scheduler of the restored building
+     * @param workload   the call requests arriving after the checkpoint
+     */
+    public DiscreteEventSimulator(BuildingCheckpoint checkpoint, Scheduler scheduler, WorkloadSource workload) {
+        this(checkpoint.restore(), checkpoint, scheduler, workload);
+    }
+
+    private DiscreteEventSimulator(BuildingService buildingService, BuildingCheckpoint checkpoint, Scheduler scheduler,
+                                   WorkloadSource workload) {
+        this(checkpoint.getFloorCount(), checkpoint.getElevatorCount(), null, scheduler, workload,
+                buildingService.getLimits(), buildingService, checkpoint.getTime(), true);
+    }
+
+    private DiscreteEventSimulator(int floorCount, int elevatorCount, List<ElevatorSpec> elevatorSpecs, Scheduler scheduler,
+                                   WorkloadSource workload, SimulationLimits limits, BuildingService buildingService,
+                                   long startTime, boolean restored) {
+        limits.validate(floorCount, elevatorCount);
+        this.startTime = startTime;
+        this.restored = restored;
+        this.buildingService = buildingService;
+        this.limits = limits;
+        this.floorCount = floorCount;
+        this.elevatorCount = elevatorCount;
+        this.elevatorSpecs = elevatorSpecs;
+        this.scheduler = scheduler;
+        this.workload = workload;
+        this.dispatcher = new RequestDispatcher(scheduler);
+        this.elevatorActive = new boolean[elevatorCount];
+    }
+
+    /**
+     * @return the current simulated time in millis
+     */
+    public long now() {
+        return clock.now();
+    }
+
+    /**
+     * @return the virtual clock of this simulation, e.g., to timestamp the events recorded by a listener
+     */
+    public SimulationClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Stop the simulation once the virtual clock reaches the given time, leaving the building as it is at that time,
+     * e.g., to capture a {@link #checkpoint(long)}
+     *
+     * @param stopAt the simulated time in millis to stop at
+     */
+    public void setStopAt(long stopAt) {
+        this.stopAt = stopAt;
+    }
+
+    /**
+     * Inject the given faults into the elevators, with their times counted from the start of the simulation
+     *
+     * @param faultSchedule the faults to inject
+     */
+    public void setFaultSchedule(FaultSchedule faultSchedule) {
+        this.faultSchedule = faultSchedule;
+    }
+
+    /**
+     * Capture the state of the simulated building, including the call requests the scheduler could not place yet
+     *
+     * @param seed the seed to derive the random numbers of the forked runs from
+     * @return the checkpoint of the building at the current simulated time
+     */
+    public BuildingCheckpoint checkpoint(long seed) {
+        if (running.get()) {
+            throw new IllegalStateException("A simulation can only be captured once it has stopped");
+        }
+        return BuildingCheckpoint.capture(buildingService, floorCount, dispatcher.getParkedRequests(), seed);
+    }
+
+    /**
+     * @return the latency & per elevator metrics collected on the virtual clock. A simulation resumed from a checkpoint
+     * counts the call requests in flight at the checkpoint as submitted
+     */
+    public SimulationMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void run() {
+        running.set(true);
+        long startedAt = System.currentTimeMillis();
+        log.debug("Simulating the call requests of the workload on a virtual clock");
+
+        buildingService.setLimits(this.limits);
+        buildingService.setClock(this.clock);
+        buildingService.addListener(this.metrics);
+        if (restored) {
+            clock.advanceTo(startTime);
+            metrics.countRestored(buildingService.getInFlightRequestCount());
+        } else {
+            buildingService.initializeElevators(this.elevatorSpecs, this.floorCount, ElevatorExecutionMode.EXTERNAL);
+        }
+        scheduler.setBuildingService(buildingService);
+        observedVersion = buildingService.getElevatorStateVersion();
+        try (WorkloadSource source = this.workload) {
+            scheduleFaults();
+            scheduleNextArrival(source);
+            if (restored) {
+                // the restored elevators carry on with their stops & the restored queue is dispatched
+                wakeUpElevators();
+                signalDispatch();
+            }
+            while (running.get() && !eventQueue.isEmpty()) {
+                if (eventQueue.peek().getTime() > stopAt) {
+                    clock.advanceTo(Math.max(stopAt, clock.now()));
+                    break;
+                }
+                SimulationEvent event = eventQueue.poll();
+                clock.advanceTo(event.getTime());
+                processEvent(event);
+                signalDispatch();
+                processedEvents++;
+            }
+        } finally {
+            running.set(false);
+            buildingService.removeListener(this.metrics);
+            termination.countDown();
+        }
+
+        log.info("Simulated {} ms of building time in {} ms by processing {} events", clock.now(),
+                System.currentTimeMillis() - startedAt, processedEvents);
+        log.info("Simulation metrics - {}", metrics.summary());
+    }
+
+    private void processEvent(SimulationEvent event) {
+        switch (event.getType()) {
+            case ARRIVAL:
+                onArrival();
+                break;
+            case DISPATCH:
+                onDispatch();
+                break;
+            case FLOOR_REACHED:
+                onFloorReached(event.getElevatorId());
+                break;
+            case DOOR_OPEN:
+                long dwellTime = buildingService.getElevator(event.getElevatorId()).getDwellTime();
+                scheduleEvent(clock.now() + dwellTime, SimulationEventType.DOOR_CLOSE, event.getElevatorId());
+                break;
+            case DOOR_CLOSE:
+                onDoorClose(event.getElevatorId());
+                break;
+            case HEALTH_CHANGED:
+                // the call requests handed back by a failed elevator are dispatched like new ones
+                buildingService.getElevator(event.getElevatorId()).setHealth(event.getHealth());
+                wakeUpElevators();
+                break;
+            default:
+                log.warn("Ignoring unknown simulation event - {}", event.getType());
+        }
+    }
+
+    private void onArrival() {
+        if (draining) {
+            // no more call requests are submitted, the events already queued play out the trips under way
+            return;
+        }
+        log.debug("Submitting a call request from floor - {} to floor - {} at - {}", nextArrival.getRequestFloor(),
+                nextArrival.getTargetFloor(), clock.now());
+        nextArrival.toRequest().submitRequest(buildingService);
+        scheduleNextArrival(this.workload);
+    }
+
+    /**
+     * Pull the next call from the workload & schedule its arrival, only a single arrival is ever queued so that the
+     * workload is streamed rather than loaded up front
+     *
+     * @param source the workload of this simulation
+     */
+    private void scheduleNextArrival(WorkloadSource source) {
+        nextArrival = source.next();
+        if (nextArrival != null) {
+            nextArrival.validate(floorCount);
+            scheduleEvent(Math.max(startTime + nextArrival.getTime(), clock.now()), SimulationEventType.ARRIVAL, -1);
+        }
+    }
+
+    private void scheduleFaults() {
+        faultSchedule.validate(elevatorCount);
+        for (ElevatorFault fault : faultSchedule.getFaults()) {
+            long time = Math.max(startTime + fault.getTime(), clock.now());
+            scheduleEvent(time, SimulationEventType.HEALTH_CHANGED, fault.getElevatorId(), fault.getHealth());
+            if (fault.getDuration() > 0) {
+                scheduleEvent(time + fault.getDuration(), SimulationEventType.HEALTH_CHANGED, fault.getElevatorId(),
+                        ElevatorHealth.IN_SERVICE);
+            }
+        }
+    }
+
+    /**
+     * Mirror a single dispatch round of the real-time scheduler, i.e., schedule the requests waiting in the building
+     * queue & retry the parked ones if an elevator has changed its state since the last round
+     */
+    private void onDispatch() {
+        dispatchPending = false;
+
+        long version = buildingService.getElevatorStateVersion();
+        if (dispatcher.dispatch(buildingService, version != observedVersion) > 0) {
+            wakeUpElevators();
+        }
+        observedVersion = version;
+    }
+
+    /**
+     * Raise a dispatch event whenever the real-time scheduler would have been signalled
+     */
+    private void signalDispatch() {
+        if (dispatchPending) {
+            return;
+        }
+        if (buildingService.hasPendingRequests()) {
+            // new call requests are collected over the batch window of the scheduler, just like the real-time thread
+            dispatchPending = true;
+            scheduleEvent(clock.now() + scheduler.getBatchWindow(), SimulationEventType.DISPATCH, -1);
+        } else if (dispatcher.hasParkedRequests() && buildingService.getElevatorStateVersion() != observedVersion) {
+            dispatchPending = true;
+            scheduleEvent(clock.now(), SimulationEventType.DISPATCH, -1);
+        }
+    }
+
+    private void onFloorReached(int elevatorId) {
+        Elevator elevator = buildingService.getElevatorList().get(elevatorId);
+        if (!elevator.step()) {
+            elevatorActive[elevatorId] = false;
+        } else if (elevator.getDwellTime() > 0 || elevator.getElevatorState().equals(ElevatorState.STATIONARY)) {
+            scheduleEvent(clock.now(), SimulationEventType.DOOR_OPEN, elevatorId);
+        } else {
+            scheduleEvent(clock.now() + elevator.getTravelTime(), SimulationEventType.FLOOR_REACHED, elevatorId);
+        }
+    }
+
+    private void onDoorClose(int elevatorId) {
+        Elevator elevator = buildingService.getElevatorList().get(elevatorId);
+        if (elevator.hasPath()) {
+            scheduleEvent(clock.now() + elevator.getTravelTime(), SimulationEventType.FLOOR_REACHED, elevatorId);
+        } else {
+            elevatorActive[elevatorId] = false;
+        }
+    }
+
+    /**
+     * Schedule the next step for every idle elevator that was handed a path by the scheduler or is back in service
+     */
+    private void wakeUpElevators() {
+        List<Elevator> elevatorList = buildingService.getElevatorList();
+        for (Elevator elevator : elevatorList) {
+            if (!elevatorActive[elevator.getId()] && elevator.hasPath() && elevator.getHealth().isOperating()) {
+                elevatorActive[elevator.getId()] = true;
+                scheduleEvent(clock.now(), SimulationEventType.FLOOR_REACHED, elevator.getId());
+            }
+        }
+    }
+
+    private void scheduleEvent(long time, SimulationEventType type, int elevatorId) {
+        scheduleEvent(time, type, elevatorId, null);
+    }
+
+    private void scheduleEvent(long time, SimulationEventType type, int elevatorId, ElevatorHealth health) {
+        eventQueue.offer(new SimulationEvent(time, sequence++, type, elevatorId, health));
+    }
+
+    @Override
+    public void start() {
+        log.debug("Starting discrete event simulator...");
+        thread = new Thread(this);
+        thread.start();
+    }
+
+    @Override
+    public void drain() {
+        log.debug("Draining discrete event simulator...");
+        draining = true;
+    }
+
+    @Override
+    public void stop() {
+        log.debug("Stopping discrete event simulator...");
+        running.set(false);
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return termination.await(timeout, unit);
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.elevatorsimulation.simulation;
+
+import org.example.elevatorsimulation.model.ElevatorHealth;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * A fault injected into a single elevator of a simulation, i.e., the elevator changes to the given health at the given
+ * time & is back in service once the fault has lasted its duration
+ */
+public class ElevatorFault {
+    private final long time;
+    private final int elevatorId;
+    private final ElevatorHealth health;
+    private final long duration;
+
+    public ElevatorFault(long time, int elevatorId, ElevatorHealth health, long duration) {
+        this.time = time;
+        this.elevatorId = elevatorId;
+        this.health = health;
+        this.duration = duration;
+    }
+
+    /**
+     * @return the time in millis since the start of the simulation the fault occurs at
+     */
+    public long getTime() {
+        return time;
+    }
+
+    public int getElevatorId() {
+        return elevatorId;
+    }
+
+    public ElevatorHealth getHealth() {
+        return health;
+    }
+
+    /**
+     * @return the time in millis until the elevator is back in service, 0 if it never is
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    @Override
+    public String toString() {
+        return time + ":" + elevatorId + ":" + health + ":" + duration;
+    }
+}
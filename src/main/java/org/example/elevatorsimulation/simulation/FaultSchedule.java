@@ -0,0 +1,114 @@
+package org.example.elevatorsimulation.simulation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.exception.BadRequestException;
+import org.example.elevatorsimulation.model.ElevatorHealth;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * The faults to inject into the elevators of a simulation, ordered by their time, e.g., to measure how the wait time
+ * percentiles degrade when elevators go down at peak. A schedule is either built up fault by fault, parsed from a list
+ * of time:elevator:health:duration entries separated by commas or drawn at random from a seed. The faults of a single
+ * elevator should not overlap, as the end of either fault puts the elevator back in service
+ */
+@Slf4j
+public class FaultSchedule {
+    private final List<ElevatorFault> faults = new ArrayList<>();
+
+    /**
+     * Add a fault to the schedule
+     *
+     * @param time       the time in millis since the start of the simulation
+     * @param elevatorId the id of the elevator
+     * @param health     the health of the elevator during the fault
+     * @param duration   the time in millis until the elevator is back in service, 0 if it never is
+     * @return this schedule
+     */
+    public FaultSchedule add(long time, int elevatorId, ElevatorHealth health, long duration) {
+        if (time < 0 || elevatorId < 0 || duration < 0 || health == ElevatorHealth.IN_SERVICE) {
+            log.error("Invalid fault of elevator - {} at - {} for - {} ms", elevatorId, time, duration);
+            throw new BadRequestException("Invalid fault of elevator - " + elevatorId + " at - " + time + " for - " + duration + " ms");
+        }
+        faults.add(new ElevatorFault(time, elevatorId, health, duration));
+        faults.sort(Comparator.comparingLong(ElevatorFault::getTime));
+        return this;
+    }
+
+    /**
+     * @return the faults ordered by their time
+     */
+    public List<ElevatorFault> getFaults() {
+        return Collections.unmodifiableList(faults);
+    }
+
+    /**
+     * Check that every fault hits an elevator of a building with the given no. of elevators
+     *
+     * @param elevatorCount the no. of elevators of the building
+     */
+    public void validate(int elevatorCount) {
+        for (ElevatorFault fault : faults) {
+            if (fault.getElevatorId() >= elevatorCount) {
+                log.error("The fault - {} hits an elevator missing from a building of {} elevators", fault, elevatorCount);
+                throw new BadRequestException("The fault - " + fault + " hits an elevator missing from a building of "
+                        + elevatorCount + " elevators");
+            }
+        }
+    }
+
+    /**
+     * Parse a schedule like 3600000:2:OUT_OF_SERVICE:900000,3700000:5:SLOW:0
+     *
+     * @param spec the faults as time:elevator:health:duration entries separated by commas
+     * @return the parsed schedule
+     */
+    public static FaultSchedule parse(String spec) {
+        FaultSchedule schedule = new FaultSchedule();
+        if (spec == null || spec.trim().isEmpty()) {
+            return schedule;
+        }
+        for (String entry : spec.split(",")) {
+            String[] fields = entry.trim().split(":");
+            try {
+                if (fields.length != 4) {
+                    throw new IllegalArgumentException("expected time:elevator:health:duration");
+                }
+                schedule.add(Long.parseLong(fields[0]), Integer.parseInt(fields[1]),
+                        ElevatorHealth.valueOf(fields[2].toUpperCase()), Long.parseLong(fields[3]));
+            } catch (IllegalArgumentException e) {
+                log.error("Invalid fault - {}", entry);
+                throw new BadRequestException("Invalid fault - " + entry + ", expected time:elevator:health:duration");
+            }
+        }
+        return schedule;
+    }
+
+    /**
+     * Draw the given no. of faults, each taking a random elevator out of service for the given duration at a random time
+     * within the window, e.g., the morning peak
+     *
+     * @param count         the no. of faults
+     * @param elevatorCount the no. of elevators of the building
+     * @param from          the start of the window in millis since the start of the simulation
+     * @param to            the end of the window in millis since the start of the simulation
+     * @param duration      the time in millis every fault lasts
+     * @param seed          the seed of the random numbers
+     * @return the drawn schedule
+     */
+    public static FaultSchedule random(int count, int elevatorCount, long from, long to, long duration, long seed) {
+        Random random = new Random(seed);
+        FaultSchedule schedule = new FaultSchedule();
+        for (int i = 0; i < count; i++) {
+            long time = from + (long) (random.nextDouble() * (to - from));
+            schedule.add(time, random.nextInt(elevatorCount), ElevatorHealth.OUT_OF_SERVICE, duration);
+        }
+        return schedule;
+    }
+}
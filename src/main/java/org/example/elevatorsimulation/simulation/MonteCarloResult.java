@@ -0,0 +1,117 @@
+package org.example.elevatorsimulation.simulation;
+
+import org.example.elevatorsimulation.metrics.EnergyMeter;
+import org.example.elevatorsimulation.metrics.LatencyHistogram;
+import org.example.elevatorsimulation.metrics.SimulationMetrics;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * The latency & energy statistics of every run of a configuration merged together
+ */
+public class MonteCarloResult {
+    private final String name;
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final LatencyHistogram rideTime = new LatencyHistogram();
+    private final LatencyHistogram dispatchDelay = new LatencyHistogram();
+    private int runCount;
+    private long submittedCount;
+    private long floorsTravelled;
+    private double netEnergy;
+    private long starts;
+
+    public MonteCarloResult(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getRunCount() {
+        return runCount;
+    }
+
+    public long getSubmittedCount() {
+        return submittedCount;
+    }
+
+    public long getDeliveredCount() {
+        return rideTime.getCount();
+    }
+
+    public long getFloorsTravelled() {
+        return floorsTravelled;
+    }
+
+    /**
+     * @return the energy drawn less the energy fed back by the elevators of all runs in kWh
+     */
+    public double getNetEnergy() {
+        return netEnergy;
+    }
+
+    /**
+     * @return the net energy per passenger delivered in kWh, 0 if none was delivered
+     */
+    public double getEnergyPerPassenger() {
+        long delivered = getDeliveredCount();
+        return delivered == 0 ? 0 : netEnergy / delivered;
+    }
+
+    public long getStarts() {
+        return starts;
+    }
+
+    public LatencyHistogram getWaitTimeHistogram() {
+        return waitTime;
+    }
+
+    public LatencyHistogram getRideTimeHistogram() {
+        return rideTime;
+    }
+
+    public LatencyHistogram getDispatchDelayHistogram() {
+        return dispatchDelay;
+    }
+
+    /**
+     * Merge the metrics of another run of this configuration
+     *
+     * @param metrics     the metrics collected by the run
+     * @param energyMeter the energy metered during the run
+     */
+    void add(SimulationMetrics metrics, EnergyMeter energyMeter) {
+        waitTime.add(metrics.getWaitTimeHistogram());
+        rideTime.add(metrics.getRideTimeHistogram());
+        dispatchDelay.add(metrics.getDispatchDelayHistogram());
+        submittedCount += metrics.getSubmittedCount();
+        floorsTravelled += metrics.getTotalFloorsTravelled();
+        netEnergy += energyMeter.getNetEnergy();
+        starts += energyMeter.getStarts();
+        runCount++;
+    }
+
+    /**
+     * Merge the aggregated result of other runs of this configuration
+     *
+     * @param other the result to merge
+     */
+    void add(MonteCarloResult other) {
+        waitTime.add(other.waitTime);
+        rideTime.add(other.rideTime);
+        dispatchDelay.add(other.dispatchDelay);
+        submittedCount += other.submittedCount;
+        floorsTravelled += other.floorsTravelled;
+        netEnergy += other.netEnergy;
+        starts += other.starts;
+        runCount += other.runCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: runs=%d submitted=%d delivered=%d | wait [%s] | ride [%s] | dispatch [%s] | floors travelled=%d | starts=%d | energy=%.4f kWh/passenger",
+                name, runCount, submittedCount, getDeliveredCount(), waitTime, rideTime, dispatchDelay, floorsTravelled,
+                starts, getEnergyPerPassenger());
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.elevatorsimulation.simulation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.metrics.EnergyMeter;
+import org.example.elevatorsimulation.service.BuildingService;
+import org.example.elevatorsimulation.util.SimulationLimits;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Runs many independent discrete event simulations in parallel on a fork-join pool & aggregates their latency
+ * & energy statistics per configuration. Every run gets its own building, scheduler & workload, so runs share no state & a
+ * thousand runs take a single JVM instead of a thousand
+ */
+@Slf4j
+public class MonteCarloRunner {
+    private final ForkJoinPool pool;
+    private final SimulationLimits limits;
+
+    public MonteCarloRunner() {
+        this(ForkJoinPool.commonPool(), SimulationLimits.fromSystemProperties());
+    }
+
+    public MonteCarloRunner(ForkJoinPool pool, SimulationLimits limits) {
+        this.pool = pool;
+        this.limits = limits;
+    }
+
+    /**
+     * Run every configuration once per seed, with the seeds baseSeed to baseSeed + runsPerConfiguration - 1
+     *
+     * @param configurations       the configurations to compare
+     * @param runsPerConfiguration the no. of seeds to run every configuration with
+     * @param baseSeed             the first seed
+     * @return the aggregated result of every configuration, in the order of the configurations
+     */
+    public List<MonteCarloResult> run(List<SimulationRun> configurations, int runsPerConfiguration, long baseSeed) {
+        List<SimulationRun> runs = new ArrayList<>(configurations.size() * runsPerConfiguration);
+        for (SimulationRun configuration : configurations) {
+            for (int i = 0; i < runsPerConfiguration; i++) {
+                runs.add(configuration.withSeed(baseSeed + i));
+            }
+        }
+        return run(runs);
+    }
+
+    /**
+     * Run all of the given simulations & merge the results of the runs sharing a name
+     *
+     * @param runs the simulations to run
+     * @return the aggregated result of every configuration, in the order the names first appear
+     */
+    public List<MonteCarloResult> run(List<SimulationRun> runs) {
+        long startedAt = System.currentTimeMillis();
+        List<ForkJoinTask<MonteCarloResult>> tasks = new ArrayList<>(runs.size());
+        for (SimulationRun run : runs) {
+            tasks.add(pool.submit(() -> simulate(run)));
+        }
+
+        Map<String, MonteCarloResult> results = new LinkedHashMap<>();
+        for (int i = 0; i < runs.size(); i++) {
+            MonteCarloResult result = tasks.get(i).join();
+            results.computeIfAbsent(runs.get(i).getName(), MonteCarloResult::new).add(result);
+        }
+        log.info("Completed {} simulation runs in {} ms", runs.size(), System.currentTimeMillis() - startedAt);
+        return new ArrayList<>(results.values());
+    }
+
+    private MonteCarloResult simulate(SimulationRun run) {
+        BuildingService buildingService = new BuildingService();
+        EnergyMeter energyMeter = new EnergyMeter(buildingService);
+        buildingService.addListener(energyMeter);
+        DiscreteEventSimulator simulator = new DiscreteEventSimulator(run.getFloorCount(), run.getElevatorSpecs(),
+                run.createScheduler(), run.createWorkload(), limits, buildingService);
+        simulator.run();
+
+        MonteCarloResult result = new MonteCarloResult(run.getName());
+        result.add(simulator.getMetrics(), energyMeter);
+        return result;
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.elevatorsimulation.simulation;
+
+import org.example.elevatorsimulation.model.ElevatorHealth;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * An event scheduled on the virtual clock of a discrete event simulation. Events are ordered by their time & then by
+ * the order in which they were scheduled, so that events due at the same instant are processed first come first serve
+ */
+public class SimulationEvent implements Comparable<SimulationEvent> {
+    private final long time;
+    private final long sequence;
+    private final SimulationEventType type;
+    private final int elevatorId;
+    private final ElevatorHealth health;
+
+    public SimulationEvent(long time, long sequence, SimulationEventType type, int elevatorId) {
+        this(time, sequence, type, elevatorId, null);
+    }
+
+    /**
+     * @param health the new health of the elevator for a HEALTH_CHANGED event, null for any other event
+     */
+    public SimulationEvent(long time, long sequence, SimulationEventType type, int elevatorId, ElevatorHealth health) {
+        this.time = time;
+        this.sequence = sequence;
+        this.type = type;
+        this.elevatorId = elevatorId;
+        this.health = health;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public SimulationEventType getType() {
+        return type;
+    }
+
+    public int getElevatorId() {
+        return elevatorId;
+    }
+
+    public ElevatorHealth getHealth() {
+        return health;
+    }
+
+    @Override
+    public int compareTo(SimulationEvent other) {
+        int result = Long.compare(this.time, other.time);
+        return result != 0 ? result : Long.compare(this.sequence, other.sequence);
+    }
+}
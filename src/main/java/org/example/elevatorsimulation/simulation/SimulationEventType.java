@@ -0,0 +1,15 @@
+package org.example.elevatorsimulation.simulation;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Enum to depict the kinds of events processed by the discrete event simulation
+ */
+public enum SimulationEventType {
+    ARRIVAL,
+    DISPATCH,
+    FLOOR_REACHED,
+    DOOR_OPEN,
+    DOOR_CLOSE,
+    HEALTH_CHANGED,
+}
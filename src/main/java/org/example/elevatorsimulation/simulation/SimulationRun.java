@@ -0,0 +1,89 @@
+package org.example.elevatorsimulation.simulation;
+
+import org.example.elevatorsimulation.model.ElevatorSpec;
+import org.example.elevatorsimulation.scheduler.Scheduler;
+import org.example.elevatorsimulation.workload.WorkloadSource;
+
+import java.util.List;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+import static org.example.elevatorsimulation.util.Constants.DEFAULT_ELEVATOR_CAPACITY;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * The configuration of a single seeded simulation run. Runs sharing a name are aggregated together, so a configuration
+ * is usually repeated over many seeds with {@link #withSeed(long)}
+ */
+public class SimulationRun {
+    private final String name;
+    private final int floorCount;
+    private final List<ElevatorSpec> elevatorSpecs;
+    private final Supplier<Scheduler> schedulerFactory;
+    private final LongFunction<WorkloadSource> workloadFactory;
+    private final long seed;
+
+    /**
+     * @param name             the name of the configuration, used to aggregate the results
+     * @param floorCount       the no. of floors of the building
+     * @param elevatorCount    the no. of elevators of the building, all of the default capacity & speed
+     * @param schedulerFactory creates a fresh scheduler for every run, as schedulers hold state
+     * @param workloadFactory  creates the workload of a run from its seed
+     * @param seed             the seed of the run
+     */
+    public SimulationRun(String name, int floorCount, int elevatorCount, Supplier<Scheduler> schedulerFactory,
+                         LongFunction<WorkloadSource> workloadFactory, long seed) {
+        this(name, floorCount, ElevatorSpec.uniformFleet(elevatorCount, DEFAULT_ELEVATOR_CAPACITY), schedulerFactory,
+                workloadFactory, seed);
+    }
+
+    /**
+     * @param elevatorSpecs the capacity, speed & served floors of every elevator of the building
+     */
+    public SimulationRun(String name, int floorCount, List<ElevatorSpec> elevatorSpecs,
+                         Supplier<Scheduler> schedulerFactory, LongFunction<WorkloadSource> workloadFactory, long seed) {
+        this.name = name;
+        this.floorCount = floorCount;
+        this.elevatorSpecs = elevatorSpecs;
+        this.schedulerFactory = schedulerFactory;
+        this.workloadFactory = workloadFactory;
+        this.seed = seed;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getFloorCount() {
+        return floorCount;
+    }
+
+    public int getElevatorCount() {
+        return elevatorSpecs.size();
+    }
+
+    public List<ElevatorSpec> getElevatorSpecs() {
+        return elevatorSpecs;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public Scheduler createScheduler() {
+        return schedulerFactory.get();
+    }
+
+    public WorkloadSource createWorkload() {
+        return workloadFactory.apply(seed);
+    }
+
+    /**
+     * @param seed the seed of the new run
+     * @return the same configuration run with another seed
+     */
+    public SimulationRun withSeed(long seed) {
+        return new SimulationRun(name, floorCount, elevatorSpecs, schedulerFactory, workloadFactory, seed);
+    }
+}
@@ -1,11 +1,34 @@
 package org.example.elevatorsimulation.simulation;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author Abhilash Sulibela
- * Interface that encapsulates the core functions of a Simulator
+ * Interface that encapsulates the core functions of a Simulator. A simulator runs once, from {@link #start()} until it
+ * runs out of call requests, is drained or is stopped, & then releases all of its threads, so that many simulations
+ * can run back to back in a single JVM
  */
 public interface Simulator {
     void start();
 
+    /**
+     * Stop submitting new call requests, let the elevators finish the trips already under way & then stop. Returns
+     * right away, {@link #awaitTermination(long, TimeUnit)} waits for the trips to finish
+     */
+    void drain();
+
+    /**
+     * Stop right away, abandoning the trips under way
+     */
     void stop();
+
+    /**
+     * Block until the simulation has terminated & all of its threads have finished
+     *
+     * @param timeout the max time to wait
+     * @param unit    the unit of the timeout
+     * @return True, if the simulation has terminated. False, if the timeout elapsed first
+     * @throws InterruptedException if the waiting thread was interrupted
+     */
+    boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException;
 }
@@ -0,0 +1,34 @@
+package org.example.elevatorsimulation.simulation;
+
+import org.example.elevatorsimulation.exception.ElevatorSimulationException;
+import org.example.elevatorsimulation.util.SimulationClock;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * A simulated clock that only moves forward when the simulation advances it to the time of the next event
+ */
+public class VirtualClock implements SimulationClock {
+    private volatile long now;
+
+    public long now() {
+        return now;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return now;
+    }
+
+    /**
+     * Move the clock forward to the given time
+     *
+     * @param time the simulated time in millis to advance to
+     */
+    public void advanceTo(long time) {
+        if (time < this.now) {
+            throw new ElevatorSimulationException("Virtual clock cannot move backwards from " + this.now + " to " + time);
+        }
+        this.now = time;
+    }
+}
@@ -0,0 +1,181 @@
+package org.example.elevatorsimulation.telemetry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.model.ElevatorSnapshot;
+import org.example.elevatorsimulation.service.BuildingService;
+import org.example.elevatorsimulation.service.Elevator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import static org.example.elevatorsimulation.util.Constants.TELEMETRY_WRITE_TIMEOUT;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Samples the elevator snapshots & the queue of a building once per tick & sends every watcher the cars that changed
+ * since the previous tick as a server-sent event. A tick is encoded once whatever the no. of watchers, watchers that
+ * just joined or fell behind get a key frame of every car instead. The snapshots are read without locking, so the
+ * simulation threads never wait for telemetry. A watcher whose write has been blocked for longer than
+ * {@code TELEMETRY_WRITE_TIMEOUT} is dropped, so that stalled watchers cannot hold every writer thread
+ */
+@Slf4j
+class TelemetryBroadcaster implements Runnable {
+    private final BuildingService buildingService;
+    private final Executor writers;
+    private final Set<TelemetrySubscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // the state sent with the previous tick, only accessed by the broadcasting thread
+    private ElevatorSnapshot[] sent = new ElevatorSnapshot[0];
+    private int[] sentFloors = new int[0];
+    private int sentQueueDepth = -1;
+    private int sentInFlight = -1;
+    private long sequence;
+
+    TelemetryBroadcaster(BuildingService buildingService, Executor writers) {
+        this.buildingService = buildingService;
+        this.writers = writers;
+    }
+
+    void subscribe(TelemetrySubscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    void closeAll() {
+        for (TelemetrySubscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+        subscribers.clear();
+    }
+
+    @Override
+    public void run() {
+        // an exception would silently cancel the periodic task, so that no tick would ever be sent again
+        try {
+            broadcast();
+        } catch (RuntimeException e) {
+            log.warn("There was a problem broadcasting the telemetry of tick - {}", sequence, e);
+        }
+    }
+
+    private void broadcast() {
+        ElevatorSnapshot[] snapshots = buildingService.getSnapshots();
+        // the floors are not part of the snapshots, an elevator still being added has no floor to send yet
+        List<Elevator> elevators = buildingService.getElevatorList();
+        int[] floors = new int[snapshots.length];
+        for (int i = 0; i < floors.length; i++) {
+            floors[i] = i < elevators.size() ? elevators.get(i).getCurrentFloor() : -1;
+            if (floors[i] < 0) {
+                snapshots[i] = null;
+            }
+        }
+        int queueDepth = buildingService.getPendingRequestCount();
+        int inFlight = buildingService.getInFlightRequestCount();
+        long time = buildingService.getClock().currentTimeMillis();
+
+        StringBuilder changedCars = new StringBuilder();
+        for (int i = 0; i < snapshots.length; i++) {
+            if (snapshots[i] != null && (i >= sent.length || sentFloors[i] != floors[i] || !isSame(sent[i], snapshots[i]))) {
+                appendCar(changedCars, snapshots[i], floors[i]);
+            }
+        }
+        boolean changed = changedCars.length() > 0 || queueDepth != sentQueueDepth || inFlight != sentInFlight;
+        sent = snapshots;
+        sentFloors = floors;
+        sentQueueDepth = queueDepth;
+        sentInFlight = inFlight;
+        if (changed) {
+            sequence++;
+        }
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        byte[] delta = changed ? encode(false, time, queueDepth, inFlight, changedCars) : null;
+        byte[] keyFrame = null;
+        long deadline = System.currentTimeMillis() - TELEMETRY_WRITE_TIMEOUT;
+        for (TelemetrySubscriber subscriber : subscribers) {
+            if (!subscriber.tryAcquire()) {
+                if (subscriber.abortIfStartedBefore(deadline)) {
+                    log.debug("Dropping a telemetry watcher that stopped reading for over {} millis", TELEMETRY_WRITE_TIMEOUT);
+                    subscribers.remove(subscriber);
+                    continue;
+                }
+                // the deltas in between are lost to it, so it has to start over from a key frame
+                subscriber.setKeyFrameNeeded(true);
+                continue;
+            }
+            byte[] frame;
+            if (subscriber.isKeyFrameNeeded()) {
+                if (keyFrame == null) {
+                    StringBuilder allCars = new StringBuilder();
+                    for (int i = 0; i < snapshots.length; i++) {
+                        if (snapshots[i] != null) {
+                            appendCar(allCars, snapshots[i], floors[i]);
+                        }
+                    }
+                    keyFrame = encode(true, time, queueDepth, inFlight, allCars);
+                }
+                subscriber.setKeyFrameNeeded(false);
+                frame = keyFrame;
+            } else if (delta != null) {
+                frame = delta;
+            } else {
+                subscriber.release();
+                continue;
+            }
+            writers.execute(() -> write(subscriber, frame));
+        }
+    }
+
+    private void write(TelemetrySubscriber subscriber, byte[] frame) {
+        try {
+            subscriber.write(frame);
+        } catch (IOException e) {
+            log.debug("Dropping a telemetry watcher that went away - {}", e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.close();
+        } finally {
+            subscriber.release();
+        }
+    }
+
+    private static boolean isSame(ElevatorSnapshot previous, ElevatorSnapshot current) {
+        return previous == current || (previous != null
+                && previous.getElevatorState() == current.getElevatorState()
+                && previous.getOnboard() == current.getOnboard()
+                && previous.getLoad() == current.getLoad());
+    }
+
+    /**
+     * A car is encoded as [id, floor, state, onboard, load] to keep the frames of hundreds of cars small
+     */
+    private static void appendCar(StringBuilder cars, ElevatorSnapshot snapshot, int floor) {
+        if (cars.length() > 0) {
+            cars.append(',');
+        }
+        cars.append('[').append(snapshot.getId())
+                .append(',').append(floor)
+                .append(",\"").append(snapshot.getElevatorState().name().charAt(0))
+                .append("\",").append(snapshot.getOnboard())
+                .append(',').append(snapshot.getLoad()).append(']');
+    }
+
+    private byte[] encode(boolean key, long time, int queueDepth, int inFlight, StringBuilder cars) {
+        String frame = "id: " + sequence + "\nevent: telemetry\ndata: {\"seq\":" + sequence
+                + ",\"key\":" + key
+                + ",\"time\":" + time
+                + ",\"queue\":" + queueDepth
+                + ",\"inFlight\":" + inFlight
+                + ",\"cars\":[" + cars + "]}\n\n";
+        return frame.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,251 @@
+package org.example.elevatorsimulation.telemetry;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.exception.BadRequestException;
+import org.example.elevatorsimulation.exception.ElevatorSimulationException;
+import org.example.elevatorsimulation.metrics.SimulationMetrics;
+import org.example.elevatorsimulation.model.CallRequestHandle;
+import org.example.elevatorsimulation.service.BuildingService;
+import org.example.elevatorsimulation.workload.CallArrival;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.example.elevatorsimulation.util.Constants.DEFAULT_TELEMETRY_INTERVAL;
+import static org.example.elevatorsimulation.util.Constants.TELEMETRY_WRITER_THREADS;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * An embedded HTTP endpoint on the JDK's own server to watch & drive a running simulation from a local dashboard.
+ * It binds to the loopback address only & serves
+ * <ul>
+ *     <li>GET /stream - a server-sent event stream of the car positions & the queue depth, see {@link TelemetryBroadcaster}</li>
+ *     <li>GET /metrics - a JSON snapshot of the simulation metrics</li>
+ *     <li>POST /calls - a call request from the form parameters from & to, submitted to the building</li>
+ * </ul>
+ * The stream & the metrics may be read by a dashboard of any origin, call requests are only taken from pages served on
+ * the loopback address, so that a web page the user happens to visit cannot submit calls
+ */
+@Slf4j
+public class TelemetryServer implements AutoCloseable {
+    private static final Pattern LOOPBACK = Pattern.compile("127(\\.\\d{1,3}){3}");
+
+    private final BuildingService buildingService;
+    private final SimulationMetrics metrics;
+    private final int floorCount;
+    private final long interval;
+    private HttpServer server;
+    private ExecutorService handlers;
+    private ExecutorService writers;
+    private ScheduledExecutorService ticker;
+    private TelemetryBroadcaster broadcaster;
+
+    public TelemetryServer(BuildingService buildingService, SimulationMetrics metrics, int floorCount) {
+        this(buildingService, metrics, floorCount, DEFAULT_TELEMETRY_INTERVAL);
+    }
+
+    /**
+     * @param buildingService the building to watch & submit call requests to
+     * @param metrics         the metrics to serve, null if there are none
+     * @param floorCount      the no. of floors of the building, to validate submitted call requests
+     * @param interval        the time in millis between two ticks of the stream
+     */
+    public TelemetryServer(BuildingService buildingService, SimulationMetrics metrics, int floorCount, long interval) {
+        if (interval <= 0) {
+            log.error("The telemetry interval must be positive, got - {}", interval);
+            throw new BadRequestException("The telemetry interval must be positive, got - " + interval);
+        }
+        this.buildingService = buildingService;
+        this.metrics = metrics;
+        this.floorCount = floorCount;
+        this.interval = interval;
+    }
+
+    /**
+     * Start serving on the given port of the loopback address
+     *
+     * @param port the port to listen on, 0 for any free port
+     */
+    public synchronized void start(int port) {
+        if (server != null) {
+            throw new IllegalStateException("The telemetry server is already started");
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            log.error("There was a problem starting the telemetry server on port - {}", port);
+            throw new ElevatorSimulationException("There was a problem starting the telemetry server on port - " + port, e);
+        }
+        handlers = Executors.newFixedThreadPool(2, daemon("telemetry-http"));
+        writers = Executors.newFixedThreadPool(TELEMETRY_WRITER_THREADS, daemon("telemetry-writer"));
+        ticker = Executors.newSingleThreadScheduledExecutor(daemon("telemetry"));
+        broadcaster = new TelemetryBroadcaster(buildingService, writers);
+        server.createContext("/stream", this::handleStream);
+        server.createContext("/metrics", this::handleMetrics);
+        server.createContext("/calls", this::handleCalls);
+        server.setExecutor(handlers);
+        server.start();
+        ticker.scheduleAtFixedRate(broadcaster, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Serving telemetry on http://{}:{}/stream", server.getAddress().getHostString(), getPort());
+    }
+
+    public synchronized int getPort() {
+        return server == null ? -1 : server.getAddress().getPort();
+    }
+
+    /**
+     * @return the no. of watchers of the stream
+     */
+    public synchronized int getWatcherCount() {
+        return broadcaster == null ? 0 : broadcaster.getSubscriberCount();
+    }
+
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        ticker.shutdownNow();
+        broadcaster.closeAll();
+        server.stop(0);
+        writers.shutdownNow();
+        handlers.shutdownNow();
+        server = null;
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    private void handleStream(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, "{\"error\":\"GET only\"}");
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+        // the exchange stays open once the handler returns, the broadcaster writes every later tick to it
+        exchange.sendResponseHeaders(200, 0);
+        broadcaster.subscribe(new TelemetrySubscriber(exchange));
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        if (metrics == null) {
+            respond(exchange, 404, "{\"error\":\"no metrics are collected\"}");
+            return;
+        }
+        exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+        respond(exchange, 200, "{\"submitted\":" + metrics.getSubmittedCount()
+                + ",\"rejected\":" + metrics.getRejectedCount()
+                + ",\"delivered\":" + metrics.getDeliveredCount()
+                + ",\"stranded\":" + metrics.getStrandedCount()
+                + ",\"inFlight\":" + buildingService.getInFlightRequestCount()
+                + ",\"queue\":" + buildingService.getPendingRequestCount()
+                + ",\"meanWaitTime\":" + metrics.getMeanWaitTime()
+                + ",\"p95WaitTime\":" + metrics.getP95WaitTime()
+                + ",\"p99WaitTime\":" + metrics.getP99WaitTime()
+                + ",\"maxWaitTime\":" + metrics.getMaxWaitTime()
+                + ",\"meanRideTime\":" + metrics.getMeanRideTime()
+                + ",\"p95RideTime\":" + metrics.getP95RideTime()
+                + ",\"meanDispatchDelay\":" + metrics.getMeanDispatchDelay()
+                + ",\"p99DispatchDelay\":" + metrics.getP99DispatchDelay()
+                + ",\"floorsTravelled\":" + metrics.getTotalFloorsTravelled()
+                + ",\"stops\":" + metrics.getTotalStops() + "}");
+    }
+
+    private void handleCalls(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, "{\"error\":\"POST only\"}");
+            return;
+        }
+        // a form post is a simple cross-origin request, so leaving out the CORS header alone does not stop it being sent
+        String origin = exchange.getRequestHeaders().getFirst("Origin");
+        if (origin != null && !isLoopback(origin)) {
+            log.warn("Refusing a call request posted from the origin - {}", origin);
+            respond(exchange, 403, "{\"error\":\"call requests are only taken from the loopback address\"}");
+            return;
+        }
+        CallArrival arrival;
+        try {
+            Map<String, String> parameters = parseForm(exchange.getRequestURI().getRawQuery());
+            try (InputStream body = exchange.getRequestBody()) {
+                parameters.putAll(parseForm(new String(body.readAllBytes(), StandardCharsets.UTF_8)));
+            }
+            arrival = new CallArrival(0, Integer.parseInt(parameters.get("from")), Integer.parseInt(parameters.get("to")));
+            arrival.validate(floorCount);
+        } catch (NumberFormatException | BadRequestException e) {
+            respond(exchange, 400, "{\"error\":\"a call request needs the floors from & to within the building\"}");
+            return;
+        }
+        CallRequestHandle handle = buildingService.submitAsync(arrival.toRequest());
+        if (handle.isRejected()) {
+            respond(exchange, 503, "{\"status\":\"rejected\"}");
+        } else {
+            respond(exchange, 202, "{\"status\":\"submitted\",\"from\":" + arrival.getRequestFloor()
+                    + ",\"to\":" + arrival.getTargetFloor() + "}");
+        }
+    }
+
+    private static Map<String, String> parseForm(String form) {
+        Map<String, String> parameters = new HashMap<>();
+        if (form == null || form.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : form.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8).trim());
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * @return True, if the origin of a request is a page served on the loopback address. False, otherwise
+     */
+    private static boolean isLoopback(String origin) {
+        try {
+            // only literal loopback hosts, a name resolving to the loopback address may be controlled by anyone
+            String host = URI.create(origin).getHost();
+            return host != null && (host.equals("localhost") || host.equals("[::1]") || LOOPBACK.matcher(host).matches());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
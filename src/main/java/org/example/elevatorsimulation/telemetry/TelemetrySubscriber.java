@@ -0,0 +1,90 @@
+package org.example.elevatorsimulation.telemetry;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * A watcher of the telemetry stream. At most one frame is written to a watcher at a time, a watcher still busy with an
+ * earlier frame skips the frames in between & catches up with a key frame instead. A write blocked on a watcher that
+ * stopped reading is aborted by interrupting its writer thread, which closes the connection underneath it, so a stalled
+ * watcher holds a writer thread for a bounded time only
+ */
+class TelemetrySubscriber {
+    private final HttpExchange exchange;
+    private final OutputStream out;
+    private final AtomicBoolean writing = new AtomicBoolean(false);
+    private volatile boolean keyFrameNeeded = true;
+    // the thread writing a frame & the time it started in millis, guarded by the subscriber's monitor
+    private Thread writer;
+    private long writeStartedAt;
+
+    TelemetrySubscriber(HttpExchange exchange) {
+        this.exchange = exchange;
+        this.out = exchange.getResponseBody();
+    }
+
+    /**
+     * @return True, if the watcher is not busy with an earlier frame & the caller may write the next one
+     */
+    boolean tryAcquire() {
+        return writing.compareAndSet(false, true);
+    }
+
+    void release() {
+        writing.set(false);
+    }
+
+    boolean isKeyFrameNeeded() {
+        return keyFrameNeeded;
+    }
+
+    void setKeyFrameNeeded(boolean keyFrameNeeded) {
+        this.keyFrameNeeded = keyFrameNeeded;
+    }
+
+    void write(byte[] frame) throws IOException {
+        synchronized (this) {
+            writer = Thread.currentThread();
+            writeStartedAt = System.currentTimeMillis();
+        }
+        try {
+            out.write(frame);
+            out.flush();
+        } finally {
+            boolean aborted;
+            synchronized (this) {
+                writer = null;
+                // also clears an abort that came in just as the write completed, before the thread writes elsewhere
+                aborted = Thread.interrupted();
+            }
+            if (aborted) {
+                throw new InterruptedIOException("The write of a telemetry frame exceeded its deadline");
+            }
+        }
+    }
+
+    /**
+     * Abort the write under way, if it started before the given deadline
+     *
+     * @param deadline the time in millis a write under way should have started after
+     * @return True, if a write was aborted. False, otherwise
+     */
+    synchronized boolean abortIfStartedBefore(long deadline) {
+        if (writer == null || writeStartedAt >= deadline) {
+            return false;
+        }
+        // the connection is an interruptible channel, so the blocked write fails & the writer drops the watcher
+        writer.interrupt();
+        return true;
+    }
+
+    void close() {
+        exchange.close();
+    }
+}
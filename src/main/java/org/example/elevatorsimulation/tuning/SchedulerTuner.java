@@ -0,0 +1,289 @@
+package org.example.elevatorsimulation.tuning;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.config.BuildingConfig;
+import org.example.elevatorsimulation.exception.BadRequestException;
+import org.example.elevatorsimulation.model.ElevatorSpec;
+import org.example.elevatorsimulation.scheduler.DispatchCost;
+import org.example.elevatorsimulation.scheduler.DispatchWeights;
+import org.example.elevatorsimulation.scheduler.EstimatedTimeScheduler;
+import org.example.elevatorsimulation.simulation.MonteCarloResult;
+import org.example.elevatorsimulation.simulation.MonteCarloRunner;
+import org.example.elevatorsimulation.simulation.SimulationRun;
+import org.example.elevatorsimulation.util.SimulationLimits;
+import org.example.elevatorsimulation.workload.PoissonWorkload;
+import org.example.elevatorsimulation.workload.TraceReplayWorkload;
+import org.example.elevatorsimulation.workload.TrafficProfile;
+import org.example.elevatorsimulation.workload.WorkloadSource;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+
+import static org.example.elevatorsimulation.util.Constants.*;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Searches the {@link DispatchWeights} of the {@link EstimatedTimeScheduler} for the best trade-off between wait time,
+ * ride time & energy in a given building, i.e., its floors & the capacity, speed & served floors of every elevator, under
+ * a given workload. Every candidate is scored by running the discrete event
+ * simulation in parallel over the same seeds, so candidates are compared on the same traffic. The search is a (mu +
+ * lambda) evolution: the first generation is the default weights & random samples, every later one mutates the better
+ * half of the survivors & keeps the best of parents & children. The survivors of the last generation are scored again
+ * on held-out seeds, so that the weights written to the properties file the scheduler loads at startup are the best on
+ * traffic the search did not select them on
+ */
+@Slf4j
+public class SchedulerTuner {
+    public static final String OBJECTIVE_PROPERTY = "elevatorsimulation.tuning.objective";
+
+    // the search space of every weight, in the order ride weight, passenger penalty, stop penalty & reassignment threshold
+    private static final double[] LOWER_BOUNDS = {0.1, 0, 0, 0};
+    private static final double[] UPPER_BOUNDS = {3, 5000, 10000, 30000};
+    // the standard deviation of a mutation relative to the width of the search space
+    private static final double MUTATION_SCALE = 0.15;
+
+    private final MonteCarloRunner runner;
+    private final int floorCount;
+    private final List<ElevatorSpec> elevatorSpecs;
+    private final LongFunction<WorkloadSource> workloadFactory;
+    private final int runsPerCandidate;
+    private final TuningObjective objective;
+    private final long seed;
+    private final Random random;
+    private final List<TuningCandidate> evaluated = new ArrayList<>();
+
+    /**
+     * @param runner           runs the simulations of every generation in parallel
+     * @param floorCount       the no. of floors of the building
+     * @param elevatorCount    the no. of elevators of the building, all of the default capacity & speed
+     * @param workloadFactory  creates the workload of a run from its seed
+     * @param runsPerCandidate the no. of seeds to run every candidate with
+     * @param objective        scores the candidates
+     * @param seed             the seed of the search & of the first run of every candidate
+     */
+    public SchedulerTuner(MonteCarloRunner runner, int floorCount, int elevatorCount,
+                          LongFunction<WorkloadSource> workloadFactory, int runsPerCandidate, TuningObjective objective,
+                          long seed) {
+        this(runner, floorCount, ElevatorSpec.uniformFleet(elevatorCount, DEFAULT_ELEVATOR_CAPACITY), workloadFactory,
+                runsPerCandidate, objective, seed);
+    }
+
+    /**
+     * @param elevatorSpecs the capacity, speed & served floors of every elevator of the building
+     */
+    public SchedulerTuner(MonteCarloRunner runner, int floorCount, List<ElevatorSpec> elevatorSpecs,
+                          LongFunction<WorkloadSource> workloadFactory, int runsPerCandidate, TuningObjective objective,
+                          long seed) {
+        if (runsPerCandidate <= 0) {
+            log.error("Every candidate must be run at least once");
+            throw new BadRequestException("Every candidate must be run at least once");
+        }
+        this.runner = runner;
+        this.floorCount = floorCount;
+        this.elevatorSpecs = elevatorSpecs;
+        this.workloadFactory = workloadFactory;
+        this.runsPerCandidate = runsPerCandidate;
+        this.objective = objective;
+        this.seed = seed;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Evolve the dispatch weights over the given no. of generations & rank the survivors on held-out seeds
+     *
+     * @param generations    the no. of generations to evaluate
+     * @param populationSize the no. of candidates evaluated per generation & kept between generations
+     * @return the survivor with the best score on the held-out seeds, scored on those
+     */
+    public TuningCandidate tune(int generations, int populationSize) {
+        if (generations <= 0 || populationSize < 2) {
+            log.error("The tuner needs at least 1 generation of 2 candidates");
+            throw new BadRequestException("The tuner needs at least 1 generation of 2 candidates");
+        }
+        List<DispatchWeights> offspring = new ArrayList<>(populationSize);
+        offspring.add(new DispatchWeights());
+        while (offspring.size() < populationSize) {
+            offspring.add(toWeights(randomGenes()));
+        }
+
+        List<TuningCandidate> population = new ArrayList<>(populationSize * 2);
+        for (int generation = 1; generation <= generations; generation++) {
+            List<TuningCandidate> candidates = evaluate(offspring, seed);
+            evaluated.addAll(candidates);
+            population.addAll(candidates);
+            population.sort(Comparator.comparingDouble(TuningCandidate::getScore));
+            if (population.size() > populationSize) {
+                population.subList(populationSize, population.size()).clear();
+            }
+            log.info("Generation {} of {}, best - {}", generation, generations, population.get(0));
+
+            offspring = new ArrayList<>(populationSize);
+            for (int i = 0; i < populationSize && generation < generations; i++) {
+                TuningCandidate parent = population.get(random.nextInt(Math.max(1, population.size() / 2)));
+                offspring.add(toWeights(mutate(toGenes(parent.getWeights()))));
+            }
+        }
+
+        // the training seeds are seed to seed + runsPerCandidate - 1, a recorded trace is the same on every seed though
+        List<DispatchWeights> survivors = population.stream().map(TuningCandidate::getWeights).collect(Collectors.toList());
+        List<TuningCandidate> validated = evaluate(survivors, seed + runsPerCandidate);
+        validated.sort(Comparator.comparingDouble(TuningCandidate::getScore));
+        log.info("Best on held-out seeds - {}", validated.get(0));
+        return validated.get(0);
+    }
+
+    /**
+     * @return the candidates evaluated so far that no other candidate beats in wait time, ride time & energy at once,
+     * in the order of their score
+     */
+    public List<TuningCandidate> getParetoFront() {
+        return evaluated.stream()
+                .filter(candidate -> evaluated.stream().noneMatch(other -> other.dominates(candidate)))
+                .sorted(Comparator.comparingDouble(TuningCandidate::getScore))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Score every set of weights over runsPerCandidate seeds starting at the given one
+     */
+    private List<TuningCandidate> evaluate(List<DispatchWeights> weightsList, long baseSeed) {
+        List<SimulationRun> configurations = new ArrayList<>(weightsList.size());
+        for (int i = 0; i < weightsList.size(); i++) {
+            DispatchWeights weights = weightsList.get(i);
+            configurations.add(new SimulationRun("candidate-" + i, floorCount, elevatorSpecs,
+                    () -> new EstimatedTimeScheduler(new DispatchCost(weights)), workloadFactory, baseSeed));
+        }
+        List<MonteCarloResult> results = runner.run(configurations, runsPerCandidate, baseSeed);
+
+        List<TuningCandidate> candidates = new ArrayList<>(weightsList.size());
+        for (int i = 0; i < weightsList.size(); i++) {
+            TuningCandidate candidate = new TuningCandidate(weightsList.get(i), results.get(i), objective.score(results.get(i)));
+            log.debug("Evaluated {}", candidate);
+            candidates.add(candidate);
+        }
+        return candidates;
+    }
+
+    private double[] randomGenes() {
+        double[] genes = new double[LOWER_BOUNDS.length];
+        for (int i = 0; i < genes.length; i++) {
+            genes[i] = LOWER_BOUNDS[i] + random.nextDouble() * (UPPER_BOUNDS[i] - LOWER_BOUNDS[i]);
+        }
+        return genes;
+    }
+
+    private double[] mutate(double[] genes) {
+        double[] mutated = new double[genes.length];
+        for (int i = 0; i < genes.length; i++) {
+            double value = genes[i] + random.nextGaussian() * MUTATION_SCALE * (UPPER_BOUNDS[i] - LOWER_BOUNDS[i]);
+            mutated[i] = Math.max(LOWER_BOUNDS[i], Math.min(UPPER_BOUNDS[i], value));
+        }
+        return mutated;
+    }
+
+    private static double[] toGenes(DispatchWeights weights) {
+        return new double[]{weights.getRideWeight(), weights.getPassengerPenalty(), weights.getStopPenalty(),
+                weights.getReassignmentThreshold()};
+    }
+
+    private static DispatchWeights toWeights(double[] genes) {
+        // rounded to keep the written config readable, finer steps than these make no measurable difference
+        return new DispatchWeights(Math.round(genes[0] * 1000) / 1000.0, Math.round(genes[1]), Math.round(genes[2]),
+                Math.round(genes[3]));
+    }
+
+    /**
+     * Tune the dispatch weights for a building & write them to a properties file. The building is either a building
+     * file read by {@link BuildingConfig}, so that the weights are tuned for its elevators, or a no. of floors & of
+     * elevators of the default capacity & speed. The workload is either a traffic profile with a mean interval in millis
+     * & a no. of calls, or the path of a recorded call trace
+     * <pre>
+     * SchedulerTuner building.properties|floors elevators output.properties UP_PEAK|DOWN_PEAK|LUNCH|INTER_FLOOR meanInterval calls [generations] [population]
+     * SchedulerTuner building.properties|floors elevators output.properties trace.csv [generations] [population]
+     * </pre>
+     * The objective defaults to {@code 1,0.5,0.5} & can be set with {@value #OBJECTIVE_PROPERTY}
+     */
+    public static void main(String[] args) {
+        boolean buildingFile = args.length > 0 && args[0].endsWith(".properties");
+        if (args.length < (buildingFile ? 3 : 4)) {
+            log.error("Usage: SchedulerTuner building|floors elevators output profile|trace [meanInterval calls] [generations] [population]");
+            throw new BadRequestException("Usage: SchedulerTuner building|floors elevators output profile|trace [meanInterval calls] [generations] [population]");
+        }
+        try {
+            int floorCount;
+            List<ElevatorSpec> elevatorSpecs;
+            int first;
+            if (buildingFile) {
+                BuildingConfig building = BuildingConfig.load(Paths.get(args[0]));
+                floorCount = building.getFloorCount();
+                elevatorSpecs = building.getElevatorSpecs();
+                first = 1;
+            } else {
+                floorCount = Integer.parseInt(args[0]);
+                elevatorSpecs = ElevatorSpec.uniformFleet(Integer.parseInt(args[1]), DEFAULT_ELEVATOR_CAPACITY);
+                first = 2;
+            }
+            Path output = Paths.get(args[first]);
+            String workload = args[first + 1];
+            TrafficProfile profile = parseProfile(workload);
+
+            LongFunction<WorkloadSource> workloadFactory;
+            int runsPerCandidate;
+            int next;
+            if (profile != null) {
+                if (args.length < first + 4) {
+                    log.error("A traffic profile needs a mean interval & a no. of calls");
+                    throw new BadRequestException("A traffic profile needs a mean interval & a no. of calls");
+                }
+                double meanInterval = Double.parseDouble(args[first + 2]);
+                int count = Integer.parseInt(args[first + 3]);
+                workloadFactory = runSeed -> new PoissonWorkload(profile, floorCount, meanInterval, count, runSeed);
+                runsPerCandidate = DEFAULT_TUNING_RUNS;
+                next = first + 4;
+            } else {
+                Path trace = Paths.get(workload);
+                workloadFactory = runSeed -> new TraceReplayWorkload(trace);
+                // a trace is the same on every seed
+                runsPerCandidate = 1;
+                next = first + 2;
+            }
+            int generations = args.length > next ? Integer.parseInt(args[next]) : DEFAULT_TUNING_GENERATIONS;
+            int populationSize = args.length > next + 1 ? Integer.parseInt(args[next + 1]) : DEFAULT_TUNING_POPULATION;
+            TuningObjective objective = System.getProperty(OBJECTIVE_PROPERTY) != null
+                    ? TuningObjective.parse(System.getProperty(OBJECTIVE_PROPERTY)) : new TuningObjective();
+
+            // the limits fit the building, so that a tall tower or a large fleet needs no system properties
+            SimulationLimits limits = new SimulationLimits(floorCount, elevatorSpecs.size(),
+                    SimulationLimits.fromSystemProperties().getMaxPendingRequests());
+            SchedulerTuner tuner = new SchedulerTuner(new MonteCarloRunner(ForkJoinPool.commonPool(), limits), floorCount,
+                    elevatorSpecs, workloadFactory, runsPerCandidate, objective, DEFAULT_SIMULATION_SEED);
+            TuningCandidate best = tuner.tune(generations, populationSize);
+            log.info("Pareto front of wait time, ride time & energy:");
+            tuner.getParetoFront().forEach(candidate -> log.info("  {}", candidate));
+
+            best.getWeights().store(output, String.format("Tuned for %d floors, %d elevators & %s against %s | %s",
+                    floorCount, elevatorSpecs.size(), workload, objective, best));
+            log.info("Dispatch weights written to - {}", output);
+        } catch (NumberFormatException e) {
+            log.error("Invalid tuner arguments - {}", String.join(" ", args));
+            throw new BadRequestException("Invalid tuner arguments - " + String.join(" ", args));
+        }
+    }
+
+    private static TrafficProfile parseProfile(String value) {
+        for (TrafficProfile profile : TrafficProfile.values()) {
+            if (profile.name().equalsIgnoreCase(value)) {
+                return profile;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.elevatorsimulation.tuning;
+
+import org.example.elevatorsimulation.scheduler.DispatchWeights;
+import org.example.elevatorsimulation.simulation.MonteCarloResult;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * A set of dispatch weights evaluated by the tuner, with its mean wait time, mean ride time & net energy per passenger
+ * over every run & its score under the tuning objective
+ */
+public class TuningCandidate {
+    private final DispatchWeights weights;
+    private final MonteCarloResult result;
+    private final double score;
+
+    TuningCandidate(DispatchWeights weights, MonteCarloResult result, double score) {
+        this.weights = weights;
+        this.result = result;
+        this.score = score;
+    }
+
+    public DispatchWeights getWeights() {
+        return weights;
+    }
+
+    public MonteCarloResult getResult() {
+        return result;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * @return the mean wait time in seconds
+     */
+    public double getMeanWaitTime() {
+        return TuningObjective.meanWaitTime(result);
+    }
+
+    /**
+     * @return the mean ride time in seconds
+     */
+    public double getMeanRideTime() {
+        return TuningObjective.meanRideTime(result);
+    }
+
+    /**
+     * @return the net energy per passenger in Wh
+     */
+    public double getEnergyPerPassenger() {
+        return TuningObjective.energyPerPassenger(result);
+    }
+
+    /**
+     * @param other another candidate
+     * @return True, if this candidate is no worse than the other one in any objective & better in at least one
+     */
+    public boolean dominates(TuningCandidate other) {
+        return getMeanWaitTime() <= other.getMeanWaitTime()
+                && getMeanRideTime() <= other.getMeanRideTime()
+                && getEnergyPerPassenger() <= other.getEnergyPerPassenger()
+                && (getMeanWaitTime() < other.getMeanWaitTime()
+                || getMeanRideTime() < other.getMeanRideTime()
+                || getEnergyPerPassenger() < other.getEnergyPerPassenger());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("score=%.3f wait=%.2f s ride=%.2f s energy=%.2f Wh/passenger | %s",
+                score, getMeanWaitTime(), getMeanRideTime(), getEnergyPerPassenger(), weights);
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.elevatorsimulation.tuning;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.exception.BadRequestException;
+import org.example.elevatorsimulation.simulation.MonteCarloResult;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Collapses the wait time, the ride time & the energy of a configuration into a single score to minimise. The weights
+ * price a second of mean wait time, a second of mean ride time & a Wh of net energy per passenger against each other
+ */
+@Slf4j
+public class TuningObjective {
+    private static final double WH_PER_KWH = 1000;
+
+    private final double waitWeight;
+    private final double rideWeight;
+    private final double energyWeight;
+
+    public TuningObjective() {
+        this(1, 0.5, 0.5);
+    }
+
+    public TuningObjective(double waitWeight, double rideWeight, double energyWeight) {
+        if (waitWeight < 0 || rideWeight < 0 || energyWeight < 0 || waitWeight + rideWeight + energyWeight == 0) {
+            log.error("Tuning objective weights must not be negative & at least one must be positive");
+            throw new BadRequestException("Tuning objective weights must not be negative & at least one must be positive");
+        }
+        this.waitWeight = waitWeight;
+        this.rideWeight = rideWeight;
+        this.energyWeight = energyWeight;
+    }
+
+    /**
+     * @param value the weights of the wait time, the ride time & the energy, e.g., {@code 1,0.5,0.5}
+     * @return the objective
+     */
+    public static TuningObjective parse(String value) {
+        String[] fields = value.split(",");
+        if (fields.length != 3) {
+            log.error("Invalid tuning objective - {}", value);
+            throw new BadRequestException("Invalid tuning objective - " + value);
+        }
+        try {
+            return new TuningObjective(Double.parseDouble(fields[0].trim()), Double.parseDouble(fields[1].trim()),
+                    Double.parseDouble(fields[2].trim()));
+        } catch (NumberFormatException e) {
+            log.error("Invalid tuning objective - {}", value);
+            throw new BadRequestException("Invalid tuning objective - " + value);
+        }
+    }
+
+    /**
+     * @param result the aggregated result of a configuration
+     * @return the score of the configuration, lower is better
+     */
+    public double score(MonteCarloResult result) {
+        if (result.getDeliveredCount() == 0) {
+            return Double.MAX_VALUE;
+        }
+        return waitWeight * meanWaitTime(result) + rideWeight * meanRideTime(result) + energyWeight * energyPerPassenger(result);
+    }
+
+    static double meanWaitTime(MonteCarloResult result) {
+        return result.getWaitTimeHistogram().getMean() / 1000;
+    }
+
+    static double meanRideTime(MonteCarloResult result) {
+        return result.getRideTimeHistogram().getMean() / 1000;
+    }
+
+    static double energyPerPassenger(MonteCarloResult result) {
+        return result.getEnergyPerPassenger() * WH_PER_KWH;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.2f x wait s + %.2f x ride s + %.2f x Wh/passenger", waitWeight, rideWeight, energyWeight);
+    }
+}
@@ -13,6 +13,34 @@ public class Constants {
     public static final int MIN_FLOORS = 0;
     public static final int MAX_ELEVATORS = 10;
     public static final int MIN_ELEVATORS = 0;
+    public static final int DEFAULT_FLOOR_COUNT = 20;
+    public static final int DEFAULT_ELEVATOR_COUNT = 3;
     public static final int DEFAULT_SIMULATION_TIME_INTERVAL = 3000;
     public static final int DEFAULT_SIMULATION_COUNT = 10;
+    public static final long DEFAULT_SIMULATION_SEED = 42L;
+    public static final long FLOOR_TRAVEL_TIME = 1000;
+    public static final long DOOR_DWELL_TIME = 1000;
+    public static final long ELEVATOR_IDLE_POLL_INTERVAL = 1000;
+    public static final long PASSENGER_LOAD_PENALTY = 500;
+    public static final long REASSIGNMENT_THRESHOLD = 5000;
+    public static final long DEFAULT_BATCH_WINDOW = 2000;
+    public static final int DEFAULT_DESTINATION_ZONE_SIZE = 5;
+    public static final int DEFAULT_ELEVATOR_CAPACITY = 12;
+    public static final long PASSENGER_TRANSFER_TIME = 1000;
+    public static final int SLOW_TRAVEL_FACTOR = 2;
+    public static final int MAX_PENDING_REQUESTS = 10000;
+    public static final long SHUTDOWN_TIMEOUT = 5000;
+    public static final long DRAIN_TIMEOUT = 300000;
+    public static final long ENERGY_SAVING_WINDOW = 15000;
+    public static final long ENERGY_SAVING_MAX_COST = 60000;
+    public static final long DEFAULT_TELEMETRY_INTERVAL = 250;
+    public static final int TELEMETRY_WRITER_THREADS = 4;
+    public static final long TELEMETRY_WRITE_TIMEOUT = 2000;
+    public static final long DAY_LENGTH = 24 * 60 * 60 * 1000L;
+    public static final long DEMAND_SLOT_LENGTH = 15 * 60 * 1000L;
+    public static final int DEMAND_WINDOW_DAYS = 7;
+    public static final int MIN_PARKING_DEMAND = 3;
+    public static final int DEFAULT_TUNING_GENERATIONS = 10;
+    public static final int DEFAULT_TUNING_POPULATION = 8;
+    public static final int DEFAULT_TUNING_RUNS = 4;
 }
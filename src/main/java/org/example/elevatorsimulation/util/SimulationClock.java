@@ -0,0 +1,16 @@
+package org.example.elevatorsimulation.util;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Interface that captures the source of time of a simulation, i.e., the wall clock for real-time simulations & a
+ * virtual clock for discrete event simulations
+ */
+public interface SimulationClock {
+    SimulationClock SYSTEM = System::currentTimeMillis;
+
+    /**
+     * @return the current time in millis
+     */
+    long currentTimeMillis();
+}
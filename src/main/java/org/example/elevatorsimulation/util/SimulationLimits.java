@@ -0,0 +1,82 @@
+package org.example.elevatorsimulation.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.exception.BadRequestException;
+
+import static org.example.elevatorsimulation.util.Constants.*;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * The upper bounds on the size of a simulated building & the no. of call requests in flight in it. The defaults
+ * come from {@link Constants} & can be raised with the system properties {@value #MAX_FLOORS_PROPERTY},
+ * {@value #MAX_ELEVATORS_PROPERTY} & {@value #MAX_PENDING_REQUESTS_PROPERTY}
+ */
+@Slf4j
+public final class SimulationLimits {
+    public static final String MAX_FLOORS_PROPERTY = "elevatorsimulation.maxFloors";
+    public static final String MAX_ELEVATORS_PROPERTY = "elevatorsimulation.maxElevators";
+    public static final String MAX_PENDING_REQUESTS_PROPERTY = "elevatorsimulation.maxPendingRequests";
+
+    private final int maxFloors;
+    private final int maxElevators;
+    private final int maxPendingRequests;
+
+    public SimulationLimits(int maxFloors, int maxElevators) {
+        this(maxFloors, maxElevators, MAX_PENDING_REQUESTS);
+    }
+
+    public SimulationLimits(int maxFloors, int maxElevators, int maxPendingRequests) {
+        if (maxFloors <= MIN_FLOORS || maxElevators <= MIN_ELEVATORS || maxPendingRequests <= 0) {
+            throw new BadRequestException("Simulation limits must allow at least 1 floor, 1 elevator & 1 pending request");
+        }
+        this.maxFloors = maxFloors;
+        this.maxElevators = maxElevators;
+        this.maxPendingRequests = maxPendingRequests;
+    }
+
+    /**
+     * @return the limits configured through system properties, falling back to the defaults in {@link Constants}
+     */
+    public static SimulationLimits fromSystemProperties() {
+        return new SimulationLimits(Integer.getInteger(MAX_FLOORS_PROPERTY, MAX_FLOORS),
+                Integer.getInteger(MAX_ELEVATORS_PROPERTY, MAX_ELEVATORS),
+                Integer.getInteger(MAX_PENDING_REQUESTS_PROPERTY, MAX_PENDING_REQUESTS));
+    }
+
+    public int getMaxFloors() {
+        return maxFloors;
+    }
+
+    public int getMaxElevators() {
+        return maxElevators;
+    }
+
+    /**
+     * @return the max no. of call requests in flight in a building, i.e., submitted but not delivered yet, before new
+     * ones submitted without blocking are rejected
+     */
+    public int getMaxPendingRequests() {
+        return maxPendingRequests;
+    }
+
+    public boolean isValid(int floorCount, int elevatorCount) {
+        return floorCount > MIN_FLOORS && floorCount <= maxFloors && elevatorCount > MIN_ELEVATORS && elevatorCount <= maxElevators;
+    }
+
+    /**
+     * Validate the size of a building against these limits
+     *
+     * @param floorCount    no. of floors in the building
+     * @param elevatorCount no. of elevators in the building
+     * @throws BadRequestException if the building does not fit within the limits
+     */
+    public void validate(int floorCount, int elevatorCount) {
+        if (!isValid(floorCount, elevatorCount)) {
+            String message = "Bad Request to Elevator Simulation. Please enter a value between 1-" + maxElevators +
+                    " for elevator count & 1-" + maxFloors + " for no. of floors in the building";
+            log.error(message);
+            throw new BadRequestException(message);
+        }
+    }
+}
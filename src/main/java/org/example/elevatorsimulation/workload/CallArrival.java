@@ -0,0 +1,56 @@
+package org.example.elevatorsimulation.workload;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.exception.BadRequestException;
+import org.example.elevatorsimulation.model.ElevatorCallRequest;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * A single call request of a workload along with the time it arrives at, relative to the start of the simulation
+ */
+@Slf4j
+public class CallArrival {
+    private final long time;
+    private final int requestFloor;
+    private final int targetFloor;
+
+    public CallArrival(long time, int requestFloor, int targetFloor) {
+        this.time = time;
+        this.requestFloor = requestFloor;
+        this.targetFloor = targetFloor;
+    }
+
+    /**
+     * @return the arrival time in millis since the start of the simulation
+     */
+    public long getTime() {
+        return time;
+    }
+
+    public int getRequestFloor() {
+        return requestFloor;
+    }
+
+    public int getTargetFloor() {
+        return targetFloor;
+    }
+
+    /**
+     * Check that this arrival can be served by a building with the given no. of floors
+     *
+     * @param floorCount the no. of floors of the building
+     */
+    public void validate(int floorCount) {
+        if (requestFloor < 0 || requestFloor >= floorCount || targetFloor < 0 || targetFloor >= floorCount
+                || requestFloor == targetFloor) {
+            log.error("Invalid call request from floor - {} to floor - {} for a building of {} floors", requestFloor, targetFloor, floorCount);
+            throw new BadRequestException("Invalid call request from floor - " + requestFloor + " to floor - " + targetFloor
+                    + " for a building of " + floorCount + " floors");
+        }
+    }
+
+    public ElevatorCallRequest toRequest() {
+        return new ElevatorCallRequest(requestFloor, targetFloor);
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.elevatorsimulation.workload;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.exception.BadRequestException;
+
+import java.util.Random;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * A parametric workload with Poisson arrivals, i.e., exponentially distributed gaps between call requests, whose trips
+ * follow a {@link TrafficProfile}. The same seed always yields the same workload, so schedulers can be compared on
+ * identical input
+ */
+@Slf4j
+public class PoissonWorkload implements WorkloadSource {
+    private static final int LOBBY_FLOOR = 0;
+
+    private final TrafficProfile profile;
+    private final int floorCount;
+    private final double meanInterval;
+    private final int count;
+    private final Random random;
+    private int generatedCount;
+    private double time;
+
+    /**
+     * @param profile      the mix of trips to generate
+     * @param floorCount   the no. of floors of the building, at least 3 so that there are floors above the lobby to travel between
+     * @param meanInterval the mean time between two arrivals in millis
+     * @param count        the no. of call requests to generate
+     * @param seed         the seed of the arrival times & floors
+     */
+    public PoissonWorkload(TrafficProfile profile, int floorCount, double meanInterval, int count, long seed) {
+        if (floorCount < 3 || meanInterval <= 0) {
+            log.error("A poisson workload needs at least 3 floors & a positive mean interval");
+            throw new BadRequestException("A poisson workload needs at least 3 floors & a positive mean interval");
+        }
+        this.profile = profile;
+        this.floorCount = floorCount;
+        this.meanInterval = meanInterval;
+        this.count = count;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public CallArrival next() {
+        if (generatedCount >= count) {
+            return null;
+        }
+        // the first call arrives at the start of the simulation, every following one after an exponential gap
+        if (generatedCount++ > 0) {
+            time += -Math.log(1.0 - random.nextDouble()) * meanInterval;
+        }
+
+        double trip = random.nextDouble();
+        if (trip < profile.getUpFromLobbyShare()) {
+            return new CallArrival((long) time, LOBBY_FLOOR, randomUpperFloor());
+        }
+        if (trip < profile.getUpFromLobbyShare() + profile.getDownToLobbyShare()) {
+            return new CallArrival((long) time, randomUpperFloor(), LOBBY_FLOOR);
+        }
+        int requestFloor = randomUpperFloor();
+        int targetFloor = requestFloor;
+        while (targetFloor == requestFloor) {
+            targetFloor = randomUpperFloor();
+        }
+        return new CallArrival((long) time, requestFloor, targetFloor);
+    }
+
+    private int randomUpperFloor() {
+        return LOBBY_FLOOR + 1 + random.nextInt(floorCount - 1);
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.elevatorsimulation.workload;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.exception.BadRequestException;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Replays another workload at a multiple of its original rate by compressing its arrival times, e.g., a rate multiplier
+ * of 10 replays an hour of recorded traffic in 6 minutes
+ */
+@Slf4j
+public class ScaledWorkload implements WorkloadSource {
+    private final WorkloadSource source;
+    private final double rateMultiplier;
+
+    public ScaledWorkload(WorkloadSource source, double rateMultiplier) {
+        if (rateMultiplier <= 0) {
+            log.error("The rate multiplier of a workload must be positive");
+            throw new BadRequestException("The rate multiplier of a workload must be positive");
+        }
+        this.source = source;
+        this.rateMultiplier = rateMultiplier;
+    }
+
+    @Override
+    public CallArrival next() {
+        CallArrival arrival = source.next();
+        if (arrival == null) {
+            return null;
+        }
+        return new CallArrival((long) (arrival.getTime() / rateMultiplier), arrival.getRequestFloor(), arrival.getTargetFloor());
+    }
+
+    @Override
+    public void close() {
+        source.close();
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.elevatorsimulation.workload;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.exception.BadRequestException;
+import org.example.elevatorsimulation.exception.ElevatorSimulationException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Replays a recorded trace of call requests from a CSV file of {@code time,requestFloor,targetFloor} lines, where the
+ * time is in millis since the start of the trace. Blank lines & lines starting with {@code #} are skipped. The file is
+ * streamed line by line, so traces of any size can be replayed
+ */
+@Slf4j
+public class TraceReplayWorkload implements WorkloadSource {
+    private final Path path;
+    private final BufferedReader reader;
+    private long lineNumber;
+    private long previousTime;
+
+    public TraceReplayWorkload(Path path) {
+        this.path = path;
+        try {
+            this.reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.error("There was a problem opening the call trace - {}", path);
+            throw new ElevatorSimulationException("There was a problem opening the call trace - " + path, e);
+        }
+    }
+
+    @Override
+    public CallArrival next() {
+        String line;
+        try {
+            do {
+                line = reader.readLine();
+                lineNumber++;
+                if (line == null) {
+                    return null;
+                }
+                line = line.trim();
+            } while (line.isEmpty() || line.startsWith("#"));
+        } catch (IOException e) {
+            log.error("There was a problem reading the call trace - {}", path);
+            throw new ElevatorSimulationException("There was a problem reading the call trace - " + path, e);
+        }
+        return parse(line);
+    }
+
+    private CallArrival parse(String line) {
+        String[] fields = line.split(",");
+        try {
+            if (fields.length != 3) {
+                throw new NumberFormatException("expected 3 fields but found " + fields.length);
+            }
+            long time = Long.parseLong(fields[0].trim());
+            if (time < previousTime) {
+                throw new NumberFormatException("the arrival time " + time + " is before the previous one " + previousTime);
+            }
+            previousTime = time;
+            return new CallArrival(time, Integer.parseInt(fields[1].trim()), Integer.parseInt(fields[2].trim()));
+        } catch (NumberFormatException e) {
+            log.error("Invalid call at line {} of the call trace - {}", lineNumber, path);
+            throw new BadRequestException("Invalid call at line " + lineNumber + " of the call trace - " + path, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            log.warn("There was a problem closing the call trace - {}", path);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.elevatorsimulation.workload;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * The mix of trips making up the traffic of an office building at different times of the day. Every trip is either
+ * from the lobby up to a floor, from a floor down to the lobby or between two floors other than the lobby
+ */
+public enum TrafficProfile {
+    // the morning rush, almost everyone arrives at the lobby & heads up
+    UP_PEAK(0.85, 0.05),
+    // the evening rush, almost everyone heads down to the lobby
+    DOWN_PEAK(0.05, 0.85),
+    // people leave for lunch & return at the same time
+    LUNCH(0.45, 0.45),
+    // the quiet hours, mostly trips between floors
+    INTER_FLOOR(0.1, 0.1);
+
+    private final double upFromLobbyShare;
+    private final double downToLobbyShare;
+
+    TrafficProfile(double upFromLobbyShare, double downToLobbyShare) {
+        this.upFromLobbyShare = upFromLobbyShare;
+        this.downToLobbyShare = downToLobbyShare;
+    }
+
+    public double getUpFromLobbyShare() {
+        return upFromLobbyShare;
+    }
+
+    public double getDownToLobbyShare() {
+        return downToLobbyShare;
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.elevatorsimulation.workload;
+
+import java.util.Random;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * A workload of call requests between uniformly random floors arriving at a fixed interval
+ */
+public class UniformWorkload implements WorkloadSource {
+    private final int floorCount;
+    private final long interval;
+    private final int count;
+    private final Random random;
+    private int generatedCount;
+
+    /**
+     * @param floorCount the no. of floors of the building
+     * @param interval   the time between two arrivals in millis
+     * @param count      the no. of call requests to generate
+     * @param seed       the seed of the random floors
+     */
+    public UniformWorkload(int floorCount, long interval, int count, long seed) {
+        this.floorCount = floorCount;
+        this.interval = interval;
+        this.count = count;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public CallArrival next() {
+        if (generatedCount >= count) {
+            return null;
+        }
+        int a = 0;
+        int b = 0;
+
+        // as long as both the requestFloor & targetFloor are not same
+        while (a == b) {
+            a = random.nextInt(floorCount);
+            b = random.nextInt(floorCount);
+        }
+        return new CallArrival(generatedCount++ * interval, a, b);
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.elevatorsimulation.workload;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * A source of call requests for a simulator. Arrivals are pulled one at a time in the order of their arrival time, so
+ * that a source never has to hold the whole workload in memory
+ */
+public interface WorkloadSource extends AutoCloseable {
+
+    /**
+     * @return the next call arrival, null once the workload is exhausted
+     */
+    CallArrival next();
+
+    /**
+     * Release any resource held by this source, a no-op for generated workloads
+     */
+    @Override
+    default void close() {
+    }
+}
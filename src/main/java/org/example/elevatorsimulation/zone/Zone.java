@@ -0,0 +1,135 @@
+package org.example.elevatorsimulation.zone;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.exception.BadRequestException;
+import org.example.elevatorsimulation.model.ElevatorSpec;
+import org.example.elevatorsimulation.scheduler.Scheduler;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import static org.example.elevatorsimulation.util.Constants.DEFAULT_ELEVATOR_CAPACITY;
+import static org.example.elevatorsimulation.util.Constants.FLOOR_TRAVEL_TIME;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * A group of elevators serving a contiguous range of floors plus a lobby floor, e.g., a low-rise zone serving floors
+ * 0-19 or an express zone running from the lobby straight to a sky lobby at floor 40 & serving floors 40-59. Every zone
+ * is dispatched by its own scheduler. The lobby is the only floor passengers change zones at, so a sky lobby is the lobby
+ * of the zones above it & zones that merely overlap are not connected. The cars of a zone only stop at its floors
+ */
+@Slf4j
+public class Zone {
+    private final String name;
+    private final int lobbyFloor;
+    private final int lowestFloor;
+    private final int highestFloor;
+    private final int elevatorCount;
+    private final ElevatorSpec elevatorSpec;
+    private final Scheduler scheduler;
+
+    /**
+     * @param name          the name of the zone
+     * @param lobbyFloor    the floor the zone connects to the rest of the building at, served even if outside the range
+     * @param lowestFloor   the lowest floor of the range served by the zone
+     * @param highestFloor  the highest floor of the range served by the zone
+     * @param elevatorCount no. of elevators in the zone
+     * @param scheduler     the scheduler dispatching the elevators of the zone
+     */
+    public Zone(String name, int lobbyFloor, int lowestFloor, int highestFloor, int elevatorCount, Scheduler scheduler) {
+        this(name, lobbyFloor, lowestFloor, highestFloor, elevatorCount, DEFAULT_ELEVATOR_CAPACITY, FLOOR_TRAVEL_TIME, scheduler);
+    }
+
+    /**
+     * @param name            the name of the zone
+     * @param lobbyFloor      the floor the zone connects to the rest of the building at, served even if outside the range
+     * @param lowestFloor     the lowest floor of the range served by the zone
+     * @param highestFloor    the highest floor of the range served by the zone
+     * @param elevatorCount   no. of elevators in the zone
+     * @param capacity        the capacity of every elevator of the zone
+     * @param floorTravelTime the time in millis for an elevator of the zone to travel a single floor
+     * @param scheduler       the scheduler dispatching the elevators of the zone
+     */
+    public Zone(String name, int lobbyFloor, int lowestFloor, int highestFloor, int elevatorCount, int capacity,
+                long floorTravelTime, Scheduler scheduler) {
+        if (lowestFloor < 0 || lowestFloor > highestFloor || lobbyFloor < 0 || elevatorCount <= 0) {
+            log.error("Invalid zone - {} serving floors {}-{} from the lobby at {} with {} elevators", name, lowestFloor,
+                    highestFloor, lobbyFloor, elevatorCount);
+            throw new BadRequestException("Invalid zone - " + name + " serving floors " + lowestFloor + "-" + highestFloor
+                    + " from the lobby at " + lobbyFloor + " with " + elevatorCount + " elevators");
+        }
+        this.name = name;
+        this.lobbyFloor = lobbyFloor;
+        this.lowestFloor = lowestFloor;
+        this.highestFloor = highestFloor;
+        this.elevatorCount = elevatorCount;
+        BitSet servedFloors = new BitSet(Math.max(highestFloor, lobbyFloor) + 1);
+        servedFloors.set(lowestFloor, highestFloor + 1);
+        servedFloors.set(lobbyFloor);
+        this.elevatorSpec = new ElevatorSpec(capacity, floorTravelTime, servedFloors);
+        this.scheduler = scheduler;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLobbyFloor() {
+        return lobbyFloor;
+    }
+
+    public int getLowestFloor() {
+        return lowestFloor;
+    }
+
+    public int getHighestFloor() {
+        return highestFloor;
+    }
+
+    public int getElevatorCount() {
+        return elevatorCount;
+    }
+
+    /**
+     * @return the specs of the elevators of the zone, which stop at the range & the lobby of the zone only
+     */
+    public List<ElevatorSpec> getElevatorSpecs() {
+        return Collections.nCopies(elevatorCount, elevatorSpec);
+    }
+
+    /**
+     * @return no. of floors of a building the zone fits into
+     */
+    public int getFloorCount() {
+        return Math.max(highestFloor, lobbyFloor) + 1;
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    public boolean serves(int floor) {
+        return floor == lobbyFloor || (floor >= lowestFloor && floor <= highestFloor);
+    }
+
+    /**
+     * Find the floor passengers change from this to the other zone at, i.e., the lobby of either zone if the other zone
+     * serves it as well
+     *
+     * @param other the zone to transfer to
+     * @return the transfer floor, -1 if neither zone serves the lobby of the other
+     */
+    public int transferFloor(Zone other) {
+        if (serves(other.lobbyFloor)) {
+            return other.lobbyFloor;
+        }
+        return other.serves(lobbyFloor) ? lobbyFloor : -1;
+    }
+
+    @Override
+    public String toString() {
+        return name + " [" + lowestFloor + "-" + highestFloor + ", lobby " + lobbyFloor + "]";
+    }
+}
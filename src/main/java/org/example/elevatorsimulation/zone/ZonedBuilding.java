@@ -0,0 +1,274 @@
+package org.example.elevatorsimulation.zone;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.exception.BadRequestException;
+import org.example.elevatorsimulation.exception.RequestRejectedException;
+import org.example.elevatorsimulation.model.CallRequestHandle;
+import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.service.BuildingEventListener;
+import org.example.elevatorsimulation.service.BuildingService;
+import org.example.elevatorsimulation.service.ElevatorExecutionMode;
+import org.example.elevatorsimulation.util.SimulationLimits;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.example.elevatorsimulation.util.Constants.SHUTDOWN_TIMEOUT;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * A building whose elevators are split into zones. Every zone is a {@link BuildingService} of its own, with its own
+ * call request queue, elevators & scheduler thread, so dispatching scales with the no. of zones rather than contending
+ * on a single queue. A trip within a zone is submitted to that zone as is, while a trip crossing zones is split into
+ * legs at the transfer floors between them & every leg is submitted once the previous one has arrived. The original
+ * call request follows the whole trip, i.e., it is picked up with the first leg & delivered with the last one
+ */
+@Slf4j
+public class ZonedBuilding {
+    private final List<Zone> zones;
+    private final List<BuildingService> zoneBuildings;
+
+    // the trips waiting for the arrival of a leg, keyed by that leg
+    private final Map<ElevatorCallRequest, Trip> trips = new ConcurrentHashMap<>();
+
+    public ZonedBuilding(List<Zone> zones, SimulationLimits limits) {
+        this.zones = Collections.unmodifiableList(new ArrayList<>(zones));
+        this.zoneBuildings = new ArrayList<>(zones.size());
+        TransferListener transferListener = new TransferListener();
+        for (Zone zone : zones) {
+            limits.validate(zone.getFloorCount(), zone.getElevatorCount());
+            BuildingService zoneBuilding = new BuildingService();
+            zoneBuilding.setLimits(limits);
+            zoneBuilding.addListener(transferListener);
+            zone.getScheduler().setBuildingService(zoneBuilding);
+            this.zoneBuildings.add(zoneBuilding);
+        }
+    }
+
+    public List<Zone> getZones() {
+        return zones;
+    }
+
+    /**
+     * @param zone the index of the zone
+     * @return the building service running the elevators of the zone
+     */
+    public BuildingService getZoneBuilding(int zone) {
+        return zoneBuildings.get(zone);
+    }
+
+    /**
+     * Start the elevators & the scheduler of every zone
+     *
+     * @param executionMode how to run the elevators
+     */
+    public void start(ElevatorExecutionMode executionMode) {
+        for (int i = 0; i < zones.size(); i++) {
+            Zone zone = zones.get(i);
+            log.debug("Starting zone - {}", zone);
+            zoneBuildings.get(i).initializeElevators(zone.getElevatorSpecs(), zone.getFloorCount(), executionMode);
+            zone.getScheduler().start();
+        }
+    }
+
+    public void stop() {
+        for (int i = 0; i < zones.size(); i++) {
+            zones.get(i).getScheduler().stop();
+            zoneBuildings.get(i).shutdownElevators();
+        }
+        for (Zone zone : zones) {
+            try {
+                if (!zone.getScheduler().awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                    log.warn("The scheduler of zone - {} did not stop within {} ms", zone.getName(), SHUTDOWN_TIMEOUT);
+                }
+            } catch (InterruptedException e) {
+                log.warn("Interrupted while waiting for the scheduler of zone - {} to stop", zone.getName());
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Block until every trip submitted so far has arrived, including all of its legs
+     *
+     * @param timeout the max time to wait
+     * @param unit    the unit of the timeout
+     * @return True, if no trip is under way. False, if the timeout elapsed first
+     * @throws InterruptedException if the waiting thread was interrupted
+     */
+    public boolean awaitAllDelivered(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean inFlight;
+        do {
+            // a leg arriving in one zone may submit the next leg to a zone that was already found empty
+            for (BuildingService zoneBuilding : zoneBuildings) {
+                if (!zoneBuilding.awaitAllDelivered(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    return false;
+                }
+            }
+            inFlight = false;
+            for (BuildingService zoneBuilding : zoneBuildings) {
+                inFlight |= zoneBuilding.getInFlightRequestCount() > 0;
+            }
+        } while (inFlight);
+        return true;
+    }
+
+    /**
+     * Route a call request to the zone serving it, splitting it into legs at transfer floors if no single zone serves
+     * both floors. The route with the fewest legs is taken
+     *
+     * @param request the call request to submit
+     * @return the handle to follow the call request through the whole trip
+     */
+    public CallRequestHandle submit(ElevatorCallRequest request) {
+        int requestFloor = request.getRequestFloor();
+        int targetFloor = request.getTargetFloor();
+        List<Integer> route = route(requestFloor, targetFloor);
+        if (route == null) {
+            log.error("No zone serves the call request from floor - {} to floor - {}", requestFloor, targetFloor);
+            throw new BadRequestException("No zone serves the call request from floor - " + requestFloor + " to floor - " + targetFloor);
+        }
+        if (route.size() == 1) {
+            return zoneBuildings.get(route.get(0)).submitAsync(request);
+        }
+
+        // chain the legs backwards, so that every leg knows the one to submit on its arrival
+        ElevatorCallRequest nextLeg = null;
+        BuildingService nextZoneBuilding = null;
+        int legTarget = targetFloor;
+        for (int i = route.size() - 1; i >= 0; i--) {
+            int legStart = i == 0 ? requestFloor : zones.get(route.get(i - 1)).transferFloor(zones.get(route.get(i)));
+            ElevatorCallRequest leg = new ElevatorCallRequest(legStart, legTarget);
+            trips.put(leg, new Trip(request, i == 0, nextLeg, nextZoneBuilding));
+            nextLeg = leg;
+            nextZoneBuilding = zoneBuildings.get(route.get(i));
+            legTarget = legStart;
+        }
+        log.debug("Routing the call request from floor - {} to floor - {} over {} legs", requestFloor, targetFloor, route.size());
+
+        // the loop ends on the first leg & its zone
+        ElevatorCallRequest firstLeg = nextLeg;
+        BuildingService firstZoneBuilding = nextZoneBuilding;
+        request.markSubmitted(firstZoneBuilding.getClock().currentTimeMillis());
+        if (firstZoneBuilding.submitAsync(firstLeg).isRejected()) {
+            for (ElevatorCallRequest leg = firstLeg; leg != null; ) {
+                leg = trips.remove(leg).nextLeg;
+            }
+            request.markRejected(new RequestRejectedException("Too many call requests are waiting in zone - "
+                    + zones.get(route.get(0)).getName()));
+        }
+        return request.getHandle();
+    }
+
+    /**
+     * Find the shortest sequence of zones connected by transfer floors from a zone serving the requested floor to a
+     * zone serving the target floor, with a breadth first search over the zones
+     *
+     * @return the indices of the zones to travel through, null if there is no route
+     */
+    private List<Integer> route(int requestFloor, int targetFloor) {
+        int[] previous = new int[zones.size()];
+        Arrays.fill(previous, -2);
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int i = 0; i < zones.size(); i++) {
+            if (zones.get(i).serves(requestFloor)) {
+                previous[i] = -1;
+                queue.add(i);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int zone = queue.poll();
+            if (zones.get(zone).serves(targetFloor)) {
+                List<Integer> route = new ArrayList<>();
+                for (int i = zone; i >= 0; i = previous[i]) {
+                    route.add(0, i);
+                }
+                return route;
+            }
+            for (int next = 0; next < zones.size(); next++) {
+                if (previous[next] == -2 && zones.get(zone).transferFloor(zones.get(next)) >= 0) {
+                    previous[next] = zone;
+                    queue.add(next);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A trip crossing zones, as seen from one of its legs
+     */
+    private static class Trip {
+        private final ElevatorCallRequest request;
+        private final boolean firstLeg;
+        private final ElevatorCallRequest nextLeg;
+        private final BuildingService nextZoneBuilding;
+
+        private Trip(ElevatorCallRequest request, boolean firstLeg, ElevatorCallRequest nextLeg, BuildingService nextZoneBuilding) {
+            this.request = request;
+            this.firstLeg = firstLeg;
+            this.nextLeg = nextLeg;
+            this.nextZoneBuilding = nextZoneBuilding;
+        }
+    }
+
+    /**
+     * Carries the progress of every leg over to the original call request & submits the next leg on arrival
+     */
+    private class TransferListener implements BuildingEventListener {
+
+        @Override
+        public void onRequestAssigned(ElevatorCallRequest request, int elevatorId) {
+            Trip trip = trips.get(request);
+            if (trip != null && trip.firstLeg) {
+                trip.request.markAssigned(elevatorId, request.getAssignedAt());
+            }
+        }
+
+        @Override
+        public void onPassengerPickedUp(ElevatorCallRequest request, int elevatorId) {
+            Trip trip = trips.get(request);
+            if (trip != null && trip.firstLeg) {
+                trip.request.markPickedUp(request.getPickedUpAt());
+            }
+        }
+
+        @Override
+        public void onPassengerDelivered(ElevatorCallRequest request, int elevatorId) {
+            Trip trip = trips.remove(request);
+            if (trip == null) {
+                return;
+            }
+            if (trip.nextLeg != null) {
+                // the hand-over has to happen whatever the queue of the next zone holds, the passenger is already inside
+                trip.nextZoneBuilding.submit(trip.nextLeg);
+            } else {
+                trip.request.markDelivered(request.getDeliveredAt());
+            }
+        }
+
+        @Override
+        public void onPassengerStranded(ElevatorCallRequest request, int elevatorId) {
+            Trip trip = trips.remove(request);
+            if (trip == null) {
+                return;
+            }
+            // the later legs are never submitted, so the whole trip ends here
+            for (ElevatorCallRequest leg = trip.nextLeg; leg != null; ) {
+                leg = trips.remove(leg).nextLeg;
+            }
+            trip.request.markRejected(new RequestRejectedException("Elevator ID - " + elevatorId
+                    + " went out of service with the passenger on board"));
+        }
+    }
+}
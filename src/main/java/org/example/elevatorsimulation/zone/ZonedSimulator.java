@@ -0,0 +1,126 @@
+package org.example.elevatorsimulation.zone;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.elevatorsimulation.service.ElevatorExecutionMode;
+import org.example.elevatorsimulation.simulation.Simulator;
+import org.example.elevatorsimulation.workload.CallArrival;
+import org.example.elevatorsimulation.workload.WorkloadSource;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.example.elevatorsimulation.util.Constants.DRAIN_TIMEOUT;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * A simulator that submits the call requests of a {@link WorkloadSource} in real time to a {@link ZonedBuilding}. Once
+ * the workload runs out or the simulator is drained, it waits for the trips under way to arrive & then stops every zone
+ */
+@Slf4j
+public class ZonedSimulator implements Simulator, Runnable {
+    private Thread thread;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicBoolean terminated = new AtomicBoolean(false);
+    private final CountDownLatch stopSubmitting = new CountDownLatch(1);
+    private final CountDownLatch termination = new CountDownLatch(1);
+    private final ZonedBuilding building;
+    private final WorkloadSource workload;
+    private final int floorCount;
+    private final ElevatorExecutionMode executionMode;
+    private long drainTimeout = Long.getLong("elevatorsimulation.drainTimeout", DRAIN_TIMEOUT);
+
+    public ZonedSimulator(ZonedBuilding building, WorkloadSource workload, int floorCount, ElevatorExecutionMode executionMode) {
+        this.building = building;
+        this.workload = workload;
+        this.floorCount = floorCount;
+        this.executionMode = executionMode;
+    }
+
+    /**
+     * @return the max time in millis to wait for the trips under way to arrive once the workload has run out, before
+     * they are abandoned
+     */
+    public long getDrainTimeout() {
+        return drainTimeout;
+    }
+
+    /**
+     * Set the max time to wait for the trips under way to arrive once the workload has run out. By default it is read
+     * from the elevatorsimulation.drainTimeout system property
+     *
+     * @param drainTimeout the max time in millis
+     */
+    public void setDrainTimeout(long drainTimeout) {
+        this.drainTimeout = drainTimeout;
+    }
+
+    @Override
+    public void run() {
+        long startedAt = System.currentTimeMillis();
+        try (WorkloadSource source = this.workload) {
+            CallArrival arrival;
+            while (running.get() && stopSubmitting.getCount() > 0 && (arrival = source.next()) != null) {
+                arrival.validate(floorCount);
+                long delay = startedAt + arrival.getTime() - System.currentTimeMillis();
+                if (delay > 0 && stopSubmitting.await(delay, TimeUnit.MILLISECONDS)) {
+                    break;
+                }
+                building.submit(arrival.toRequest());
+            }
+            if (running.get()) {
+                if (!building.awaitAllDelivered(drainTimeout, TimeUnit.MILLISECONDS)) {
+                    log.warn("Abandoning the trips still under way after waiting {} ms for them to arrive", drainTimeout);
+                }
+            }
+        } catch (InterruptedException ie) {
+            // the thread belongs to the simulator, so an interrupt can only mean it is asked to stop
+            log.debug("The zoned simulator was interrupted, abandoning the trips under way");
+        } finally {
+            shutdown();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (terminated.get() || !running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A simulator can only be started once");
+        }
+        log.debug("Starting zoned simulator...");
+        building.start(executionMode);
+        thread = new Thread(this, "zoned-simulator");
+        thread.start();
+    }
+
+    @Override
+    public void drain() {
+        log.debug("Draining zoned simulator...");
+        stopSubmitting.countDown();
+    }
+
+    @Override
+    public void stop() {
+        log.debug("Stopping zoned simulator...");
+        running.set(false);
+        stopSubmitting.countDown();
+        if (thread != null) {
+            thread.interrupt();
+        }
+        shutdown();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return termination.await(timeout, unit);
+    }
+
+    private void shutdown() {
+        if (!terminated.compareAndSet(false, true)) {
+            return;
+        }
+        running.set(false);
+        building.stop();
+        termination.countDown();
+    }
+}
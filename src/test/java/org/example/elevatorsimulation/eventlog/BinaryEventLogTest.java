@@ -0,0 +1,126 @@
+package org.example.elevatorsimulation.eventlog;
+
+import org.example.elevatorsimulation.exception.BadRequestException;
+import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.model.ElevatorState;
+import org.example.elevatorsimulation.scheduler.NaiveScheduler;
+import org.example.elevatorsimulation.service.BuildingService;
+import org.example.elevatorsimulation.simulation.DiscreteEventSimulator;
+import org.example.elevatorsimulation.simulation.VirtualClock;
+import org.example.elevatorsimulation.util.SimulationLimits;
+import org.example.elevatorsimulation.workload.UniformWorkload;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Tests that the records written by a {@link BinaryEventLogWriter} read back unchanged through a
+ * {@link BinaryEventLogReader}, across batches & for a whole simulation
+ */
+class BinaryEventLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackEveryFieldOfEveryRecord() {
+        Path path = directory.resolve("events.log");
+        VirtualClock clock = new VirtualClock();
+        ElevatorCallRequest request = new ElevatorCallRequest(3, 17);
+        request.markSubmitted(100);
+
+        // a batch of 2 records, so that the log is written in several batches & a partial one on close
+        try (BinaryEventLogWriter writer = new BinaryEventLogWriter(path, clock, 2)) {
+            clock.advanceTo(100);
+            writer.onRequestSubmitted(request);
+            clock.advanceTo(250);
+            writer.onRequestAssigned(request, 4);
+            clock.advanceTo(1_000);
+            writer.onElevatorMoved(4, 2);
+            writer.onElevatorStateChanged(4, ElevatorState.UP);
+            clock.advanceTo(9_000);
+            writer.onPassengerPickedUp(request, 4);
+            clock.advanceTo(30_000);
+            writer.onPassengerStranded(request, 4);
+            assertEquals(6, writer.getRecordCount());
+        }
+
+        BinaryEventLogReader reader = new BinaryEventLogReader(path);
+        assertEquals(6, reader.getRecordCount());
+
+        EventRecord submitted = reader.read(0);
+        assertEquals(EventType.REQUEST_SUBMITTED, submitted.getType());
+        assertEquals(100, submitted.getTime());
+        assertEquals(request.getId(), submitted.getRequestId());
+        assertEquals(100, submitted.getSubmittedAt());
+        assertEquals(3, submitted.getFloor());
+        assertEquals(17, submitted.getTargetFloor());
+        assertEquals(-1, submitted.getElevatorId());
+
+        assertEquals(EventType.REQUEST_ASSIGNED, reader.getType(1));
+        assertEquals(4, reader.getElevatorId(1));
+        assertEquals(250, reader.getTime(1));
+
+        assertEquals(EventType.ELEVATOR_MOVED, reader.getType(2));
+        assertEquals(-1, reader.getRequestId(2));
+        assertEquals(2, reader.getFloor(2));
+
+        assertEquals(EventType.ELEVATOR_STATE_CHANGED, reader.getType(3));
+        assertEquals(ElevatorState.UP, reader.getState(3));
+
+        assertEquals(EventType.PASSENGER_PICKED_UP, reader.getType(4));
+        assertEquals(EventType.PASSENGER_STRANDED, reader.getType(5));
+        assertEquals(request.getId(), reader.getRequestId(5));
+        assertEquals(30_000, reader.getTime(5));
+
+        assertThrows(BadRequestException.class, () -> reader.read(6));
+    }
+
+    @Test
+    void followsEveryCallRequestOfASimulationByItsId() {
+        Path path = directory.resolve("simulation.log");
+        BuildingService buildingService = new BuildingService();
+        DiscreteEventSimulator simulator = new DiscreteEventSimulator(20, 3, new NaiveScheduler(),
+                new UniformWorkload(20, 500, 200, 7), new SimulationLimits(20, 3), buildingService);
+        try (BinaryEventLogWriter writer = new BinaryEventLogWriter(path, simulator.getClock())) {
+            buildingService.addListener(writer);
+            simulator.run();
+        }
+
+        BinaryEventLogReader reader = new BinaryEventLogReader(path);
+        Map<Long, EventType> lastEvents = new HashMap<>();
+        for (long i = 0; i < reader.getRecordCount(); i++) {
+            long requestId = reader.getRequestId(i);
+            if (requestId < 0) {
+                continue;
+            }
+            EventType type = reader.getType(i);
+            EventType previous = lastEvents.put(requestId, type);
+            if (type == EventType.PASSENGER_PICKED_UP) {
+                assertTrue(previous == EventType.REQUEST_ASSIGNED || previous == EventType.REQUEST_SUBMITTED);
+            } else if (type == EventType.PASSENGER_DELIVERED) {
+                assertEquals(EventType.PASSENGER_PICKED_UP, previous);
+            }
+        }
+        assertEquals(200, lastEvents.size());
+        assertTrue(lastEvents.values().stream().allMatch(type -> type == EventType.PASSENGER_DELIVERED));
+        assertEquals(200, simulator.getMetrics().getDeliveredCount());
+    }
+
+    @Test
+    void rejectsAFileThatIsNotAnEventLog() throws IOException {
+        Path path = directory.resolve("other.log");
+        Files.write(path, List.of("time,requestFloor,targetFloor", "0,1,2"));
+        assertThrows(BadRequestException.class, () -> new BinaryEventLogReader(path));
+    }
+}
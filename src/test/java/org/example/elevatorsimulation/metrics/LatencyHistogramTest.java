@@ -0,0 +1,81 @@
+package org.example.elevatorsimulation.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Tests of the percentiles of the log-linear latency histogram, which are exact below 128 & within 2% above
+ */
+class LatencyHistogramTest {
+
+    @Test
+    void reportsExactPercentilesOfSmallValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(50.5, histogram.getMean(), 1e-9);
+        assertEquals(50, histogram.getPercentile(50));
+        assertEquals(95, histogram.getPercentile(95));
+        assertEquals(99, histogram.getPercentile(99));
+        assertEquals(100, histogram.getPercentile(100));
+        assertEquals(100, histogram.getMax());
+    }
+
+    @Test
+    void boundsTheRelativeErrorOfLargeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1000; value <= 1_000_000; value += 1000) {
+            histogram.record(value);
+        }
+        assertWithin(500_000, histogram.getPercentile(50));
+        assertWithin(950_000, histogram.getPercentile(95));
+        assertWithin(990_000, histogram.getPercentile(99));
+        assertEquals(1_000_000, histogram.getPercentile(100));
+    }
+
+    @Test
+    void ignoresNegativeValuesAndReportsZeroWhenEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-1);
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(99));
+        assertEquals(0, histogram.getMean());
+    }
+
+    @Test
+    void mergesTheValuesOfAnotherHistogram() {
+        LatencyHistogram low = new LatencyHistogram();
+        LatencyHistogram high = new LatencyHistogram();
+        for (int value = 1; value <= 50; value++) {
+            low.record(value);
+            high.record(value + 50);
+        }
+        low.add(high);
+        assertEquals(100, low.getCount());
+        assertEquals(50.5, low.getMean(), 1e-9);
+        assertEquals(50, low.getPercentile(50));
+        assertEquals(100, low.getMax());
+        // the merged histogram is left as it was
+        assertEquals(50, high.getCount());
+        assertEquals(51, high.getPercentile(0));
+    }
+
+    @Test
+    void resetsEveryCount() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(5000);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected * 0.02, "expected " + expected + " within 2%, got " + actual);
+    }
+}
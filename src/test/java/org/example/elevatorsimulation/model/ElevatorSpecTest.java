@@ -0,0 +1,61 @@
+package org.example.elevatorsimulation.model;
+
+import org.example.elevatorsimulation.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Tests of the served floors of an elevator as written in a building file
+ */
+class ElevatorSpecTest {
+
+    @Test
+    void parsesSingleFloorsAndRanges() {
+        BitSet floors = ElevatorSpec.parseFloors(" 0, 20-39 ", 40);
+        assertEquals(21, floors.cardinality());
+        assertTrue(floors.get(0));
+        assertFalse(floors.get(1));
+        assertFalse(floors.get(19));
+        assertTrue(floors.get(20));
+        assertTrue(floors.get(39));
+        assertEquals("0,20-39", ElevatorSpec.formatFloors(floors));
+    }
+
+    @Test
+    void formatsWhatItParses() {
+        for (String value : new String[]{"0", "0-39", "1,3,5", "0-1,3-4,39"}) {
+            assertEquals(value, ElevatorSpec.formatFloors(ElevatorSpec.parseFloors(value, 40)));
+        }
+        assertEquals("all", ElevatorSpec.formatFloors(null));
+    }
+
+    @Test
+    void rejectsMalformedFloors() {
+        for (String value : new String[]{"", "a", "1-", "-1", "5-3", "1-2-3", "1,,2", "1,2,"}) {
+            assertThrows(BadRequestException.class, () -> ElevatorSpec.parseFloors(value, 40), value);
+        }
+    }
+
+    @Test
+    void rejectsFloorsOutsideOfTheBuilding() {
+        assertThrows(BadRequestException.class, () -> ElevatorSpec.parseFloors("0,40", 40));
+        // a bogus range is rejected before a set of its size is allocated
+        assertThrows(BadRequestException.class, () -> ElevatorSpec.parseFloors("0-2000000000", 40));
+    }
+
+    @Test
+    void servesOnlyItsFloors() {
+        ElevatorSpec spec = new ElevatorSpec(8, 500, ElevatorSpec.parseFloors("0,20-39", 40));
+        assertTrue(spec.serves(0));
+        assertFalse(spec.serves(10));
+        assertTrue(spec.serves(25));
+        assertEquals(0, spec.getLowestServedFloor());
+        assertThrows(BadRequestException.class, () -> spec.validate(30));
+        assertTrue(new ElevatorSpec(8, 500).servesEveryFloor());
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.elevatorsimulation.model;
+
+import org.example.elevatorsimulation.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Tests of the lock-free bitset of stops, across word boundaries & at the edges of the building
+ */
+class FloorStopSetTest {
+
+    @Test
+    void addsAndRemovesStopsOnce() {
+        FloorStopSet stops = new FloorStopSet(200);
+        assertTrue(stops.isEmpty());
+        assertTrue(stops.add(70));
+        assertFalse(stops.add(70));
+        assertTrue(stops.contains(70));
+        assertEquals(1, stops.size());
+        assertTrue(stops.remove(70));
+        assertFalse(stops.remove(70));
+        assertFalse(stops.contains(70));
+        assertTrue(stops.isEmpty());
+    }
+
+    @Test
+    void findsTheNextStopAcrossWords() {
+        FloorStopSet stops = new FloorStopSet(200);
+        stops.add(3);
+        stops.add(63);
+        stops.add(64);
+        stops.add(199);
+
+        assertEquals(3, stops.nextAbove(0));
+        assertEquals(3, stops.nextAbove(3));
+        assertEquals(63, stops.nextAbove(4));
+        assertEquals(64, stops.nextAbove(64));
+        assertEquals(199, stops.nextAbove(65));
+        assertEquals(-1, stops.nextAbove(200));
+
+        assertEquals(199, stops.nextBelow(199));
+        assertEquals(64, stops.nextBelow(198));
+        assertEquals(63, stops.nextBelow(63));
+        assertEquals(3, stops.nextBelow(62));
+        assertEquals(-1, stops.nextBelow(2));
+        assertEquals(-1, stops.nextBelow(-1));
+
+        assertEquals(3, stops.first());
+        assertEquals(199, stops.last());
+    }
+
+    @Test
+    void countsTheStopsWithinARange() {
+        FloorStopSet stops = new FloorStopSet(200);
+        for (int floor = 0; floor < 200; floor += 10) {
+            stops.add(floor);
+        }
+        assertEquals(20, stops.size());
+        assertEquals(20, stops.count(0, 199));
+        assertEquals(7, stops.count(60, 120));
+        assertEquals(1, stops.count(63, 70));
+        assertEquals(0, stops.count(61, 69));
+        assertEquals(0, stops.count(120, 60));
+        assertEquals(20, stops.count(-5, 500));
+    }
+
+    @Test
+    void clearsEveryStop() {
+        FloorStopSet stops = new FloorStopSet(130);
+        stops.add(0);
+        stops.add(129);
+        stops.clear();
+        assertTrue(stops.isEmpty());
+        assertEquals(-1, stops.first());
+        assertEquals(-1, stops.last());
+    }
+
+    @Test
+    void rejectsFloorsOutsideOfTheBuilding() {
+        FloorStopSet stops = new FloorStopSet(20);
+        assertThrows(BadRequestException.class, () -> stops.add(20));
+        assertThrows(BadRequestException.class, () -> stops.add(-1));
+    }
+}
@@ -0,0 +1,186 @@
+package org.example.elevatorsimulation.scheduler;
+
+import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.model.ElevatorHealth;
+import org.example.elevatorsimulation.model.ElevatorSnapshot;
+import org.example.elevatorsimulation.model.ElevatorSpec;
+import org.example.elevatorsimulation.model.ElevatorState;
+import org.example.elevatorsimulation.service.BuildingService;
+import org.example.elevatorsimulation.service.Elevator;
+import org.example.elevatorsimulation.service.ElevatorExecutionMode;
+import org.example.elevatorsimulation.util.SimulationLimits;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import static org.example.elevatorsimulation.util.Constants.DEFAULT_ELEVATOR_CAPACITY;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Tests that the candidate index follows the moves & state changes of the elevators, including while its table grows
+ */
+class CandidateIndexTest {
+    private static final int FLOOR_COUNT = 40;
+
+    @Test
+    void findsTheNearestIdleElevator() {
+        BuildingService buildingService = building(4);
+        CandidateIndex index = new CandidateIndex(buildingService);
+        moveTo(buildingService.getElevator(0), 10);
+        moveTo(buildingService.getElevator(1), 14);
+        moveTo(buildingService.getElevator(2), 33);
+        moveTo(buildingService.getElevator(3), 39);
+
+        assertEquals(2, index.nearestIdle(new ElevatorCallRequest(30, 0)).getId());
+        assertEquals(3, index.nearestIdle(new ElevatorCallRequest(38, 0)).getId());
+        // the elevator below wins a tie
+        assertEquals(0, index.nearestIdle(new ElevatorCallRequest(12, 0)).getId());
+        assertEquals(0, index.nearestIdle(new ElevatorCallRequest(0, 5)).getId());
+        assertNull(index.nearestApproaching(new ElevatorCallRequest(12, 20)));
+    }
+
+    @Test
+    void followsTheMovesAndStateChangesOfAnElevator() {
+        BuildingService buildingService = building(1);
+        CandidateIndex index = new CandidateIndex(buildingService);
+        Elevator elevator = buildingService.getElevator(0);
+        elevator.addStop(ElevatorState.UP, 30);
+        while (elevator.getCurrentFloor() < 5) {
+            elevator.step();
+        }
+
+        assertNull(index.nearestIdle(new ElevatorCallRequest(10, 20)));
+        assertEquals(0, index.nearestApproaching(new ElevatorCallRequest(10, 20)).getId());
+        assertEquals(0, index.nearestApproaching(new ElevatorCallRequest(5, 20)).getId());
+        // it has passed the floor already or travels the other way
+        assertNull(index.nearestApproaching(new ElevatorCallRequest(4, 20)));
+        assertNull(index.nearestApproaching(new ElevatorCallRequest(10, 2)));
+
+        while (elevator.step()) {
+            // step until the elevator is idle at its stop
+        }
+        assertNull(index.nearestApproaching(new ElevatorCallRequest(10, 20)));
+        ElevatorSnapshot idle = index.nearestIdle(new ElevatorCallRequest(2, 20));
+        assertEquals(0, idle.getId());
+        assertEquals(30, index.floorOf(idle));
+    }
+
+    @Test
+    void skipsTheElevatorsThatCannotTakeTheCallRequest() {
+        BuildingService buildingService = new BuildingService();
+        buildingService.initializeElevators(List.of(new ElevatorSpec(DEFAULT_ELEVATOR_CAPACITY, 1000),
+                new ElevatorSpec(DEFAULT_ELEVATOR_CAPACITY, 1000, ElevatorSpec.parseFloors("0,20-39", FLOOR_COUNT)),
+                new ElevatorSpec(DEFAULT_ELEVATOR_CAPACITY, 1000)), FLOOR_COUNT, ElevatorExecutionMode.EXTERNAL);
+        CandidateIndex index = new CandidateIndex(buildingService);
+        moveTo(buildingService.getElevator(0), 20);
+        moveTo(buildingService.getElevator(1), 21);
+        moveTo(buildingService.getElevator(2), 35);
+        buildingService.getElevator(0).setHealth(ElevatorHealth.OUT_OF_SERVICE);
+
+        // the elevator out of service & the one that does not stop at floor 10 are passed over
+        assertEquals(2, index.nearestIdle(new ElevatorCallRequest(20, 10)).getId());
+        assertEquals(1, index.nearestIdle(new ElevatorCallRequest(20, 30)).getId());
+        buildingService.getElevator(0).setHealth(ElevatorHealth.IN_SERVICE);
+        assertEquals(0, index.nearestIdle(new ElevatorCallRequest(20, 10)).getId());
+    }
+
+    @Test
+    void growsPastItsElevatorsAndFloors() {
+        BuildingService buildingService = building(1);
+        // the table is sized for 10 floors & at least 64 elevators
+        buildingService.setLimits(new SimulationLimits(10, 1));
+        CandidateIndex index = new CandidateIndex(buildingService);
+        buildingService.initializeElevators(ElevatorSpec.uniformFleet(Long.SIZE + 6, DEFAULT_ELEVATOR_CAPACITY), FLOOR_COUNT,
+                ElevatorExecutionMode.EXTERNAL);
+        Elevator last = buildingService.getElevator(Long.SIZE + 6);
+        moveTo(last, 25);
+
+        assertEquals(last.getId(), index.nearestIdle(new ElevatorCallRequest(30, 0)).getId());
+        assertEquals(last.getId(), index.nearestIdle(new ElevatorCallRequest(14, 0)).getId());
+        assertEquals(25, index.floorOf(index.nearestIdle(new ElevatorCallRequest(39, 0))));
+        assertEquals(0, index.floorOf(index.nearestIdle(new ElevatorCallRequest(12, 0))));
+    }
+
+    @Test
+    void keepsEveryElevatorWhileTheTableGrowsUnderConcurrentUpdates() throws InterruptedException {
+        int racers = 8;
+        for (int round = 0; round < 50; round++) {
+            BuildingService buildingService = building(racers);
+            buildingService.setLimits(new SimulationLimits(10, racers));
+            CandidateIndex index = new CandidateIndex(buildingService);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            for (int id = 0; id < racers; id++) {
+                Elevator elevator = buildingService.getElevator(id);
+                long seed = round * racers + id;
+                Thread thread = new Thread(() -> race(index, elevator, start, seed));
+                threads.add(thread);
+                thread.start();
+            }
+            start.countDown();
+            // adding elevators grows the table by its elevators while the racers grow it by its floors
+            buildingService.initializeElevators(ElevatorSpec.uniformFleet(Long.SIZE, DEFAULT_ELEVATOR_CAPACITY), FLOOR_COUNT,
+                    ElevatorExecutionMode.EXTERNAL);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            for (int id = 0; id < racers; id++) {
+                // every floor the racers end up at is found, although they kept leaving & entering it concurrently
+                ElevatorSnapshot snapshot = index.nearestIdle(new ElevatorCallRequest(finalFloor(id), 0));
+                assertEquals(finalFloor(id), index.floorOf(snapshot), "round " + round);
+            }
+            assertEquals(racers, index.nearestIdle(new ElevatorCallRequest(0, 5)).getId());
+        }
+    }
+
+    /**
+     * Move an elevator around the building & change its state, as its own thread would, & leave it idle at its final
+     * floor. The elevator itself stays idle, so that a lookup sees it as available
+     */
+    private static void race(CandidateIndex index, Elevator elevator, CountDownLatch start, long seed) {
+        Random random = new Random(seed);
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        ElevatorState[] states = {ElevatorState.UP, ElevatorState.DOWN, ElevatorState.STATIONARY};
+        for (int i = 0; i < 2_000; i++) {
+            // a handful of floors around the size of the table, so that the racers keep meeting at the same floors
+            int floor = 8 + random.nextInt(6);
+            elevator.setCurrentFloor(floor);
+            if (random.nextInt(4) == 0) {
+                index.onElevatorStateChanged(elevator.getId(), states[random.nextInt(states.length)]);
+            } else {
+                index.onElevatorMoved(elevator.getId(), floor);
+            }
+        }
+        elevator.setCurrentFloor(finalFloor(elevator.getId()));
+        index.onElevatorStateChanged(elevator.getId(), ElevatorState.STATIONARY);
+    }
+
+    private static int finalFloor(int id) {
+        return 9 + id % 4;
+    }
+
+    private static BuildingService building(int elevators) {
+        BuildingService buildingService = new BuildingService();
+        buildingService.initializeElevators(ElevatorSpec.uniformFleet(elevators, DEFAULT_ELEVATOR_CAPACITY), FLOOR_COUNT,
+                ElevatorExecutionMode.EXTERNAL);
+        return buildingService;
+    }
+
+    private static void moveTo(Elevator elevator, int floor) {
+        elevator.addStop(floor > elevator.getCurrentFloor() ? ElevatorState.UP : ElevatorState.DOWN, floor);
+        while (elevator.step()) {
+            // step until the elevator is idle at the floor
+        }
+    }
+}
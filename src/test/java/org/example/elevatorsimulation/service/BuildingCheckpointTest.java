@@ -0,0 +1,151 @@
+package org.example.elevatorsimulation.service;
+
+import org.example.elevatorsimulation.exception.BadRequestException;
+import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.model.ElevatorHealth;
+import org.example.elevatorsimulation.model.ElevatorSpec;
+import org.example.elevatorsimulation.model.ElevatorState;
+import org.example.elevatorsimulation.model.FloorStopSet;
+import org.example.elevatorsimulation.scheduler.NaiveScheduler;
+import org.example.elevatorsimulation.simulation.DiscreteEventSimulator;
+import org.example.elevatorsimulation.util.SimulationLimits;
+import org.example.elevatorsimulation.workload.UniformWorkload;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.example.elevatorsimulation.util.Constants.DEFAULT_ELEVATOR_CAPACITY;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Tests that a building restored from a {@link BuildingCheckpoint} written out & read back is the building captured, &
+ * that a simulation resumed from it carries every passenger to their floor
+ */
+class BuildingCheckpointTest {
+    private static final int FLOOR_COUNT = 20;
+
+    @Test
+    void restoresEveryElevatorOfTheCapturedBuilding() throws IOException {
+        BuildingService buildingService = new BuildingService();
+        BitSet servedFloors = ElevatorSpec.parseFloors("0,10-19", FLOOR_COUNT);
+        buildingService.initializeElevators(List.of(new ElevatorSpec(DEFAULT_ELEVATOR_CAPACITY, 1000),
+                new ElevatorSpec(8, 500, servedFloors)), FLOOR_COUNT, ElevatorExecutionMode.EXTERNAL);
+        Elevator first = buildingService.getElevator(0);
+        Elevator second = buildingService.getElevator(1);
+
+        ElevatorCallRequest onboard = new ElevatorCallRequest(0, 12);
+        ElevatorCallRequest waiting = new ElevatorCallRequest(15, 0);
+        second.assign(onboard);
+        second.assign(waiting);
+        // carry the first passenger away from the lobby
+        while (second.getOnboardCount() == 0 || second.getCurrentFloor() < 3) {
+            second.step();
+        }
+        first.addStop(ElevatorState.UP, 7);
+        first.step();
+        first.setHealth(ElevatorHealth.SLOW);
+
+        BuildingCheckpoint checkpoint = roundTrip(BuildingCheckpoint.capture(buildingService, FLOOR_COUNT, 42));
+        assertEquals(42, checkpoint.getSeed());
+        assertEquals(FLOOR_COUNT, checkpoint.getFloorCount());
+        assertEquals(2, checkpoint.getElevatorCount());
+
+        BuildingService restored = checkpoint.restore();
+        assertNotSame(buildingService, restored);
+        for (int id = 0; id < 2; id++) {
+            Elevator expected = buildingService.getElevator(id);
+            Elevator actual = restored.getElevator(id);
+            assertEquals(expected.getCurrentFloor(), actual.getCurrentFloor());
+            assertEquals(expected.getElevatorState(), actual.getElevatorState());
+            assertEquals(expected.getHealth(), actual.getHealth());
+            assertEquals(expected.getCapacity(), actual.getCapacity());
+            assertEquals(expected.getSpec().toString(), actual.getSpec().toString());
+            assertEquals(floors(expected.getStops(ElevatorState.UP)), floors(actual.getStops(ElevatorState.UP)));
+            assertEquals(floors(expected.getStops(ElevatorState.DOWN)), floors(actual.getStops(ElevatorState.DOWN)));
+            assertEquals(expected.getPendingPickupCount(), actual.getPendingPickupCount());
+            assertEquals(expected.getOnboardCount(), actual.getOnboardCount());
+        }
+        assertEquals(ElevatorHealth.SLOW, restored.getElevator(0).getHealth());
+        assertFalse(restored.getElevator(1).serves(new ElevatorCallRequest(0, 5)));
+
+        ElevatorCallRequest restoredOnboard = restored.getElevator(1).getOnboardRequests().get(0);
+        assertEquals(onboard.getId(), restoredOnboard.getId());
+        assertEquals(waiting.getId(), restored.getElevator(1).getPendingPickups().get(0).getId());
+        assertEquals(onboard.getRequestFloor(), restoredOnboard.getRequestFloor());
+        assertEquals(onboard.getTargetFloor(), restoredOnboard.getTargetFloor());
+        assertEquals(onboard.getPickedUpAt(), restoredOnboard.getPickedUpAt());
+        assertEquals(2, restored.getInFlightRequestCount());
+    }
+
+    @Test
+    void resumesASimulationUntilEveryPassengerArrives() {
+        BuildingService buildingService = new BuildingService();
+        DiscreteEventSimulator simulator = new DiscreteEventSimulator(FLOOR_COUNT, 3, new NaiveScheduler(),
+                new UniformWorkload(FLOOR_COUNT, 500, 200, 7), new SimulationLimits(FLOOR_COUNT, 3), buildingService);
+        simulator.setStopAt(30_000);
+        simulator.run();
+        BuildingCheckpoint checkpoint = simulator.checkpoint(7);
+        int inFlight = buildingService.getInFlightRequestCount();
+        assertTrue(inFlight > 0);
+        assertEquals(30_000, checkpoint.getTime());
+
+        DiscreteEventSimulator resumed = new DiscreteEventSimulator(checkpoint, new NaiveScheduler(), () -> null);
+        resumed.run();
+        assertEquals(inFlight, resumed.getMetrics().getDeliveredCount());
+        assertEquals(inFlight, resumed.getMetrics().getSubmittedCount());
+        // every fork restores the call requests under the same ids
+        assertEquals(idsInFlight(checkpoint.restore()), idsInFlight(checkpoint.restore()));
+        assertEquals(idsInFlight(buildingService), idsInFlight(checkpoint.restore()));
+    }
+
+    @Test
+    void rejectsDataThatIsNotACheckpoint() throws IOException {
+        BuildingService buildingService = new BuildingService();
+        buildingService.initializeElevators(ElevatorSpec.uniformFleet(1, DEFAULT_ELEVATOR_CAPACITY), FLOOR_COUNT,
+                ElevatorExecutionMode.EXTERNAL);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BuildingCheckpoint.capture(buildingService, FLOOR_COUNT, 1).writeTo(bytes);
+        byte[] image = bytes.toByteArray();
+
+        byte[] corrupt = image.clone();
+        corrupt[0] ^= 0x7F;
+        assertThrows(BadRequestException.class, () -> BuildingCheckpoint.readFrom(new ByteArrayInputStream(corrupt)));
+        byte[] truncated = Arrays.copyOf(image, 12);
+        assertThrows(BadRequestException.class, () -> BuildingCheckpoint.readFrom(new ByteArrayInputStream(truncated)));
+    }
+
+    private static Set<Long> idsInFlight(BuildingService buildingService) {
+        Set<Long> ids = new HashSet<>();
+        for (Elevator elevator : buildingService.getElevatorList()) {
+            elevator.getPendingPickups().forEach(request -> ids.add(request.getId()));
+            elevator.getOnboardRequests().forEach(request -> ids.add(request.getId()));
+        }
+        return ids;
+    }
+
+    private static BuildingCheckpoint roundTrip(BuildingCheckpoint checkpoint) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        checkpoint.writeTo(bytes);
+        assertEquals(checkpoint.size(), bytes.size());
+        return BuildingCheckpoint.readFrom(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    private static BitSet floors(FloorStopSet stops) {
+        BitSet floors = new BitSet();
+        for (int floor = 0; floor < FLOOR_COUNT; floor++) {
+            if (stops.contains(floor)) {
+                floors.set(floor);
+            }
+        }
+        return floors;
+    }
+}
@@ -0,0 +1,207 @@
+package org.example.elevatorsimulation.service;
+
+import org.example.elevatorsimulation.exception.RequestRejectedException;
+import org.example.elevatorsimulation.model.CallRequestHandle;
+import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.model.ElevatorHealth;
+import org.example.elevatorsimulation.model.ElevatorSpec;
+import org.example.elevatorsimulation.model.ElevatorState;
+import org.example.elevatorsimulation.scheduler.NaiveScheduler;
+import org.example.elevatorsimulation.scheduler.RequestDispatcher;
+import org.example.elevatorsimulation.simulation.DiscreteEventSimulator;
+import org.example.elevatorsimulation.util.SimulationLimits;
+import org.example.elevatorsimulation.workload.UniformWorkload;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static org.example.elevatorsimulation.util.Constants.DEFAULT_ELEVATOR_CAPACITY;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Tests of the call requests in flight in a building & of the listeners following them
+ */
+class BuildingServiceTest {
+    private static final int FLOOR_COUNT = 20;
+
+    @Test
+    void keepsAFailingListenerAwayFromTheElevators() {
+        BuildingService buildingService = new BuildingService();
+        DiscreteEventSimulator simulator = new DiscreteEventSimulator(FLOOR_COUNT, 3, new NaiveScheduler(),
+                new UniformWorkload(FLOOR_COUNT, 500, 200, 7), new SimulationLimits(FLOOR_COUNT, 3), buildingService);
+        buildingService.addListener(new BuildingEventListener() {
+            @Override
+            public void onPassengerDelivered(ElevatorCallRequest request, int elevatorId) {
+                throw new IllegalStateException("The disk is full");
+            }
+
+            @Override
+            public void onElevatorMoved(int elevatorId, int floor) {
+                throw new IllegalStateException("The disk is full");
+            }
+        });
+        simulator.run();
+
+        assertEquals(200, simulator.getMetrics().getDeliveredCount());
+        assertEquals(0, buildingService.getInFlightRequestCount());
+        for (Elevator elevator : buildingService.getElevatorList()) {
+            assertEquals(ElevatorHealth.IN_SERVICE, elevator.getHealth());
+        }
+    }
+
+    @Test
+    void tellsListenersAfterReleasingTheElevator() {
+        BuildingService buildingService = new BuildingService();
+        buildingService.initializeElevators(ElevatorSpec.uniformFleet(1, DEFAULT_ELEVATOR_CAPACITY), FLOOR_COUNT,
+                ElevatorExecutionMode.EXTERNAL);
+        Elevator elevator = buildingService.getElevator(0);
+        List<String> events = new ArrayList<>();
+        buildingService.addListener(new BuildingEventListener() {
+            @Override
+            public void onRequestAssigned(ElevatorCallRequest request, int elevatorId) {
+                assertFalse(Thread.holdsLock(elevator));
+                events.add("assigned");
+            }
+
+            @Override
+            public void onPassengerPickedUp(ElevatorCallRequest request, int elevatorId) {
+                assertFalse(Thread.holdsLock(elevator));
+                events.add("picked up");
+            }
+
+            @Override
+            public void onPassengerDelivered(ElevatorCallRequest request, int elevatorId) {
+                assertFalse(Thread.holdsLock(elevator));
+                events.add("delivered");
+            }
+        });
+        ElevatorCallRequest request = new ElevatorCallRequest(2, 5);
+        request.getHandle().getArrival().thenRun(() -> {
+            assertFalse(Thread.holdsLock(elevator));
+            events.add("arrived");
+        });
+
+        elevator.assign(request);
+        while (elevator.step()) {
+            // step until the passenger has arrived
+        }
+        assertEquals(List.of("assigned", "picked up", "arrived", "delivered"), events);
+    }
+
+    @Test
+    void retriesTheDispatchOnceAFullElevatorHasRoom() {
+        BuildingService buildingService = new BuildingService();
+        buildingService.initializeElevators(Collections.singletonList(new ElevatorSpec(1, 1000)), FLOOR_COUNT,
+                ElevatorExecutionMode.EXTERNAL);
+        Elevator elevator = buildingService.getElevator(0);
+        elevator.assign(new ElevatorCallRequest(0, 3));
+        elevator.addStop(ElevatorState.UP, 8);
+        while (elevator.getOnboardCount() == 0) {
+            elevator.step();
+        }
+        assertTrue(elevator.getSnapshot().isFull());
+
+        // the elevator sweeps on upwards past the delivery, so its state does not change
+        long version = buildingService.getElevatorStateVersion();
+        while (elevator.getOnboardCount() > 0) {
+            elevator.step();
+        }
+        assertEquals(ElevatorState.UP, elevator.getElevatorState());
+        assertFalse(elevator.getSnapshot().isFull());
+        assertTrue(buildingService.getElevatorStateVersion() > version);
+    }
+
+    @Test
+    void completesTheStagesOfAHandleInOrder() {
+        BuildingService buildingService = building(1, 10);
+        Elevator elevator = buildingService.getElevator(0);
+        ElevatorCallRequest request = new ElevatorCallRequest(3, 8);
+        List<String> stages = new ArrayList<>();
+        CallRequestHandle handle = buildingService.submitAsync(request);
+        handle.getAssignment().thenAccept(elevatorId -> stages.add("assigned to " + elevatorId));
+        handle.getPickup().thenAccept(elevatorId -> stages.add("picked up by " + elevatorId));
+        handle.getArrival().thenAccept(arrived -> stages.add("arrived at " + arrived.getTargetFloor()));
+        assertTrue(stages.isEmpty());
+        assertEquals(1, buildingService.getInFlightRequestCount());
+
+        dispatch(buildingService);
+        assertEquals(List.of("assigned to 0"), stages);
+        while (elevator.getOnboardCount() == 0) {
+            elevator.step();
+        }
+        assertEquals(List.of("assigned to 0", "picked up by 0"), stages);
+        while (elevator.step()) {
+            // step until the passenger has arrived
+        }
+        assertEquals(List.of("assigned to 0", "picked up by 0", "arrived at 8"), stages);
+        assertSame(request, handle.getArrival().join());
+        assertFalse(handle.isRejected());
+        assertEquals(0, buildingService.getInFlightRequestCount());
+    }
+
+    @Test
+    void rejectsCallRequestsOnceTooManyAreInFlight() {
+        BuildingService buildingService = building(1, 2);
+        Elevator elevator = buildingService.getElevator(0);
+        CallRequestHandle first = buildingService.submitAsync(new ElevatorCallRequest(0, 4));
+        CallRequestHandle second = buildingService.submitAsync(new ElevatorCallRequest(2, 6));
+        CallRequestHandle third = buildingService.submitAsync(new ElevatorCallRequest(5, 1));
+
+        assertFalse(first.isRejected());
+        assertFalse(second.isRejected());
+        assertTrue(third.isRejected());
+        assertRejected(third);
+        assertEquals(2, buildingService.getInFlightRequestCount());
+
+        // the requests handed to the elevator still count, until their passengers have arrived
+        dispatch(buildingService);
+        assertEquals(0, buildingService.getPendingRequestCount());
+        assertTrue(buildingService.submitAsync(new ElevatorCallRequest(5, 1)).isRejected());
+        while (elevator.step()) {
+            // step until both passengers have arrived
+        }
+        assertTrue(first.getArrival().isDone() && second.getArrival().isDone());
+        assertFalse(buildingService.submitAsync(new ElevatorCallRequest(5, 1)).isRejected());
+    }
+
+    @Test
+    void failsTheArrivalOfAStrandedPassenger() {
+        BuildingService buildingService = building(1, 10);
+        Elevator elevator = buildingService.getElevator(0);
+        CallRequestHandle handle = buildingService.submitAsync(new ElevatorCallRequest(1, 9));
+        dispatch(buildingService);
+        while (elevator.getOnboardCount() == 0 || elevator.getCurrentFloor() < 4) {
+            elevator.step();
+        }
+
+        elevator.setHealth(ElevatorHealth.OUT_OF_SERVICE);
+        assertEquals(0, (int) handle.getPickup().join());
+        assertTrue(handle.isRejected());
+        assertRejected(handle);
+        assertEquals(0, buildingService.getInFlightRequestCount());
+    }
+
+    private static BuildingService building(int elevators, int maxPendingRequests) {
+        BuildingService buildingService = new BuildingService();
+        buildingService.setLimits(new SimulationLimits(FLOOR_COUNT, elevators, maxPendingRequests));
+        buildingService.initializeElevators(ElevatorSpec.uniformFleet(elevators, DEFAULT_ELEVATOR_CAPACITY), FLOOR_COUNT,
+                ElevatorExecutionMode.EXTERNAL);
+        return buildingService;
+    }
+
+    private static void dispatch(BuildingService buildingService) {
+        NaiveScheduler scheduler = new NaiveScheduler();
+        scheduler.setBuildingService(buildingService);
+        new RequestDispatcher(scheduler).dispatch(buildingService, false);
+    }
+
+    private static void assertRejected(CallRequestHandle handle) {
+        CompletionException failure = assertThrows(CompletionException.class, () -> handle.getArrival().join());
+        assertInstanceOf(RequestRejectedException.class, failure.getCause());
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.elevatorsimulation.service;
+
+import org.example.elevatorsimulation.model.ElevatorSpec;
+import org.example.elevatorsimulation.model.ElevatorState;
+import org.example.elevatorsimulation.model.MotionPhase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.example.elevatorsimulation.util.Constants.DEFAULT_ELEVATOR_CAPACITY;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Tests of the LOOK sweep of an elevator stepped by hand, i.e., the order it serves its stops in
+ */
+class ElevatorSweepTest {
+    private static final int FLOOR_COUNT = 20;
+
+    private Elevator elevator;
+
+    @BeforeEach
+    void setUp() {
+        BuildingService buildingService = new BuildingService();
+        buildingService.initializeElevators(Collections.singletonList(new ElevatorSpec(DEFAULT_ELEVATOR_CAPACITY, 1000)),
+                FLOOR_COUNT, ElevatorExecutionMode.EXTERNAL);
+        elevator = buildingService.getElevator(0);
+    }
+
+    @Test
+    void servesTheStopsAheadBeforeTurningAround() {
+        elevator.addStop(ElevatorState.UP, 5);
+        elevator.addStop(ElevatorState.UP, 8);
+        elevator.addStop(ElevatorState.DOWN, 12);
+        elevator.addStop(ElevatorState.DOWN, 3);
+
+        assertEquals(List.of(5, 8, 12, 3), run());
+        assertEquals(ElevatorState.STATIONARY, elevator.getElevatorState());
+        assertFalse(elevator.hasPath());
+    }
+
+    @Test
+    void leavesAStopBehindTheElevatorForTheReverseSweep() {
+        elevator.addStop(ElevatorState.UP, 10);
+        while (elevator.getCurrentFloor() < 6) {
+            elevator.step();
+        }
+        elevator.addStop(ElevatorState.UP, 2);
+        elevator.addStop(ElevatorState.UP, 14);
+
+        assertEquals(List.of(10, 14, 2), run());
+    }
+
+    @Test
+    void headsTowardsTheNearestStopWhenIdle() {
+        elevator.addStop(ElevatorState.UP, 9);
+        while (elevator.getCurrentFloor() < 9) {
+            elevator.step();
+        }
+        elevator.step();
+        assertEquals(ElevatorState.STATIONARY, elevator.getElevatorState());
+
+        elevator.addStop(ElevatorState.DOWN, 7);
+        elevator.addStop(ElevatorState.UP, 12);
+        assertEquals(List.of(7, 12), run());
+    }
+
+    @Test
+    void stopsWithoutOpeningTheDoorsIfNobodyTransfers() {
+        elevator.addStop(ElevatorState.UP, 2);
+        elevator.addStop(ElevatorState.UP, 4);
+        elevator.step();
+        assertEquals(MotionPhase.ACCELERATING, elevator.getMotionPhase());
+        elevator.step();
+        assertEquals(MotionPhase.STOPPED, elevator.getMotionPhase());
+        assertEquals(0, elevator.getDwellTime());
+        elevator.step();
+        assertEquals(MotionPhase.ACCELERATING, elevator.getMotionPhase());
+        elevator.step();
+        assertEquals(MotionPhase.IDLE, elevator.getMotionPhase());
+    }
+
+    /**
+     * Step the elevator until it runs out of stops
+     *
+     * @return the floors it stopped at, in order
+     */
+    private List<Integer> run() {
+        List<Integer> stops = new ArrayList<>();
+        for (int steps = 0; elevator.hasPath() && steps < 10 * FLOOR_COUNT; steps++) {
+            int nextStop = elevator.getNextStop();
+            elevator.step();
+            if (elevator.getCurrentFloor() == nextStop) {
+                stops.add(nextStop);
+            }
+        }
+        return stops;
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.elevatorsimulation.simulation;
+
+import org.example.elevatorsimulation.metrics.ElevatorMetrics;
+import org.example.elevatorsimulation.metrics.LatencyHistogram;
+import org.example.elevatorsimulation.metrics.SimulationMetrics;
+import org.example.elevatorsimulation.model.ElevatorSpec;
+import org.example.elevatorsimulation.scheduler.EstimatedTimeScheduler;
+import org.example.elevatorsimulation.scheduler.NaiveScheduler;
+import org.example.elevatorsimulation.service.BuildingService;
+import org.example.elevatorsimulation.service.ElevatorExecutionMode;
+import org.example.elevatorsimulation.util.SimulationLimits;
+import org.example.elevatorsimulation.workload.UniformWorkload;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.example.elevatorsimulation.util.Constants.DEFAULT_ELEVATOR_CAPACITY;
+import static org.example.elevatorsimulation.util.Constants.ELEVATOR_IDLE_POLL_INTERVAL;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Tests that a discrete event simulation is reproducible from its seed & lands close to a real-time simulation of the
+ * same building & workload
+ */
+class DiscreteEventSimulatorTest {
+    private static final int FLOOR_COUNT = 10;
+
+    @Test
+    void repeatsARunWithTheSameSeed() {
+        SimulationMetrics first = simulate(20, 4, 500, 7);
+        SimulationMetrics second = simulate(20, 4, 500, 7);
+
+        assertEquals(300, first.getDeliveredCount());
+        assertEquals(first.getSubmittedCount(), second.getSubmittedCount());
+        assertEquals(first.getDeliveredCount(), second.getDeliveredCount());
+        assertSame(first.getWaitTimeHistogram(), second.getWaitTimeHistogram());
+        assertSame(first.getRideTimeHistogram(), second.getRideTimeHistogram());
+        assertSame(first.getDispatchDelayHistogram(), second.getDispatchDelayHistogram());
+        assertEquals(first.getTotalFloorsTravelled(), second.getTotalFloorsTravelled());
+        assertEquals(first.getTotalStops(), second.getTotalStops());
+        ElevatorMetrics[] firstElevators = first.getAllElevatorMetrics();
+        ElevatorMetrics[] secondElevators = second.getAllElevatorMetrics();
+        assertEquals(firstElevators.length, secondElevators.length);
+        for (int id = 0; id < firstElevators.length; id++) {
+            assertEquals(firstElevators[id].getFloorsTravelled(), secondElevators[id].getFloorsTravelled());
+            assertEquals(firstElevators[id].getStops(), secondElevators[id].getStops());
+            assertEquals(firstElevators[id].getPassengersServed(), secondElevators[id].getPassengersServed());
+        }
+
+        // a different seed is a different day of traffic
+        assertNotEquals(first.getTotalFloorsTravelled(), simulate(20, 4, 500, 8).getTotalFloorsTravelled());
+    }
+
+    /**
+     * A coarse comparison of a single small run, the real-time elevators are paced by the wall clock & an idle one only
+     * notices a call request on its next poll, so the wait is allowed to be longer by up to a poll interval
+     */
+    @Test
+    void landsCloseToTheRealTimeSimulator() throws InterruptedException {
+        // fast elevators & sparse calls, so that the real-time run takes seconds
+        List<ElevatorSpec> specs = List.of(new ElevatorSpec(DEFAULT_ELEVATOR_CAPACITY, 100),
+                new ElevatorSpec(DEFAULT_ELEVATOR_CAPACITY, 100));
+        SimulationLimits limits = new SimulationLimits(FLOOR_COUNT, specs.size());
+        DiscreteEventSimulator discrete = new DiscreteEventSimulator(FLOOR_COUNT, specs, new NaiveScheduler(),
+                new UniformWorkload(FLOOR_COUNT, 2000, 12, 1), limits, new BuildingService());
+        discrete.run();
+        DefaultSimulator realTime = new DefaultSimulator(FLOOR_COUNT, specs, new NaiveScheduler(),
+                new UniformWorkload(FLOOR_COUNT, 2000, 12, 1), ElevatorExecutionMode.THREAD_PER_ELEVATOR, limits,
+                new BuildingService());
+        realTime.start();
+        assertTrue(realTime.awaitTermination(2, TimeUnit.MINUTES));
+
+        SimulationMetrics expected = discrete.getMetrics();
+        SimulationMetrics actual = realTime.getMetrics();
+        assertEquals(expected.getDeliveredCount(), actual.getDeliveredCount());
+        assertClose(expected.getRideTimeHistogram().getMean(), actual.getRideTimeHistogram().getMean(), 0.25, 0);
+        assertClose(expected.getWaitTimeHistogram().getMean(), actual.getWaitTimeHistogram().getMean(), 0.5,
+                ELEVATOR_IDLE_POLL_INTERVAL);
+        assertClose(expected.getTotalFloorsTravelled(), actual.getTotalFloorsTravelled(), 0.2, 0);
+    }
+
+    private static SimulationMetrics simulate(int floorCount, int elevatorCount, long interval, long seed) {
+        DiscreteEventSimulator simulator = new DiscreteEventSimulator(floorCount, elevatorCount,
+                new EstimatedTimeScheduler(), new UniformWorkload(floorCount, interval, 300, seed),
+                new SimulationLimits(floorCount, elevatorCount), new BuildingService());
+        simulator.run();
+        return simulator.getMetrics();
+    }
+
+    private static void assertSame(LatencyHistogram expected, LatencyHistogram actual) {
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(expected.getMean(), actual.getMean());
+    }
+
+    private static void assertClose(double expected, double actual, double tolerance, double slack) {
+        assertTrue(Math.abs(expected - actual) <= expected * tolerance + slack,
+                "expected " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.elevatorsimulation.simulation;
+
+import org.example.elevatorsimulation.model.ElevatorCallRequest;
+import org.example.elevatorsimulation.model.ElevatorHealth;
+import org.example.elevatorsimulation.scheduler.EstimatedTimeScheduler;
+import org.example.elevatorsimulation.service.BuildingEventListener;
+import org.example.elevatorsimulation.service.BuildingService;
+import org.example.elevatorsimulation.util.SimulationLimits;
+import org.example.elevatorsimulation.workload.UniformWorkload;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Abhilash Sulibela
+ * <p>
+ * Tests that the fleet takes over the call requests of an elevator going out of service in a discrete event simulation
+ * & that its stranded passengers do not keep the simulation from draining
+ */
+class ElevatorFaultTest {
+    private static final int FLOOR_COUNT = 20;
+    private static final int CALLS = 200;
+    private static final long FAULT_TIME = 20_000;
+
+    @Test
+    void reassignsTheCallRequestsOfAFailedElevatorAndDrains() {
+        BuildingService buildingService = new BuildingService();
+        DiscreteEventSimulator simulator = new DiscreteEventSimulator(FLOOR_COUNT, 3, new EstimatedTimeScheduler(),
+                new UniformWorkload(FLOOR_COUNT, 500, CALLS, 11), new SimulationLimits(FLOOR_COUNT, 3), buildingService);
+        // elevator 0 goes down for good while the building is busy
+        simulator.setFaultSchedule(new FaultSchedule().add(FAULT_TIME, 0, ElevatorHealth.OUT_OF_SERVICE, 0));
+        FaultListener listener = new FaultListener(simulator);
+        buildingService.addListener(listener);
+        simulator.run();
+
+        assertEquals(ElevatorHealth.OUT_OF_SERVICE, buildingService.getElevator(0).getHealth());
+        assertFalse(listener.reassigned.isEmpty(), "no call request was taken over from the failed elevator");
+        for (long id : listener.reassigned) {
+            int deliveredBy = listener.deliveredBy.get(id);
+            assertNotEquals(0, deliveredBy);
+        }
+        assertFalse(listener.servedByFailedElevatorAfterFault);
+
+        // every call request is either delivered or stranded & none is left in flight
+        assertEquals(CALLS, simulator.getMetrics().getSubmittedCount());
+        assertEquals(CALLS, simulator.getMetrics().getDeliveredCount() + simulator.getMetrics().getStrandedCount());
+        assertFalse(listener.stranded.isEmpty(), "nobody was on board the failed elevator");
+        assertEquals(listener.stranded.size(), simulator.getMetrics().getStrandedCount());
+        assertEquals(0, buildingService.getInFlightRequestCount());
+        for (long id : listener.stranded) {
+            assertFalse(listener.deliveredBy.containsKey(id));
+        }
+    }
+
+    @Test
+    void putsAnElevatorBackInServiceAfterItsFault() {
+        BuildingService buildingService = new BuildingService();
+        DiscreteEventSimulator simulator = new DiscreteEventSimulator(FLOOR_COUNT, 3, new EstimatedTimeScheduler(),
+                new UniformWorkload(FLOOR_COUNT, 500, CALLS, 11), new SimulationLimits(FLOOR_COUNT, 3), buildingService);
+        simulator.setFaultSchedule(new FaultSchedule().add(FAULT_TIME, 0, ElevatorHealth.MAINTENANCE, 30_000));
+        FaultListener listener = new FaultListener(simulator);
+        buildingService.addListener(listener);
+        simulator.run();
+
+        // passengers ride on during maintenance, so nobody is stranded & the elevator serves calls again afterwards
+        assertEquals(ElevatorHealth.IN_SERVICE, buildingService.getElevator(0).getHealth());
+        assertEquals(CALLS, simulator.getMetrics().getDeliveredCount());
+        assertEquals(0, simulator.getMetrics().getStrandedCount());
+        assertTrue(listener.assignedToFailedElevatorAfterRecovery);
+    }
+
+    /**
+     * Follows which elevators the call requests are assigned to & delivered by around the fault
+     */
+    private static final class FaultListener implements BuildingEventListener {
+        private final DiscreteEventSimulator simulator;
+        private final Map<Long, Integer> assignedTo = new HashMap<>();
+        private final Map<Long, Integer> deliveredBy = new HashMap<>();
+        private final Set<Long> reassigned = new HashSet<>();
+        private final Set<Long> stranded = new HashSet<>();
+        private boolean servedByFailedElevatorAfterFault;
+        private boolean assignedToFailedElevatorAfterRecovery;
+
+        private FaultListener(DiscreteEventSimulator simulator) {
+            this.simulator = simulator;
+        }
+
+        @Override
+        public void onRequestAssigned(ElevatorCallRequest request, int elevatorId) {
+            Integer previous = assignedTo.put(request.getId(), elevatorId);
+            if (previous != null && previous == 0 && elevatorId != 0) {
+                reassigned.add(request.getId());
+            }
+            if (elevatorId == 0 && simulator.now() >= FAULT_TIME + 30_000) {
+                assignedToFailedElevatorAfterRecovery = true;
+            }
+        }
+
+        @Override
+        public void onPassengerPickedUp(ElevatorCallRequest request, int elevatorId) {
+            if (elevatorId == 0 && simulator.now() > FAULT_TIME) {
+                servedByFailedElevatorAfterFault = true;
+            }
+        }
+
+        @Override
+        public void onPassengerDelivered(ElevatorCallRequest request, int elevatorId) {
+            deliveredBy.put(request.getId(), elevatorId);
+        }
+
+        @Override
+        public void onPassengerStranded(ElevatorCallRequest request, int elevatorId) {
+            stranded.add(request.getId());
+        }
+    }
+}